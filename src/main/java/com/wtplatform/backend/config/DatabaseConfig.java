@@ -1,8 +1,16 @@
 package com.wtplatform.backend.config;
 
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
 import org.springframework.orm.jpa.JpaTransactionManager;
 import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
 import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
@@ -10,43 +18,105 @@ import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
 
 import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Properties;
 
 @Configuration
 @EnableTransactionManagement
-public class DatabaseConfig {
+public class DatabaseConfig implements DisposableBean {
 
+    static final int JDBC_BATCH_SIZE = 50;
+
+    private final List<HikariDataSource> replicaPools = new ArrayList<>();
+
+    @Bean
+    @Primary
+    @ConfigurationProperties("spring.datasource")
+    public DataSourceProperties dataSourceProperties() {
+        return new DataSourceProperties();
+    }
+
+    /**
+     * Connection pool configured by spring.datasource.* and spring.datasource.hikari.*;
+     * actuator publishes its hikaricp.connections.* metrics
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    /**
+     * The primary alone, or, with spring.datasource.replica.urls set, read-only transactions
+     * routed to replica pools with the primary's settings
+     */
     @Bean
-    public DataSource dataSource() {
-        DriverManagerDataSource dataSource = new DriverManagerDataSource();
-        dataSource.setDriverClassName("org.postgresql.Driver");
-        dataSource.setUrl("jdbc:postgresql://localhost:5432/wealthtree");
-        dataSource.setUsername("postgres");
-        dataSource.setPassword("postgres");
-        return dataSource;
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, MeterRegistry meterRegistry,
+                                 @Value("${spring.datasource.replica.urls:}") List<String> replicaUrls,
+                                 @Value("${spring.datasource.replica.read-your-writes-window-ms:5000}") long readYourWritesWindowMs) {
+        List<DataSource> replicas = new ArrayList<>();
+        for (String url : replicaUrls) {
+            if (url.isBlank()) {
+                continue;
+            }
+            HikariDataSource replica = new HikariDataSource();
+            primaryDataSource.copyStateTo(replica);
+            replica.setJdbcUrl(url.trim());
+            replica.setPoolName(primaryDataSource.getPoolName() + "-replica-" + replicas.size());
+            replica.setReadOnly(true);
+            replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            replicaPools.add(replica);
+            replicas.add(replica);
+        }
+        if (replicas.isEmpty()) {
+            return primaryDataSource;
+        }
+        return new LazyConnectionDataSourceProxy(
+                new ReplicaRoutingDataSource(primaryDataSource, replicas, readYourWritesWindowMs));
     }
 
     @Bean
-    public LocalContainerEntityManagerFactoryBean entityManagerFactory() {
+    public LocalContainerEntityManagerFactoryBean entityManagerFactory(DataSource dataSource,
+                                                                       @Value("${spring.jpa.show-sql:false}") boolean showSql) {
         LocalContainerEntityManagerFactoryBean em = new LocalContainerEntityManagerFactoryBean();
-        em.setDataSource(dataSource());
+        em.setDataSource(dataSource);
         em.setPackagesToScan("com.wtplatform.backend.model");
         em.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
 
-        Properties properties = new Properties();
-        properties.setProperty("hibernate.hbm2ddl.auto", "update");
-        properties.setProperty("hibernate.dialect", "org.hibernate.dialect.PostgreSQLDialect");
-        properties.setProperty("hibernate.show_sql", "true");
-        properties.setProperty("hibernate.format_sql", "true");
+        Properties properties = hibernateProperties();
+        // Printed to stdout, bypassing the logging configuration: off in the prod profile
+        properties.setProperty("hibernate.show_sql", String.valueOf(showSql));
+        properties.setProperty("hibernate.format_sql", String.valueOf(showSql));
         em.setJpaProperties(properties);
 
         return em;
     }
 
+    static Properties hibernateProperties() {
+        Properties properties = new Properties();
+        // Flyway owns the schema (db/migration); Hibernate only checks the mapping against it
+        properties.setProperty("hibernate.hbm2ddl.auto", "validate");
+        properties.setProperty("hibernate.dialect", "org.hibernate.dialect.PostgreSQLDialect");
+        // Inserts and updates are sent in JDBC batches, grouped by table; the batch size
+        // matches the id allocation size of the pooled sequences
+        properties.setProperty("hibernate.jdbc.batch_size", String.valueOf(JDBC_BATCH_SIZE));
+        properties.setProperty("hibernate.order_inserts", "true");
+        properties.setProperty("hibernate.order_updates", "true");
+        properties.setProperty("hibernate.jdbc.batch_versioned_data", "true");
+        return properties;
+    }
+
     @Bean
-    public PlatformTransactionManager transactionManager() {
+    public PlatformTransactionManager transactionManager(LocalContainerEntityManagerFactoryBean entityManagerFactory) {
         JpaTransactionManager transactionManager = new JpaTransactionManager();
-        transactionManager.setEntityManagerFactory(entityManagerFactory().getObject());
+        transactionManager.setEntityManagerFactory(entityManagerFactory.getObject());
         return transactionManager;
     }
-} 
\ No newline at end of file
+
+    @Override
+    public void destroy() {
+        replicaPools.forEach(HikariDataSource::close);
+    }
+}
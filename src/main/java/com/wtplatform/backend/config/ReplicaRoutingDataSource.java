@@ -0,0 +1,97 @@
+package com.wtplatform.backend.config;
+
+import com.wtplatform.backend.model.User;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends read-only transactions to the replica pools, round-robin, and everything else to the
+ * primary. Must be wrapped in a LazyConnectionDataSourceProxy: the read-only flag of a
+ * transaction is only set after it begins, so the connection has to be chosen on first use.
+ *
+ * Read-your-writes: once a user's read-write transaction commits, that user's reads stay on
+ * the primary for {@code readYourWritesWindowMs}, longer than replication normally lags, so
+ * they see their own change.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final String PRIMARY = "primary";
+    private static final int EVICT_THRESHOLD = 10000;
+
+    private final List<String> replicaKeys;
+    private final long readYourWritesWindowNanos;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final Map<Long, Long> primaryUntil = new ConcurrentHashMap<>();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas, long readYourWritesWindowMs) {
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < replicas.size(); i++) {
+            targets.put("replica-" + i, replicas.get(i));
+        }
+        this.replicaKeys = targets.keySet().stream().map(Object::toString).filter(key -> !PRIMARY.equals(key)).sorted().toList();
+        this.readYourWritesWindowNanos = TimeUnit.MILLISECONDS.toNanos(readYourWritesWindowMs);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return PRIMARY;
+        }
+        Long userId = currentUserId();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (userId != null && TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        if (primaryUntil.size() >= EVICT_THRESHOLD) {
+                            evictExpired();
+                        }
+                        primaryUntil.put(userId, System.nanoTime() + readYourWritesWindowNanos);
+                    }
+                });
+            }
+            return PRIMARY;
+        }
+        if (replicaKeys.isEmpty() || (userId != null && withinReadYourWritesWindow(userId))) {
+            return PRIMARY;
+        }
+        return replicaKeys.get(Math.floorMod(nextReplica.getAndIncrement(), replicaKeys.size()));
+    }
+
+    private boolean withinReadYourWritesWindow(Long userId) {
+        Long until = primaryUntil.get(userId);
+        if (until == null) {
+            return false;
+        }
+        if (until - System.nanoTime() > 0) {
+            return true;
+        }
+        primaryUntil.remove(userId, until);
+        return false;
+    }
+
+    private void evictExpired() {
+        long now = System.nanoTime();
+        primaryUntil.values().removeIf(until -> until - now <= 0);
+    }
+
+    private static Long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.getPrincipal() instanceof User user ? user.getId() : null;
+    }
+}
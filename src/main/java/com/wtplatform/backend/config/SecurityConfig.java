@@ -2,6 +2,8 @@ package com.wtplatform.backend.config;
 
 import java.util.Arrays;
 
+import jakarta.servlet.DispatcherType;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -22,7 +24,10 @@ import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 import org.springframework.beans.factory.annotation.Value;
 
+import com.wtplatform.backend.security.AuthRateLimitFilter;
+import com.wtplatform.backend.security.BoundedPasswordEncoder;
 import com.wtplatform.backend.security.JwtAuthenticationFilter;
+import com.wtplatform.backend.security.PasswordHashingExecutor;
 
 @Configuration
 @EnableWebSecurity
@@ -31,6 +36,9 @@ public class SecurityConfig {
     @Autowired
     private JwtAuthenticationFilter jwtAuthenticationFilter;
 
+    @Autowired
+    private AuthRateLimitFilter authRateLimitFilter;
+
     @Value("${frontend.origin}")
     private String frontendOrigin;
 
@@ -43,10 +51,13 @@ public class SecurityConfig {
                 .sessionCreationPolicy(SessionCreationPolicy.STATELESS)
             )
             .authorizeHttpRequests(auth -> auth
+                // Completion of SSE streams re-dispatches the already authenticated request
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                 .requestMatchers("/auth/**").permitAll()
                 .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
                 .anyRequest().authenticated()
             )
+            .addFilterBefore(authRateLimitFilter, UsernamePasswordAuthenticationFilter.class)
             .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
 
         return http.build();
@@ -68,8 +79,9 @@ public class SecurityConfig {
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(PasswordHashingExecutor passwordHashingExecutor) {
+        // BCrypt runs on its own bounded pool, not on request threads
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(), passwordHashingExecutor);
     }
 
     @Bean
@@ -33,4 +33,4 @@ public class AumController {
     public ResponseEntity<AumBreakdownDTO> getAumBreakdown() {
         return ResponseEntity.ok(aumService.getAumBreakdown());
     }
-} 
\ No newline at end of file
+}
\ No newline at end of file
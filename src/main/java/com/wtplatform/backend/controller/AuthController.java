@@ -7,9 +7,12 @@ import com.wtplatform.backend.dto.LoginRequest;
 import com.wtplatform.backend.dto.LoginResponse;
 import com.wtplatform.backend.dto.RegisterRequest;
 import com.wtplatform.backend.dto.ErrorResponse;
+import com.wtplatform.backend.exception.TooManyRequestsException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -33,6 +36,9 @@ public class AuthController {
             logger.debug("Token: {}", authResponse.getToken().substring(0, Math.min(20, authResponse.getToken().length())) + "...");
             
             return ResponseEntity.ok(new LoginResponse(authResponse.getToken(), authResponse.getRole()));
+        } catch (TooManyRequestsException e) {
+            logger.warn("Login throttled for user: {}: {}", loginRequest.getEmail(), e.getMessage());
+            return tooManyRequests(e);
         } catch (Exception e) {
             logger.error("Login failed for user: " + loginRequest.getEmail(), e);
             return ResponseEntity.badRequest().body(new ErrorResponse("Invalid credentials: " + e.getMessage()));
@@ -50,9 +56,18 @@ public class AuthController {
             );
             logger.debug("Registration successful for user: {}", registerRequest.getEmail());
             return ResponseEntity.ok(user);
+        } catch (TooManyRequestsException e) {
+            logger.warn("Registration throttled for user: {}: {}", registerRequest.getEmail(), e.getMessage());
+            return tooManyRequests(e);
         } catch (Exception e) {
             logger.error("Registration failed for user: " + registerRequest.getEmail(), e);
             return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
         }
     }
+
+    private ResponseEntity<ErrorResponse> tooManyRequests(TooManyRequestsException e) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(new ErrorResponse(e.getMessage()));
+    }
 } 
\ No newline at end of file
@@ -2,8 +2,16 @@ package com.wtplatform.backend.controller;
 
 import com.wtplatform.backend.dto.ClientDTO;
 import com.wtplatform.backend.dto.ClientDocumentDTO;
+import com.wtplatform.backend.dto.ClientFilterDTO;
+import com.wtplatform.backend.dto.ClientImportJobDTO;
+import com.wtplatform.backend.dto.ClientImportRowResultDTO;
+import com.wtplatform.backend.dto.ClientSegmentDTO;
+import com.wtplatform.backend.dto.ClientSuggestionDTO;
 import com.wtplatform.backend.dto.DocumentUploadResponse;
 import com.wtplatform.backend.dto.ErrorResponse;
+import com.wtplatform.backend.exception.TooManyRequestsException;
+import com.wtplatform.backend.service.ClientImportService;
+import com.wtplatform.backend.service.ClientOverviewSection;
 import com.wtplatform.backend.service.ClientService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.io.ByteArrayResource;
@@ -19,6 +27,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 
 import java.io.IOException;
 import java.nio.file.Files;
@@ -33,6 +42,9 @@ public class ClientController {
     @Autowired
     private ClientService clientService;
 
+    @Autowired
+    private ClientImportService clientImportService;
+
     @PostMapping
     public ResponseEntity<ClientDTO> createClient(@RequestBody ClientDTO clientDTO) {
         logger.debug("Received create client request: {}", clientDTO);
@@ -51,6 +63,22 @@ public class ClientController {
         return ResponseEntity.ok(clientService.getClientById(id));
     }
 
+    /**
+     * Client profile in one request. fields selects sections (notes, transactions, stps,
+     * balances, holdings, documents); all by default.
+     */
+    @GetMapping("/{id}/overview")
+    public ResponseEntity<?> getClientOverview(
+            @PathVariable Long id,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false, defaultValue = "10") int transactions) {
+        try {
+            return ResponseEntity.ok(clientService.getClientOverview(id, ClientOverviewSection.parse(fields), transactions));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        }
+    }
+
     @GetMapping("/pan/{pan}")
     public ResponseEntity<ClientDTO> getClientByPan(@PathVariable String pan) {
         logger.debug("Received get client request for PAN: {}", pan);
@@ -64,9 +92,18 @@ public class ClientController {
     }
 
     @GetMapping("/search")
-    public ResponseEntity<List<ClientDTO>> searchClients(@RequestParam String searchTerm) {
+    public ResponseEntity<List<ClientDTO>> searchClients(
+            @RequestParam String searchTerm,
+            @RequestParam(required = false, defaultValue = "20") int limit) {
         logger.debug("Received search clients request with term: {}", searchTerm);
-        return ResponseEntity.ok(clientService.searchClients(searchTerm));
+        return ResponseEntity.ok(clientService.searchClients(searchTerm, limit));
+    }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<List<ClientSuggestionDTO>> suggestClients(
+            @RequestParam String q,
+            @RequestParam(required = false, defaultValue = "10") int limit) {
+        return ResponseEntity.ok(clientService.suggestClients(q, limit));
     }
 
     @GetMapping("/filter")
@@ -77,12 +114,51 @@ public class ClientController {
         return ResponseEntity.ok(clientService.getClientsByRiskProfileAndHorizon(riskProfile, investmentHorizon));
     }
 
+    /**
+     * Segmentation filter: every given criterion must match. Without active, both active and
+     * inactive clients are returned.
+     */
+    @GetMapping("/filter/paged")
+    public ResponseEntity<?> filterClients(
+            @RequestParam(required = false) String riskProfile,
+            @RequestParam(required = false) String investmentHorizon,
+            @RequestParam(required = false) String city,
+            @RequestParam(required = false) String state,
+            @RequestParam(required = false) Double minAum,
+            @RequestParam(required = false) Double maxAum,
+            @RequestParam(required = false) Boolean active,
+            @RequestParam(required = false, defaultValue = "0") int page,
+            @RequestParam(required = false, defaultValue = "10") int size,
+            @RequestParam(required = false, defaultValue = "name") String sort,
+            @RequestParam(required = false, defaultValue = "asc") String direction) {
+        ClientFilterDTO filter = ClientFilterDTO.builder()
+                .riskProfile(riskProfile)
+                .investmentHorizon(investmentHorizon)
+                .city(city)
+                .state(state)
+                .minAum(minAum)
+                .maxAum(maxAum)
+                .active(active)
+                .build();
+        try {
+            Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.fromString(direction), sort));
+            return ResponseEntity.ok(clientService.filterClients(filter, pageable));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        }
+    }
+
     @GetMapping("/count")
     public ResponseEntity<Long> getClientCount() {
         logger.debug("Received get client count request");
         return ResponseEntity.ok(clientService.getClientCount());
     }
 
+    @GetMapping("/segments")
+    public ResponseEntity<List<ClientSegmentDTO>> getClientSegments() {
+        return ResponseEntity.ok(clientService.getClientSegments());
+    }
+
     @PostMapping("/{id}/deactivate")
     public ResponseEntity<Void> deactivateClient(@PathVariable Long id) {
         logger.debug("Received deactivate client request for id: {}", id);
@@ -166,18 +242,22 @@ public class ClientController {
     }
 
     @GetMapping("/paged")
-    public ResponseEntity<Page<ClientDTO>> getPagedClients(
+    public ResponseEntity<?> getPagedClients(
             @RequestParam(required = false) String searchTerm,
             @RequestParam(required = false, defaultValue = "0") int page,
-            @RequestParam(required = false, defaultValue = "10") int size) {
-        logger.debug("Received paged clients request with searchTerm: {}, page: {}, size: {}", 
-                searchTerm, page, size);
+            @RequestParam(required = false, defaultValue = "10") int size,
+            @RequestParam(required = false, defaultValue = "name") String sort,
+            @RequestParam(required = false, defaultValue = "asc") String direction) {
+        logger.debug("Received paged clients request with searchTerm: {}, page: {}, size: {}, sort: {} {}", 
+                searchTerm, page, size, sort, direction);
         
         try {
-            Pageable pageable = PageRequest.of(page, size);
+            Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.fromString(direction), sort));
             Page<ClientDTO> result = clientService.getPagedClients(pageable, searchTerm);
             // Page will always have a non-null content array (could be empty)
             return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
         } catch (Exception e) {
             logger.error("Error retrieving paged clients", e);
             // Return an empty page rather than an error to ensure frontend gets a valid response structure
@@ -185,6 +265,60 @@ public class ClientController {
         }
     }
     
+    /**
+     * Keyset-paged client list: pass the returned nextCursor to get the following slice.
+     * The total is only counted when includeCount is set.
+     */
+    @GetMapping("/scroll")
+    public ResponseEntity<?> scrollClients(
+            @RequestParam(required = false) String searchTerm,
+            @RequestParam(required = false, defaultValue = "name") String sort,
+            @RequestParam(required = false, defaultValue = "asc") String direction,
+            @RequestParam(required = false, defaultValue = "20") int size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false, defaultValue = "false") boolean includeCount) {
+        try {
+            return ResponseEntity.ok(clientService.scrollClients(searchTerm, sort, direction, size, cursor, includeCount));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        }
+    }
+    
+    /**
+     * Start a background bulk import of a CSV or NDJSON file; poll the returned job for progress
+     */
+    @PostMapping("/import-jobs")
+    public ResponseEntity<?> startBulkImport(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(required = false) String format) {
+        try {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(clientImportService.startImport(file, format));
+        } catch (TooManyRequestsException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .body(new ErrorResponse(e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        } catch (IOException e) {
+            logger.error("Failed to store import file", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ErrorResponse("Failed to store import file: " + e.getMessage()));
+        }
+    }
+
+    @GetMapping("/import-jobs/{jobId}")
+    public ResponseEntity<ClientImportJobDTO> getBulkImport(@PathVariable String jobId) {
+        return ResponseEntity.of(clientImportService.getJob(jobId));
+    }
+
+    @GetMapping("/import-jobs/{jobId}/results")
+    public ResponseEntity<List<ClientImportRowResultDTO>> getBulkImportResults(
+            @PathVariable String jobId,
+            @RequestParam(required = false, defaultValue = "0") int offset,
+            @RequestParam(required = false, defaultValue = "1000") int limit) {
+        return ResponseEntity.of(clientImportService.getResults(jobId, offset, Math.min(limit, 10000)));
+    }
+
     @PostMapping("/import")
     public ResponseEntity<?> importClientsFromCSV(
             @RequestParam("file") MultipartFile file) {
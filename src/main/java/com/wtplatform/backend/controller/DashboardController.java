@@ -5,10 +5,21 @@ import com.wtplatform.backend.service.DashboardService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import com.wtplatform.backend.model.User;
+import com.wtplatform.backend.service.DashboardChangedEvent.Topic;
+import com.wtplatform.backend.service.DashboardPushService;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/dashboard")
@@ -18,9 +29,35 @@ public class DashboardController {
     @Autowired
     private DashboardService dashboardService;
     
+    @Autowired
+    private DashboardPushService dashboardPushService;
+    
     @GetMapping("/stats")
     public ResponseEntity<DashboardStatsDTO> getDashboardStats() {
         logger.debug("Received dashboard stats request");
         return ResponseEntity.ok(dashboardService.getDashboardStats());
     }
+    
+    /**
+     * Server-sent "delta" events carrying only the changed fields of the requested topics
+     * (dashboard, stp, aum); the first event holds their full current state
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamDashboard(
+            @AuthenticationPrincipal User user,
+            @RequestParam(defaultValue = "dashboard,stp,aum") List<String> topics) {
+        Set<Topic> requested = EnumSet.noneOf(Topic.class);
+        for (String topic : topics) {
+            try {
+                requested.add(Topic.valueOf(topic.trim().toUpperCase()));
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().build();
+            }
+        }
+        if (requested.isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+        logger.debug("Opening dashboard stream for user {} with topics {}", user.getId(), requested);
+        return ResponseEntity.ok(dashboardPushService.subscribe(user.getId(), requested));
+    }
 } 
\ No newline at end of file
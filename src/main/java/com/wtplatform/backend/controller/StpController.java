@@ -1,5 +1,7 @@
 package com.wtplatform.backend.controller;
 
+import com.wtplatform.backend.dto.StpBalanceWarningDTO;
+import com.wtplatform.backend.dto.StpProjectionDTO;
 import com.wtplatform.backend.dto.StpSummaryDTO;
 import com.wtplatform.backend.dto.StpTransactionDTO;
 import com.wtplatform.backend.model.Transaction;
@@ -28,6 +30,18 @@ public class StpController {
         return ResponseEntity.ok(stpService.getStpListByEmail(authentication.getName()));
     }
 
+    @GetMapping("/warnings")
+    public ResponseEntity<List<StpBalanceWarningDTO>> getStpWarnings(Authentication authentication) {
+        return ResponseEntity.ok(stpService.getStpWarningsByEmail(authentication.getName()));
+    }
+
+    @GetMapping("/projection")
+    public ResponseEntity<StpProjectionDTO> getStpProjection(
+            Authentication authentication,
+            @RequestParam(defaultValue = "12") int months) {
+        return ResponseEntity.ok(stpService.getStpProjectionByEmail(authentication.getName(), months));
+    }
+
     @PostMapping("/validate")
     public ResponseEntity<Void> validateStpTransaction(@RequestBody Transaction transaction) {
         stpService.validateStpTransaction(transaction);
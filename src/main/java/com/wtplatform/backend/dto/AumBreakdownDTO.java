@@ -9,6 +9,7 @@ import lombok.Builder;
 public class AumBreakdownDTO {
     private Map<String, Double> byClient;        // Client Name -> AUM Value
     private Map<String, Double> byAssetClass;    // Asset Class -> AUM Value
+    private Map<String, Double> byAmc;           // AMC Name -> AUM Value
     private Map<String, Double> byTimeSegment;   // Time Period -> AUM Value
 
     public Map<String, Double> getByClient() {
@@ -27,6 +28,14 @@ public class AumBreakdownDTO {
         this.byAssetClass = byAssetClass;
     }
 
+    public Map<String, Double> getByAmc() {
+        return byAmc;
+    }
+
+    public void setByAmc(Map<String, Double> byAmc) {
+        this.byAmc = byAmc;
+    }
+
     public Map<String, Double> getByTimeSegment() {
         return byTimeSegment;
     }
@@ -0,0 +1,60 @@
+package com.wtplatform.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BalanceShortfallDTO {
+    private Long clientId;
+    private String fund;
+    private double openingBalance;
+    private LocalDate firstNegativeDate;    // First date the projected balance drops below zero
+    private double projectedBalance;        // Projected balance at that date
+
+    public Long getClientId() {
+        return clientId;
+    }
+
+    public void setClientId(Long clientId) {
+        this.clientId = clientId;
+    }
+
+    public String getFund() {
+        return fund;
+    }
+
+    public void setFund(String fund) {
+        this.fund = fund;
+    }
+
+    public double getOpeningBalance() {
+        return openingBalance;
+    }
+
+    public void setOpeningBalance(double openingBalance) {
+        this.openingBalance = openingBalance;
+    }
+
+    public LocalDate getFirstNegativeDate() {
+        return firstNegativeDate;
+    }
+
+    public void setFirstNegativeDate(LocalDate firstNegativeDate) {
+        this.firstNegativeDate = firstNegativeDate;
+    }
+
+    public double getProjectedBalance() {
+        return projectedBalance;
+    }
+
+    public void setProjectedBalance(double projectedBalance) {
+        this.projectedBalance = projectedBalance;
+    }
+}
@@ -0,0 +1,79 @@
+package com.wtplatform.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Criteria of a client segmentation filter. Null criteria are not applied.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClientFilterDTO {
+    private String riskProfile;
+    private String investmentHorizon;
+    private String city;
+    private String state;
+    private Double minAum;
+    private Double maxAum;
+    private Boolean active;
+
+    public String getRiskProfile() {
+        return riskProfile;
+    }
+
+    public void setRiskProfile(String riskProfile) {
+        this.riskProfile = riskProfile;
+    }
+
+    public String getInvestmentHorizon() {
+        return investmentHorizon;
+    }
+
+    public void setInvestmentHorizon(String investmentHorizon) {
+        this.investmentHorizon = investmentHorizon;
+    }
+
+    public String getCity() {
+        return city;
+    }
+
+    public void setCity(String city) {
+        this.city = city;
+    }
+
+    public String getState() {
+        return state;
+    }
+
+    public void setState(String state) {
+        this.state = state;
+    }
+
+    public Double getMinAum() {
+        return minAum;
+    }
+
+    public void setMinAum(Double minAum) {
+        this.minAum = minAum;
+    }
+
+    public Double getMaxAum() {
+        return maxAum;
+    }
+
+    public void setMaxAum(Double maxAum) {
+        this.maxAum = maxAum;
+    }
+
+    public Boolean getActive() {
+        return active;
+    }
+
+    public void setActive(Boolean active) {
+        this.active = active;
+    }
+}
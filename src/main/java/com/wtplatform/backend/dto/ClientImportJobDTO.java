@@ -0,0 +1,108 @@
+package com.wtplatform.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress of a background bulk client import. Row outcomes are paged from the results endpoint.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClientImportJobDTO {
+    private String jobId;
+    private String status;    // QUEUED, RUNNING, COMPLETED or FAILED
+    private String format;    // CSV or NDJSON
+    private int rowsRead;
+    private int imported;
+    private int failed;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private String error;     // why the job stopped, when FAILED
+    private int resultsDropped;   // row outcomes past client-import.max-row-results, counted but not kept
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    public void setJobId(String jobId) {
+        this.jobId = jobId;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getFormat() {
+        return format;
+    }
+
+    public void setFormat(String format) {
+        this.format = format;
+    }
+
+    public int getRowsRead() {
+        return rowsRead;
+    }
+
+    public void setRowsRead(int rowsRead) {
+        this.rowsRead = rowsRead;
+    }
+
+    public int getImported() {
+        return imported;
+    }
+
+    public void setImported(int imported) {
+        this.imported = imported;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public void setFailed(int failed) {
+        this.failed = failed;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(LocalDateTime startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(LocalDateTime finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public int getResultsDropped() {
+        return resultsDropped;
+    }
+
+    public void setResultsDropped(int resultsDropped) {
+        this.resultsDropped = resultsDropped;
+    }
+}
@@ -0,0 +1,84 @@
+package com.wtplatform.backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Everything the client profile page shows, in one response. Sections not requested
+ * through {@code fields} are left out.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ClientOverviewDTO {
+    private ClientDTO client;
+    private Double holdingsValue;     // current valuation of the client's holdings
+    private List<NoteDTO> notes;
+    private List<TransactionDTO> recentTransactions;
+    private List<TransactionDTO> stps;
+    private List<FundBalanceDTO> fundBalances;
+    private List<ClientDocumentDTO> documents;
+
+    public ClientDTO getClient() {
+        return client;
+    }
+
+    public void setClient(ClientDTO client) {
+        this.client = client;
+    }
+
+    public Double getHoldingsValue() {
+        return holdingsValue;
+    }
+
+    public void setHoldingsValue(Double holdingsValue) {
+        this.holdingsValue = holdingsValue;
+    }
+
+    public List<NoteDTO> getNotes() {
+        return notes;
+    }
+
+    public void setNotes(List<NoteDTO> notes) {
+        this.notes = notes;
+    }
+
+    public List<TransactionDTO> getRecentTransactions() {
+        return recentTransactions;
+    }
+
+    public void setRecentTransactions(List<TransactionDTO> recentTransactions) {
+        this.recentTransactions = recentTransactions;
+    }
+
+    public List<TransactionDTO> getStps() {
+        return stps;
+    }
+
+    public void setStps(List<TransactionDTO> stps) {
+        this.stps = stps;
+    }
+
+    public List<FundBalanceDTO> getFundBalances() {
+        return fundBalances;
+    }
+
+    public void setFundBalances(List<FundBalanceDTO> fundBalances) {
+        this.fundBalances = fundBalances;
+    }
+
+    public List<ClientDocumentDTO> getDocuments() {
+        return documents;
+    }
+
+    public void setDocuments(List<ClientDocumentDTO> documents) {
+        this.documents = documents;
+    }
+}
@@ -0,0 +1,54 @@
+package com.wtplatform.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One keyset-paged slice of clients. Pass {@code nextCursor} back to get the following slice.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClientScrollDTO {
+    private List<ClientDTO> content;
+    private String nextCursor;        // null on the last slice
+    private boolean hasNext;
+    private Long totalElements;       // only when requested
+
+    public List<ClientDTO> getContent() {
+        return content;
+    }
+
+    public void setContent(List<ClientDTO> content) {
+        this.content = content;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean isHasNext() {
+        return hasNext;
+    }
+
+    public void setHasNext(boolean hasNext) {
+        this.hasNext = hasNext;
+    }
+
+    public Long getTotalElements() {
+        return totalElements;
+    }
+
+    public void setTotalElements(Long totalElements) {
+        this.totalElements = totalElements;
+    }
+}
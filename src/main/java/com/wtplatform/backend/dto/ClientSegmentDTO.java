@@ -0,0 +1,61 @@
+package com.wtplatform.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Active clients and their AUM for one risk profile and investment horizon
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClientSegmentDTO {
+    private String riskProfile;
+    private String investmentHorizon;
+    private long clientCount;
+    private double totalAum;
+    private double averageAum;
+
+    public String getRiskProfile() {
+        return riskProfile;
+    }
+
+    public void setRiskProfile(String riskProfile) {
+        this.riskProfile = riskProfile;
+    }
+
+    public String getInvestmentHorizon() {
+        return investmentHorizon;
+    }
+
+    public void setInvestmentHorizon(String investmentHorizon) {
+        this.investmentHorizon = investmentHorizon;
+    }
+
+    public long getClientCount() {
+        return clientCount;
+    }
+
+    public void setClientCount(long clientCount) {
+        this.clientCount = clientCount;
+    }
+
+    public double getTotalAum() {
+        return totalAum;
+    }
+
+    public void setTotalAum(double totalAum) {
+        this.totalAum = totalAum;
+    }
+
+    public double getAverageAum() {
+        return averageAum;
+    }
+
+    public void setAverageAum(double averageAum) {
+        this.averageAum = averageAum;
+    }
+}
@@ -13,7 +13,8 @@ import java.util.List;
 @AllArgsConstructor
 public class DashboardStatsDTO {
     private long clientCount;
-    private double totalAum;
+    private long activeClientCount;
+    private Double totalAum;          // null while the first AUM valuation is still loading
     private List<TransactionDTO> recentTransactions;
 
     public long getClientCount() {
@@ -24,11 +25,19 @@ public class DashboardStatsDTO {
         this.clientCount = clientCount;
     }
 
-    public double getTotalAum() {
+    public long getActiveClientCount() {
+        return activeClientCount;
+    }
+
+    public void setActiveClientCount(long activeClientCount) {
+        this.activeClientCount = activeClientCount;
+    }
+
+    public Double getTotalAum() {
         return totalAum;
     }
 
-    public void setTotalAum(double totalAum) {
+    public void setTotalAum(Double totalAum) {
         this.totalAum = totalAum;
     }
 
@@ -0,0 +1,52 @@
+package com.wtplatform.backend.dto;
+
+import com.wtplatform.backend.model.FundBalance;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FundBalanceDTO {
+    private String fundId;
+    private BigDecimal balance;
+    private LocalDate asOfDate;
+
+    public static FundBalanceDTO fromEntity(FundBalance fundBalance) {
+        return FundBalanceDTO.builder()
+                .fundId(fundBalance.getFundId())
+                .balance(fundBalance.getBalance())
+                .asOfDate(fundBalance.getAsOfDate())
+                .build();
+    }
+
+    public String getFundId() {
+        return fundId;
+    }
+
+    public void setFundId(String fundId) {
+        this.fundId = fundId;
+    }
+
+    public BigDecimal getBalance() {
+        return balance;
+    }
+
+    public void setBalance(BigDecimal balance) {
+        this.balance = balance;
+    }
+
+    public LocalDate getAsOfDate() {
+        return asOfDate;
+    }
+
+    public void setAsOfDate(LocalDate asOfDate) {
+        this.asOfDate = asOfDate;
+    }
+}
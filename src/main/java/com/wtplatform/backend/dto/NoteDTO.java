@@ -1,5 +1,6 @@
 package com.wtplatform.backend.dto;
 
+import com.wtplatform.backend.model.Note;
 import com.wtplatform.backend.model.Note.NoteCategory;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -30,6 +31,23 @@ public class NoteDTO {
     
     private boolean isPinned;
     
+    /**
+     * Convert a Note entity to a DTO
+     */
+    public static NoteDTO fromEntity(Note note) {
+        NoteDTO dto = new NoteDTO();
+        dto.setId(note.getId());
+        dto.setTitle(note.getTitle());
+        dto.setContent(note.getContent());
+        dto.setCreatedAt(note.getCreatedAt());
+        dto.setUpdatedAt(note.getUpdatedAt());
+        dto.setClientId(note.getClient().getId());
+        dto.setCreatedBy(note.getCreatedBy());
+        dto.setCategory(note.getCategory());
+        dto.setPinned(note.isPinned());
+        return dto;
+    }
+    
     // Getters and Setters
     
     public Long getId() {
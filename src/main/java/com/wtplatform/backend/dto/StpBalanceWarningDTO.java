@@ -0,0 +1,97 @@
+package com.wtplatform.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StpBalanceWarningDTO {
+    private Long transactionId;
+    private Long clientId;
+    private String clientName;
+    private String fromFund;
+    private String toFund;
+    private BigDecimal amount;
+    private BigDecimal sourceBalance;
+    private LocalDate nextTransactionDate;
+    private LocalDate scanDate;
+
+    public Long getTransactionId() {
+        return transactionId;
+    }
+
+    public void setTransactionId(Long transactionId) {
+        this.transactionId = transactionId;
+    }
+
+    public Long getClientId() {
+        return clientId;
+    }
+
+    public void setClientId(Long clientId) {
+        this.clientId = clientId;
+    }
+
+    public String getClientName() {
+        return clientName;
+    }
+
+    public void setClientName(String clientName) {
+        this.clientName = clientName;
+    }
+
+    public String getFromFund() {
+        return fromFund;
+    }
+
+    public void setFromFund(String fromFund) {
+        this.fromFund = fromFund;
+    }
+
+    public String getToFund() {
+        return toFund;
+    }
+
+    public void setToFund(String toFund) {
+        this.toFund = toFund;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    public BigDecimal getSourceBalance() {
+        return sourceBalance;
+    }
+
+    public void setSourceBalance(BigDecimal sourceBalance) {
+        this.sourceBalance = sourceBalance;
+    }
+
+    public LocalDate getNextTransactionDate() {
+        return nextTransactionDate;
+    }
+
+    public void setNextTransactionDate(LocalDate nextTransactionDate) {
+        this.nextTransactionDate = nextTransactionDate;
+    }
+
+    public LocalDate getScanDate() {
+        return scanDate;
+    }
+
+    public void setScanDate(LocalDate scanDate) {
+        this.scanDate = scanDate;
+    }
+}
@@ -0,0 +1,79 @@
+package com.wtplatform.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StpProjectionDTO {
+    private LocalDate fromDate;
+    private LocalDate toDate;
+    private int horizonMonths;
+    private int scheduleCount;
+    private long occurrenceCount;
+    private List<FundCashFlowDTO> monthlyFlows;
+    private List<BalanceShortfallDTO> shortfalls;
+
+    public LocalDate getFromDate() {
+        return fromDate;
+    }
+
+    public void setFromDate(LocalDate fromDate) {
+        this.fromDate = fromDate;
+    }
+
+    public LocalDate getToDate() {
+        return toDate;
+    }
+
+    public void setToDate(LocalDate toDate) {
+        this.toDate = toDate;
+    }
+
+    public int getHorizonMonths() {
+        return horizonMonths;
+    }
+
+    public void setHorizonMonths(int horizonMonths) {
+        this.horizonMonths = horizonMonths;
+    }
+
+    public int getScheduleCount() {
+        return scheduleCount;
+    }
+
+    public void setScheduleCount(int scheduleCount) {
+        this.scheduleCount = scheduleCount;
+    }
+
+    public long getOccurrenceCount() {
+        return occurrenceCount;
+    }
+
+    public void setOccurrenceCount(long occurrenceCount) {
+        this.occurrenceCount = occurrenceCount;
+    }
+
+    public List<FundCashFlowDTO> getMonthlyFlows() {
+        return monthlyFlows;
+    }
+
+    public void setMonthlyFlows(List<FundCashFlowDTO> monthlyFlows) {
+        this.monthlyFlows = monthlyFlows;
+    }
+
+    public List<BalanceShortfallDTO> getShortfalls() {
+        return shortfalls;
+    }
+
+    public void setShortfalls(List<BalanceShortfallDTO> shortfalls) {
+        this.shortfalls = shortfalls;
+    }
+}
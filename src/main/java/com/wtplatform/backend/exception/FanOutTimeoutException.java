@@ -0,0 +1,11 @@
+package com.wtplatform.backend.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class FanOutTimeoutException extends RuntimeException {
+    public FanOutTimeoutException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,64 @@
+package com.wtplatform.backend.logging;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Caps how often a repeating log statement is written: at most {@code permits} events per
+ * interval are let through and the rest are counted, so a flood of identical warnings (a bad
+ * import file, a client replaying a broken token) costs a counter increment instead of a
+ * log line each. The skipped count is reported with the next line that is written.
+ *
+ * <pre>
+ * if (sampler.sample()) {
+ *     log.warn("Rejected row {} ({} similar not logged)", row, sampler.drainSuppressed());
+ * }
+ * </pre>
+ */
+public final class LogSampler {
+
+    private final int permits;
+    private final long intervalNanos;
+    private final LongSupplier nanoClock;
+
+    private long windowStart;
+    private int used;
+    private long suppressed;
+
+    public LogSampler(int permits, Duration interval) {
+        this(permits, interval, System::nanoTime);
+    }
+
+    LogSampler(int permits, Duration interval, LongSupplier nanoClock) {
+        this.permits = permits;
+        this.intervalNanos = interval.toNanos();
+        this.nanoClock = nanoClock;
+        this.windowStart = nanoClock.getAsLong();
+    }
+
+    /**
+     * Whether this event should be logged; if not it is counted as suppressed
+     */
+    public synchronized boolean sample() {
+        long now = nanoClock.getAsLong();
+        if (now - windowStart >= intervalNanos) {
+            windowStart = now;
+            used = 0;
+        }
+        if (used < permits) {
+            used++;
+            return true;
+        }
+        suppressed++;
+        return false;
+    }
+
+    /**
+     * Events suppressed since the last call
+     */
+    public synchronized long drainSuppressed() {
+        long count = suppressed;
+        suppressed = 0;
+        return count;
+    }
+}
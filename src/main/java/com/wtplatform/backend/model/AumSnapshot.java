@@ -0,0 +1,93 @@
+package com.wtplatform.backend.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * End-of-day AUM of one client in one asset class. Written by the nightly snapshot job
+ * (and by backfills) so trend queries never revalue historical holdings.
+ */
+@Entity
+@Table(name = "aum_snapshots",
+    uniqueConstraints = @UniqueConstraint(name = "uk_aum_snapshot_user_date_client_class",
+        columnNames = {"user_id", "snapshot_date", "client_id", "asset_class"}),
+    indexes = @Index(name = "idx_aum_snapshot_date", columnList = "snapshot_date"))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AumSnapshot {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "aum_snapshots_id_seq")
+    @SequenceGenerator(name = "aum_snapshots_id_seq", sequenceName = "aum_snapshots_id_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "snapshot_date", nullable = false)
+    private LocalDate snapshotDate;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "client_id", nullable = false)
+    private Long clientId;
+
+    @Column(name = "asset_class", nullable = false, columnDefinition = "TEXT")
+    private String assetClass;
+
+    @Column(precision = 20, scale = 2, nullable = false)
+    private BigDecimal aum;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public LocalDate getSnapshotDate() {
+        return snapshotDate;
+    }
+
+    public void setSnapshotDate(LocalDate snapshotDate) {
+        this.snapshotDate = snapshotDate;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public Long getClientId() {
+        return clientId;
+    }
+
+    public void setClientId(Long clientId) {
+        this.clientId = clientId;
+    }
+
+    public String getAssetClass() {
+        return assetClass;
+    }
+
+    public void setAssetClass(String assetClass) {
+        this.assetClass = assetClass;
+    }
+
+    public BigDecimal getAum() {
+        return aum;
+    }
+
+    public void setAum(BigDecimal aum) {
+        this.aum = aum;
+    }
+}
@@ -13,14 +13,20 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "clients")
+@Table(name = "clients", indexes = {
+    @Index(name = "idx_clients_user_name", columnList = "user_id, name, id"),
+    @Index(name = "idx_clients_user_created", columnList = "user_id, createdAt, id"),
+    @Index(name = "idx_clients_user_aum", columnList = "user_id, aum, id")
+})
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class Client {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Pooled sequence (V9): ids are allocated 50 at a time, so inserts can be batched
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "clients_id_seq")
+    @SequenceGenerator(name = "clients_id_seq", sequenceName = "clients_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -14,7 +14,8 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class FundBalance {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "fund_balance_id_seq")
+    @SequenceGenerator(name = "fund_balance_id_seq", sequenceName = "fund_balance_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "fund_id", length = 128, nullable = false)
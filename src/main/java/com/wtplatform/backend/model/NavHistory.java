@@ -14,7 +14,8 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class NavHistory {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "nav_history_id_seq")
+    @SequenceGenerator(name = "nav_history_id_seq", sequenceName = "nav_history_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "fund_id", nullable = false)
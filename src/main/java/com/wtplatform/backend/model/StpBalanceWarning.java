@@ -0,0 +1,158 @@
+package com.wtplatform.backend.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * An active STP due within the scan window whose client-scoped source fund balance
+ * is missing or lower than the installment. Rows are rewritten by each scan.
+ */
+@Entity
+@Table(name = "stp_balance_warnings", indexes = {
+    @Index(name = "idx_stp_warning_user_next", columnList = "user_id, next_transaction_date")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StpBalanceWarning {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "transaction_id", nullable = false)
+    private Long transactionId;
+
+    @Column(name = "client_id", nullable = false)
+    private Long clientId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "client_name")
+    private String clientName;
+
+    @Column(name = "from_fund", length = 128)
+    private String fromFund;
+
+    @Column(name = "to_fund", length = 128)
+    private String toFund;
+
+    @Column(precision = 20, scale = 6, nullable = false)
+    private BigDecimal amount;
+
+    @Column(name = "source_balance", precision = 20, scale = 6)
+    private BigDecimal sourceBalance; // null when no fund_balance row exists for the source fund
+
+    @Column(name = "next_transaction_date", nullable = false)
+    private LocalDate nextTransactionDate;
+
+    @Column(name = "scan_date", nullable = false)
+    private LocalDate scanDate;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getTransactionId() {
+        return transactionId;
+    }
+
+    public void setTransactionId(Long transactionId) {
+        this.transactionId = transactionId;
+    }
+
+    public Long getClientId() {
+        return clientId;
+    }
+
+    public void setClientId(Long clientId) {
+        this.clientId = clientId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public String getClientName() {
+        return clientName;
+    }
+
+    public void setClientName(String clientName) {
+        this.clientName = clientName;
+    }
+
+    public String getFromFund() {
+        return fromFund;
+    }
+
+    public void setFromFund(String fromFund) {
+        this.fromFund = fromFund;
+    }
+
+    public String getToFund() {
+        return toFund;
+    }
+
+    public void setToFund(String toFund) {
+        this.toFund = toFund;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    public BigDecimal getSourceBalance() {
+        return sourceBalance;
+    }
+
+    public void setSourceBalance(BigDecimal sourceBalance) {
+        this.sourceBalance = sourceBalance;
+    }
+
+    public LocalDate getNextTransactionDate() {
+        return nextTransactionDate;
+    }
+
+    public void setNextTransactionDate(LocalDate nextTransactionDate) {
+        this.nextTransactionDate = nextTransactionDate;
+    }
+
+    public LocalDate getScanDate() {
+        return scanDate;
+    }
+
+    public void setScanDate(LocalDate scanDate) {
+        this.scanDate = scanDate;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -20,7 +20,8 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class Transaction {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transactions_extended_id_seq")
+    @SequenceGenerator(name = "transactions_extended_id_seq", sequenceName = "transactions_extended_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
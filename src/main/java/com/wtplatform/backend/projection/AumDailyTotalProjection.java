@@ -0,0 +1,9 @@
+package com.wtplatform.backend.projection;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public interface AumDailyTotalProjection {
+    LocalDate getSnapshotDate();
+    BigDecimal getAum();
+}
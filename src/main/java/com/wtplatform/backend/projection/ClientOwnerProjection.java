@@ -0,0 +1,6 @@
+package com.wtplatform.backend.projection;
+
+public interface ClientOwnerProjection {
+    Long getId();
+    Long getUserId();
+}
@@ -0,0 +1,9 @@
+package com.wtplatform.backend.projection;
+
+public interface ClientSegmentProjection {
+    String getRiskProfile();
+    String getInvestmentHorizon();
+    Long getClientCount();
+    Double getTotalAum();
+    Double getAverageAum();
+}
@@ -0,0 +1,12 @@
+package com.wtplatform.backend.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * Client-scoped fund balance row (client, fund, balance).
+ */
+public interface FundBalanceProjection {
+    Long getClientId();
+    String getFundId();
+    BigDecimal getBalance();
+}
@@ -0,0 +1,21 @@
+package com.wtplatform.backend.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * One valued position of a client: either units of a scheme derived from completed
+ * transactions, or a fund_balance amount carried at book value (nav = 1).
+ */
+public interface HoldingProjection {
+    Long getClientId();
+    String getClientName();
+    Long getUserId();
+    String getSchemeCode();
+    BigDecimal getUnits();
+    BigDecimal getNav();
+    BigDecimal getInvested();
+    String getAssetClass();
+    String getAmcName();
+    String getCategory();
+    Boolean getBookValue();
+}
@@ -0,0 +1,21 @@
+package com.wtplatform.backend.projection;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Minimal column set of a recurring SIP/STP/SWP transaction, used to expand
+ * future cash flows without hydrating full Transaction entities.
+ */
+public interface RecurringScheduleProjection {
+    Long getClientId();
+    String getType();
+    String getFromFund();
+    String getToFund();
+    String getFundName();
+    BigDecimal getAmount();
+    String getFrequency();
+    LocalDate getNextTransactionDate();
+    LocalDate getStartDate();
+    LocalDate getEndDate();
+}
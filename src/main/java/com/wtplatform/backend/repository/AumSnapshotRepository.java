@@ -0,0 +1,32 @@
+package com.wtplatform.backend.repository;
+
+import com.wtplatform.backend.model.AumSnapshot;
+import com.wtplatform.backend.projection.AumDailyTotalProjection;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface AumSnapshotRepository extends JpaRepository<AumSnapshot, Long> {
+
+    @Modifying
+    @Query("DELETE FROM AumSnapshot s WHERE s.snapshotDate = :date")
+    int deleteBySnapshotDate(@Param("date") LocalDate date);
+
+    /**
+     * Daily AUM of one user between two dates, served from the (user_id, snapshot_date, ...) key
+     */
+    @Query("SELECT s.snapshotDate AS snapshotDate, SUM(s.aum) AS aum " +
+           "FROM AumSnapshot s " +
+           "WHERE s.userId = :userId AND s.snapshotDate BETWEEN :fromDate AND :toDate " +
+           "GROUP BY s.snapshotDate " +
+           "ORDER BY s.snapshotDate")
+    List<AumDailyTotalProjection> findDailyTotals(@Param("userId") Long userId,
+                                                  @Param("fromDate") LocalDate fromDate,
+                                                  @Param("toDate") LocalDate toDate);
+}
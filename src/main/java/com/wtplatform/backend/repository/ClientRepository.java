@@ -1,16 +1,36 @@
 package com.wtplatform.backend.repository;
 
 import com.wtplatform.backend.model.Client;
+import com.wtplatform.backend.projection.ClientOwnerProjection;
+import com.wtplatform.backend.projection.ClientSegmentProjection;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface ClientRepository extends JpaRepository<Client, Long> {
+public interface ClientRepository extends JpaRepository<Client, Long>, JpaSpecificationExecutor<Client> {
+
+    /**
+     * Ranked search served by the trigram indexes of V7: name prefix first, then a word of the
+     * name starting with the term, then a PAN, email or phone prefix, then any other match.
+     * Patterns must be lowercase with LIKE wildcards escaped.
+     */
+    String RANKED_SEARCH_SQL = "SELECT c.* FROM clients c WHERE c.user_id = :userId AND (" +
+           "lower(c.name) LIKE :pattern OR lower(c.pan) LIKE :pattern OR " +
+           "lower(c.email) LIKE :pattern OR lower(c.phone) LIKE :pattern) " +
+           "ORDER BY CASE " +
+           "WHEN lower(c.name) LIKE :prefix THEN 0 " +
+           "WHEN lower(c.name) LIKE :wordPrefix THEN 1 " +
+           "WHEN lower(c.pan) LIKE :prefix OR lower(c.email) LIKE :prefix OR lower(c.phone) LIKE :prefix THEN 2 " +
+           "ELSE 3 END, length(c.name), lower(c.name), c.id " +
+           "LIMIT :limit";
+
     Optional<Client> findByPan(String pan);
     Optional<Client> findByEmail(String email);
     List<Client> findByIsActive(boolean isActive);
@@ -31,6 +51,38 @@ public interface ClientRepository extends JpaRepository<Client, Long> {
             @Param("investmentHorizon") String investmentHorizon);
             
     List<Client> findByUserId(Long userId);
+
+    Optional<Client> findByIdAndUserId(Long id, Long userId);
+
+    @Query("SELECT c.pan FROM Client c WHERE c.pan IN :pans")
+    List<String> findExistingPans(@Param("pans") Collection<String> pans);
+
+    @Query("SELECT c.email FROM Client c WHERE c.email IN :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    @Query("SELECT c FROM Client c WHERE " +
+           "c.user.id = :userId AND " +
+           "c.riskProfile = :riskProfile AND " +
+           "c.investmentHorizon = :investmentHorizon AND " +
+           "c.isActive = true")
+    List<Client> findActiveByUserAndRiskProfileAndInvestmentHorizon(
+            @Param("userId") Long userId,
+            @Param("riskProfile") String riskProfile,
+            @Param("investmentHorizon") String investmentHorizon);
+
+    @Query("SELECT c.id AS id, c.user.id AS userId FROM Client c WHERE c.id IN :ids")
+    List<ClientOwnerProjection> findOwnersByIdIn(@Param("ids") Collection<Long> ids);
+
+    long countByUserId(Long userId);
+
+    long countByUserIdAndIsActive(Long userId, boolean isActive);
+
+    @Query("SELECT c.riskProfile AS riskProfile, c.investmentHorizon AS investmentHorizon, " +
+           "COUNT(c) AS clientCount, COALESCE(SUM(c.aum), 0) AS totalAum, COALESCE(AVG(c.aum), 0) AS averageAum " +
+           "FROM Client c WHERE c.user.id = :userId AND c.isActive = true " +
+           "GROUP BY c.riskProfile, c.investmentHorizon " +
+           "ORDER BY c.riskProfile, c.investmentHorizon")
+    List<ClientSegmentProjection> aggregateActiveBySegment(@Param("userId") Long userId);
     
     @Query("SELECT c FROM Client c WHERE c.user.id = :userId AND (" +
            "LOWER(c.name) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
@@ -38,4 +90,15 @@ public interface ClientRepository extends JpaRepository<Client, Long> {
            "LOWER(c.email) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
            "LOWER(c.phone) LIKE LOWER(CONCAT('%', :searchTerm, '%')))")
     List<Client> searchClientsByUser(@Param("userId") Long userId, @Param("searchTerm") String searchTerm);
+
+    @Query(value = RANKED_SEARCH_SQL, nativeQuery = true)
+    List<Client> searchRankedByUser(@Param("userId") Long userId,
+                                    @Param("pattern") String pattern,
+                                    @Param("prefix") String prefix,
+                                    @Param("wordPrefix") String wordPrefix,
+                                    @Param("limit") int limit);
+
+    Optional<Client> findByUserIdAndPan(Long userId, String pan);
+
+    List<Client> findByUserIdAndPhone(Long userId, String phone);
 } 
\ No newline at end of file
@@ -0,0 +1,73 @@
+package com.wtplatform.backend.repository;
+
+import com.wtplatform.backend.dto.ClientFilterDTO;
+import com.wtplatform.backend.model.Client;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Composable client predicates for pageable and keyset-scrolled queries
+ */
+public final class ClientSpecifications {
+
+    private ClientSpecifications() {
+    }
+
+    public static Specification<Client> ownedBy(Long userId) {
+        return (root, query, cb) -> cb.equal(root.get("user").get("id"), userId);
+    }
+
+    /**
+     * Every non-null criterion of the filter, as one conjunction. Risk profile, horizon and
+     * active flag follow the (user_id, riskprofile, investmenthorizon, isactive) index.
+     */
+    public static Specification<Client> filteredBy(ClientFilterDTO filter) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (hasText(filter.getRiskProfile())) {
+                predicates.add(cb.equal(root.get("riskProfile"), filter.getRiskProfile().trim()));
+            }
+            if (hasText(filter.getInvestmentHorizon())) {
+                predicates.add(cb.equal(root.get("investmentHorizon"), filter.getInvestmentHorizon().trim()));
+            }
+            if (filter.getActive() != null) {
+                predicates.add(cb.equal(root.get("isActive"), filter.getActive()));
+            }
+            if (hasText(filter.getCity())) {
+                predicates.add(cb.equal(cb.lower(root.get("city")), filter.getCity().trim().toLowerCase()));
+            }
+            if (hasText(filter.getState())) {
+                predicates.add(cb.equal(cb.lower(root.get("state")), filter.getState().trim().toLowerCase()));
+            }
+            if (filter.getMinAum() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("aum"), filter.getMinAum()));
+            }
+            if (filter.getMaxAum() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("aum"), filter.getMaxAum()));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isBlank();
+    }
+
+    /**
+     * Same match as {@link ClientRepository#searchClientsByUser}: term anywhere in name, PAN, email
+     * or phone. The lower() expressions match the trigram indexes, so this is not a sequential scan.
+     */
+    public static Specification<Client> matching(String searchTerm) {
+        return (root, query, cb) -> {
+            String pattern = "%" + searchTerm.trim().toLowerCase() + "%";
+            return cb.or(
+                    cb.like(cb.lower(root.get("name")), pattern),
+                    cb.like(cb.lower(root.get("pan")), pattern),
+                    cb.like(cb.lower(root.get("email")), pattern),
+                    cb.like(cb.lower(root.get("phone")), pattern));
+        };
+    }
+}
@@ -1,6 +1,7 @@
 package com.wtplatform.backend.repository;
 
 import com.wtplatform.backend.model.FundBalance;
+import com.wtplatform.backend.projection.FundBalanceProjection;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -22,4 +23,8 @@ public interface FundBalanceRepository extends JpaRepository<FundBalance, Long>
         @Param("clientId") Long clientId, 
         @Param("requiredAmount") BigDecimal requiredAmount
     );
-} 
\ No newline at end of file
+
+    @Query("SELECT fb.client.id AS clientId, fb.fundId AS fundId, fb.balance AS balance " +
+           "FROM FundBalance fb WHERE fb.client.user.id = :userId")
+    List<FundBalanceProjection> findBalancesByUserId(@Param("userId") Long userId);
+}
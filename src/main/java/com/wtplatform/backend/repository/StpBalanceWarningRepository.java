@@ -0,0 +1,45 @@
+package com.wtplatform.backend.repository;
+
+import com.wtplatform.backend.model.StpBalanceWarning;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface StpBalanceWarningRepository extends JpaRepository<StpBalanceWarning, Long> {
+
+    long countByUserId(Long userId);
+
+    List<StpBalanceWarning> findByUserIdOrderByNextTransactionDateAscClientNameAsc(Long userId);
+
+    @Modifying
+    @Query("DELETE FROM StpBalanceWarning w")
+    int deleteAllWarnings();
+
+    /**
+     * Set-based scan: every active STP due between the two dates whose source fund balance,
+     * matched on both client and fund, is missing or below the installment amount
+     */
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            INSERT INTO stp_balance_warnings
+                (transaction_id, client_id, user_id, client_name, from_fund, to_fund,
+                 amount, source_balance, next_transaction_date, scan_date, created_at)
+            SELECT t.id, t.client_id, c.user_id, c.name, t.from_fund, t.to_fund,
+                   t.amount, fb.balance, t.next_transaction_date, :scanDate, NOW()
+            FROM transactions_extended t
+            JOIN clients c ON c.id = t.client_id
+            LEFT JOIN fund_balance fb ON fb.client_id = t.client_id AND fb.fund_id = t.from_fund
+            WHERE LOWER(t.transaction_type) = 'stp'
+            AND LOWER(t.status) = 'active'
+            AND t.next_transaction_date BETWEEN :scanDate AND :untilDate
+            AND (t.end_date IS NULL OR t.end_date >= t.next_transaction_date)
+            AND (fb.id IS NULL OR fb.balance < t.amount)
+            """)
+    int insertAtRiskStps(@Param("scanDate") LocalDate scanDate, @Param("untilDate") LocalDate untilDate);
+}
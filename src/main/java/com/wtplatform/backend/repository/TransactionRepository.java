@@ -2,13 +2,16 @@ package com.wtplatform.backend.repository;
 
 import com.wtplatform.backend.model.Transaction;
 import com.wtplatform.backend.dto.StpTrendDTO;
+import com.wtplatform.backend.projection.HoldingProjection;
 import com.wtplatform.backend.projection.MonthlyTrendProjection;
+import com.wtplatform.backend.projection.RecurringScheduleProjection;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -60,6 +63,28 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
      */
     @Query("SELECT t FROM Transaction t JOIN t.client c WHERE c.user.id = :userId ORDER BY t.transactionDate DESC")
     List<Transaction> findByUserIdOrderByTransactionDateDesc(@Param("userId") Long userId, Pageable pageable);
+
+    /**
+     * Most recent transactions of a user with their client fetched in the same query,
+     * so mapping to DTOs does not lazy-load each client
+     */
+    @Query("SELECT t FROM Transaction t JOIN FETCH t.client c WHERE c.user.id = :userId " +
+           "ORDER BY t.transactionDate DESC, t.id DESC")
+    List<Transaction> findRecentWithClientByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    /**
+     * Most recent transactions of one client, with the client fetched in the same query
+     */
+    @Query("SELECT t FROM Transaction t JOIN FETCH t.client c WHERE c.id = :clientId " +
+           "ORDER BY t.transactionDate DESC, t.id DESC")
+    List<Transaction> findRecentWithClientByClientId(@Param("clientId") Long clientId, Pageable pageable);
+
+    /**
+     * Transactions of one client and type, with the client fetched in the same query
+     */
+    @Query("SELECT t FROM Transaction t JOIN FETCH t.client c WHERE c.id = :clientId AND t.type = :type " +
+           "ORDER BY t.transactionDate DESC, t.id DESC")
+    List<Transaction> findWithClientByClientIdAndType(@Param("clientId") Long clientId, @Param("type") String type);
     
     /**
      * Find all transactions with a specific status
@@ -121,15 +146,6 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
                                  @Param("startDate") LocalDate startDate,
                                  @Param("endDate") LocalDate endDate);
 
-    @Query("SELECT COUNT(t) FROM Transaction t " +
-           "WHERE t.client.user.id = :userId " +
-           "AND LOWER(t.type) = 'stp' " +
-           "AND LOWER(t.status) = 'active' " +
-           "AND NOT EXISTS (SELECT 1 FROM FundBalance fb " +
-           "               WHERE fb.fundId = t.fromFund " +
-           "               AND fb.balance >= t.amount)")
-    Long countStpsWithZeroBalance(@Param("userId") Long userId);
-
     // Commented out problematic JPQL query
     /*
     @Query("SELECT new com.wtplatform.backend.dto.StpTrendDTO(" +
@@ -211,4 +227,148 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
            "WHERE c.user.id = :userId " +
            "AND LOWER(t.type) = LOWER(:type)")
     List<Transaction> findByClientUserIdAndType(@Param("userId") Long userId, @Param("type") String type);
-} 
\ No newline at end of file
+
+    /**
+     * Find the recurring SIP/STP/SWP schedules of a user's clients that are still active,
+     * returning only the columns needed for forward cash-flow projection
+     */
+    @Query("SELECT t.client.id AS clientId, t.type AS type, t.fromFund AS fromFund, t.toFund AS toFund, " +
+           "t.fundName AS fundName, t.amount AS amount, t.frequency AS frequency, " +
+           "t.nextTransactionDate AS nextTransactionDate, t.startDate AS startDate, t.endDate AS endDate " +
+           "FROM Transaction t " +
+           "WHERE t.client.user.id = :userId " +
+           "AND LOWER(t.type) IN ('sip', 'stp', 'swp') " +
+           "AND LOWER(t.status) = 'active' " +
+           "AND t.frequency IS NOT NULL " +
+           "AND (t.endDate IS NULL OR t.endDate >= :fromDate)")
+    List<RecurringScheduleProjection> findActiveRecurringSchedulesByUserId(@Param("userId") Long userId,
+                                                                           @Param("fromDate") LocalDate fromDate);
+
+    /**
+     * Holdings of active clients, ordered by user and client: firm-wide now when {@code asOf}
+     * is null, or as they stood at the end of {@code asOf}.
+     * Units per (client, scheme) are summed from completed transactions: SIP/LUMPSUM purchases
+     * add units and SWP redeems them. An STP redeems its units from its own scheme (the row's
+     * scheme_code, else from_fund) and buys to_fund for the same amount, at to_fund's NAV on
+     * the transfer date. from_fund and to_fund hold a scheme code or an AMFI scheme name; a
+     * target that cannot be resolved or has no NAV that day is carried at book value, and an
+     * STP without a target or a resolvable source leaves its units where they are.
+     * Schemes are valued at their latest AMFI NAV, or at their latest nav_history NAV on or
+     * before {@code asOf}, when only transactions dated on or before it count.
+     * fund_balance rows that have no unit history for the same client are carried at book
+     * value; fund_balance has no history, so these use today's balance either way.
+     */
+    @Query(nativeQuery = true, value = """
+            WITH completed AS (
+                SELECT t.*
+                FROM transactions_extended t
+                WHERE t.units IS NOT NULL
+                AND LOWER(t.status) = 'completed'
+                AND (CAST(:asOf AS DATE) IS NULL OR t.transaction_date <= CAST(:asOf AS DATE))
+            ),
+            scheme_names AS (
+                SELECT LOWER(s.schemename) AS name, MIN(s.schemecode) AS scheme_code
+                FROM amfi_schemes s
+                WHERE s.schemename IS NOT NULL
+                GROUP BY LOWER(s.schemename)
+            ),
+            stps AS (
+                SELECT t.client_id,
+                       t.units,
+                       t.amount,
+                       t.asset_class,
+                       t.transaction_date,
+                       t.to_fund,
+                       COALESCE(t.scheme_code, from_code.schemecode, from_name.scheme_code) AS source_code,
+                       COALESCE(to_code.schemecode, to_name.scheme_code) AS target_code
+                FROM completed t
+                LEFT JOIN amfi_schemes from_code ON from_code.schemecode = t.from_fund
+                LEFT JOIN scheme_names from_name ON from_name.name = LOWER(t.from_fund)
+                LEFT JOIN amfi_schemes to_code ON to_code.schemecode = t.to_fund
+                LEFT JOIN scheme_names to_name ON to_name.name = LOWER(t.to_fund)
+                WHERE UPPER(t.transaction_type) = 'STP'
+            ),
+            legs AS (
+                SELECT t.client_id,
+                       t.scheme_code,
+                       CASE WHEN UPPER(t.transaction_type) = 'SWP' THEN -t.units ELSE t.units END AS units,
+                       CASE WHEN UPPER(t.transaction_type) = 'SWP' THEN -t.amount ELSE t.amount END AS amount,
+                       t.asset_class,
+                       FALSE AS book_value
+                FROM completed t
+                WHERE UPPER(t.transaction_type) <> 'STP'
+                UNION ALL
+                SELECT st.client_id, st.source_code, -st.units, -st.amount, st.asset_class, FALSE
+                FROM stps st
+                WHERE st.source_code IS NOT NULL
+                AND st.to_fund IS NOT NULL
+                UNION ALL
+                SELECT st.client_id,
+                       COALESCE(st.target_code, st.to_fund),
+                       COALESCE(st.amount / NULLIF(target_nav.nav, 0), st.amount),
+                       st.amount,
+                       NULL,
+                       target_nav.nav IS NULL OR target_nav.nav = 0
+                FROM stps st
+                LEFT JOIN LATERAL (
+                    SELECT h.nav
+                    FROM nav_history h
+                    WHERE h.fund_id = CASE WHEN st.target_code ~ '^[0-9]+$' THEN CAST(st.target_code AS BIGINT) END
+                    AND h.nav_date <= st.transaction_date
+                    ORDER BY h.nav_date DESC
+                    LIMIT 1
+                ) target_nav ON TRUE
+                WHERE st.source_code IS NOT NULL
+                AND st.to_fund IS NOT NULL
+            ),
+            unit_holdings AS (
+                SELECT l.client_id,
+                       l.scheme_code,
+                       SUM(l.units) AS units,
+                       SUM(l.amount) AS invested,
+                       MAX(l.asset_class) AS asset_class,
+                       l.book_value
+                FROM legs l
+                WHERE l.scheme_code IS NOT NULL
+                GROUP BY l.client_id, l.scheme_code, l.book_value
+            ),
+            positions AS (
+                SELECT u.client_id, u.scheme_code, u.units, u.invested, u.asset_class, u.book_value
+                FROM unit_holdings u
+                UNION ALL
+                SELECT fb.client_id, fb.fund_id, fb.balance, fb.balance, NULL, TRUE
+                FROM fund_balance fb
+                WHERE NOT EXISTS (SELECT 1 FROM unit_holdings u
+                                  WHERE u.client_id = fb.client_id AND u.scheme_code = fb.fund_id)
+            )
+            SELECT p.client_id AS clientId,
+                   c.name AS clientName,
+                   c.user_id AS userId,
+                   p.scheme_code AS schemeCode,
+                   p.units AS units,
+                   CASE WHEN p.book_value THEN 1
+                        WHEN CAST(:asOf AS DATE) IS NULL THEN s.lastnavvalue
+                        ELSE n.nav END AS nav,
+                   p.invested AS invested,
+                   p.asset_class AS assetClass,
+                   s.amcname AS amcName,
+                   s.category AS category,
+                   p.book_value AS bookValue
+            FROM positions p
+            JOIN clients c ON c.id = p.client_id
+            LEFT JOIN amfi_schemes s ON s.schemecode = p.scheme_code
+            LEFT JOIN LATERAL (
+                SELECT h.nav
+                FROM nav_history h
+                WHERE CAST(:asOf AS DATE) IS NOT NULL
+                AND h.fund_id = CASE WHEN p.scheme_code ~ '^[0-9]+$' THEN CAST(p.scheme_code AS BIGINT) END
+                AND h.nav_date <= CAST(:asOf AS DATE)
+                ORDER BY h.nav_date DESC
+                LIMIT 1
+            ) n ON NOT p.book_value
+            WHERE c.isactive = TRUE
+            ORDER BY c.user_id, p.client_id
+            """)
+    @Transactional(readOnly = true)
+    List<HoldingProjection> findHoldingsForValuation(@Param("asOf") LocalDate asOf);
+}
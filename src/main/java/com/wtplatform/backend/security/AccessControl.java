@@ -0,0 +1,159 @@
+package com.wtplatform.backend.security;
+
+import com.wtplatform.backend.model.Client;
+import com.wtplatform.backend.model.User;
+import com.wtplatform.backend.projection.ClientOwnerProjection;
+import com.wtplatform.backend.repository.ClientRepository;
+import com.wtplatform.backend.repository.UserRepository;
+import jakarta.persistence.EntityNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The current user and which clients they own, shared by the services.
+ *
+ * The user comes from the authenticated principal, so resolving it never queries. Client
+ * ownership is checked with one query and remembered for the rest of the HTTP request, so a
+ * request touching the same client from several services checks it once. Outside a request
+ * (jobs, listeners) nothing is remembered.
+ */
+@Component
+public class AccessControl {
+    private static final Logger logger = LoggerFactory.getLogger(AccessControl.class);
+    private static final String OWNED_CLIENTS_ATTRIBUTE = AccessControl.class.getName() + ".ownedClients";
+
+    private final UserRepository userRepository;
+    private final ClientRepository clientRepository;
+
+    public AccessControl(UserRepository userRepository, ClientRepository clientRepository) {
+        this.userRepository = userRepository;
+        this.clientRepository = clientRepository;
+    }
+
+    /**
+     * The authenticated user (id, email and role), detached from any persistence context
+     *
+     * @throws SecurityException if the request is not authenticated as a user
+     */
+    public User currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof User user)) {
+            throw new SecurityException("Authentication principal is not a User entity");
+        }
+        return user;
+    }
+
+    public Long currentUserId() {
+        return currentUser().getId();
+    }
+
+    /**
+     * A reference to the current user for associations such as a new client's owner, without
+     * loading the row
+     */
+    public User currentUserReference() {
+        return userRepository.getReferenceById(currentUserId());
+    }
+
+    /**
+     * ID of the user with this email; the current user's is known without a lookup
+     */
+    public Long userIdForEmail(String email) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof User user
+                && user.getEmail().equals(email)) {
+            return user.getId();
+        }
+        return userRepository.findByEmail(email)
+                .orElseThrow(() -> new RuntimeException("User not found"))
+                .getId();
+    }
+
+    /**
+     * Load a client of the current user
+     *
+     * @throws EntityNotFoundException if the client does not exist
+     * @throws SecurityException if it belongs to another user
+     */
+    public Client requireOwnedClient(Long clientId) {
+        Client client = clientRepository.findById(clientId)
+                .orElseThrow(() -> new EntityNotFoundException("Client not found with ID: " + clientId));
+        Set<Long> owned = ownedClients();
+        if (!owned.contains(clientId)) {
+            checkOwner(clientId, client.getUser().getId());
+            owned.add(clientId);
+        }
+        return client;
+    }
+
+    /**
+     * Check the current user owns a client, without loading it
+     */
+    public void assertOwnsClient(Long clientId) {
+        assertOwnsClients(Set.of(clientId));
+    }
+
+    /**
+     * Check the current user owns every one of the clients, in one query for those not
+     * already checked in this request
+     *
+     * @throws EntityNotFoundException if a client does not exist
+     * @throws SecurityException if one belongs to another user
+     */
+    public void assertOwnsClients(Set<Long> clientIds) {
+        Set<Long> owned = ownedClients();
+        Set<Long> unchecked = new HashSet<>(clientIds);
+        unchecked.removeAll(owned);
+        if (unchecked.isEmpty()) {
+            return;
+        }
+        Map<Long, Long> owners = new HashMap<>();
+        for (ClientOwnerProjection row : clientRepository.findOwnersByIdIn(unchecked)) {
+            owners.put(row.getId(), row.getUserId());
+        }
+        for (Long clientId : unchecked) {
+            Long ownerId = owners.get(clientId);
+            if (ownerId == null) {
+                throw new EntityNotFoundException("Client not found with ID: " + clientId);
+            }
+            checkOwner(clientId, ownerId);
+        }
+        owned.addAll(unchecked);
+    }
+
+    private void checkOwner(Long clientId, Long ownerId) {
+        Long userId = currentUserId();
+        if (!ownerId.equals(userId)) {
+            logger.warn("User {} attempted to access client {} which belongs to user {}", userId, clientId, ownerId);
+            throw new SecurityException("Access denied: Client does not belong to current user");
+        }
+    }
+
+    /**
+     * Clients already known to be the current user's: per request, or a throwaway set
+     */
+    @SuppressWarnings("unchecked")
+    private Set<Long> ownedClients() {
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request == null) {
+            return new HashSet<>();
+        }
+        Set<Long> owned = (Set<Long>) request.getAttribute(OWNED_CLIENTS_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (owned == null) {
+            owned = new HashSet<>();
+            request.setAttribute(OWNED_CLIENTS_ATTRIBUTE, owned, RequestAttributes.SCOPE_REQUEST);
+        }
+        return owned;
+    }
+}
@@ -0,0 +1,46 @@
+package com.wtplatform.backend.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Rejects {@code /auth/**} requests beyond the per-IP limit with 429 before they reach
+ * password hashing. The address is the connection's; behind a proxy, enable
+ * {@code server.forward-headers-strategy} so it is the client's.
+ */
+@Component
+public class AuthRateLimitFilter extends OncePerRequestFilter {
+
+    @Autowired
+    private AuthRateLimiter authRateLimiter;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/auth/") || request.getMethod().equals("OPTIONS");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long retryAfter = authRateLimiter.acquireForIp(request.getRemoteAddr());
+        if (retryAfter > 0) {
+            logger.warn("Rate limited auth request from " + request.getRemoteAddr() + " to " + request.getRequestURI());
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"message\":\"Too many requests, please retry later\"}");
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+}
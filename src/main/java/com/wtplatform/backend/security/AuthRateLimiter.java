@@ -0,0 +1,68 @@
+package com.wtplatform.backend.security;
+
+import com.wtplatform.backend.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+
+/**
+ * Token-bucket limits on {@code /auth/**}: per client IP for every auth request, and per
+ * account for sign-in attempts, so neither a burst from one address nor guessing at one
+ * account's password can take the hashing pool from everyone else.
+ */
+@Component
+public class AuthRateLimiter {
+
+    private final TokenBucketLimiter byIp;
+    private final TokenBucketLimiter byAccount;
+    private final Counter limitedByIp;
+    private final Counter limitedByAccount;
+
+    public AuthRateLimiter(MeterRegistry meterRegistry,
+                           @Value("${security.auth-rate-limit.ip.capacity:20}") int ipCapacity,
+                           @Value("${security.auth-rate-limit.ip.refill-per-minute:20}") int ipRefillPerMinute,
+                           @Value("${security.auth-rate-limit.account.capacity:5}") int accountCapacity,
+                           @Value("${security.auth-rate-limit.account.refill-per-minute:5}") int accountRefillPerMinute,
+                           @Value("${security.auth-rate-limit.max-keys:100000}") int maxKeys) {
+        this.byIp = new TokenBucketLimiter(ipCapacity, ipRefillPerMinute, maxKeys);
+        this.byAccount = new TokenBucketLimiter(accountCapacity, accountRefillPerMinute, maxKeys);
+        this.limitedByIp = Counter.builder("auth.rate_limited").tag("key", "ip").register(meterRegistry);
+        this.limitedByAccount = Counter.builder("auth.rate_limited").tag("key", "account").register(meterRegistry);
+    }
+
+    /**
+     * @return 0 if allowed, else the seconds until the address may retry
+     */
+    public long acquireForIp(String ip) {
+        long retryAfter = byIp.tryAcquire(ip);
+        if (retryAfter > 0) {
+            limitedByIp.increment();
+        }
+        return retryAfter;
+    }
+
+    /**
+     * @throws TooManyRequestsException if the account has run out of sign-in attempts
+     */
+    public void acquireForAccount(String email) {
+        if (email == null) {
+            return;
+        }
+        long retryAfter = byAccount.tryAcquire(email.trim().toLowerCase(Locale.ROOT));
+        if (retryAfter > 0) {
+            limitedByAccount.increment();
+            throw new TooManyRequestsException("Too many sign-in attempts for this account, please retry later", retryAfter);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${security.auth-rate-limit.evict-interval-ms:60000}")
+    public void evictRefilled() {
+        long now = System.nanoTime();
+        byIp.evictFull(now);
+        byAccount.evictFull(now);
+    }
+}
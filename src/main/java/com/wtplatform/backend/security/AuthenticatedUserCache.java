@@ -0,0 +1,74 @@
+package com.wtplatform.backend.security;
+
+import com.wtplatform.backend.model.User;
+import com.wtplatform.backend.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Short-lived, size-bounded cache of the accounts behind verified JWTs, so an authenticated
+ * request does not query the users table. A deleted account or a changed role takes effect
+ * within {@code security.user-cache.ttl-seconds}, or at once after {@link #evict(String)}.
+ */
+@Component
+public class AuthenticatedUserCache {
+
+    private final UserRepository userRepository;
+
+    @Value("${security.user-cache.ttl-seconds:60}")
+    private long ttlSeconds = 60;
+
+    @Value("${security.user-cache.max-size:10000}")
+    private int maxSize = 10000;
+
+    // Access-ordered, so the least recently used account is dropped beyond maxSize
+    private final Map<String, Entry> entries = Collections.synchronizedMap(
+            new LinkedHashMap<>(256, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                    return size() > maxSize;
+                }
+            });
+
+    public AuthenticatedUserCache(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    /**
+     * The current id and role of the account with this email, as a principal detached from
+     * any persistence context; empty if the account no longer exists
+     */
+    public Optional<User> resolve(String email) {
+        long now = System.nanoTime();
+        Entry entry = entries.get(email);
+        if (entry == null || now - entry.loadedAt > TimeUnit.SECONDS.toNanos(ttlSeconds)) {
+            entry = userRepository.findByEmail(email)
+                    .map(user -> new Entry(user.getId(), user.getEmail(), user.getRole(), now))
+                    .orElseGet(() -> new Entry(null, email, null, now));
+            entries.put(email, entry);
+        }
+        return entry.id != null ? Optional.of(entry.toPrincipal()) : Optional.empty();
+    }
+
+    public void evict(String email) {
+        entries.remove(email);
+    }
+
+    private record Entry(Long id, String email, String role, long loadedAt) {
+
+        // A fresh copy per request: principals are mutable entities
+        User toPrincipal() {
+            User user = new User();
+            user.setId(id);
+            user.setEmail(email);
+            user.setRole(role);
+            return user;
+        }
+    }
+}
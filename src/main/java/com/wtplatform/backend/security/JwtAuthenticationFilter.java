@@ -1,28 +1,41 @@
 package com.wtplatform.backend.security;
 
+import com.wtplatform.backend.logging.LogSampler;
+import com.wtplatform.backend.model.User;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.time.Duration;
+import java.util.Optional;
 
+/**
+ * Authenticates requests carrying a bearer JWT. The token is verified once; the
+ * principal is the signed account (id, email, role) as held by {@link AuthenticatedUserCache},
+ * so no user lookup runs per request.
+ */
+@Slf4j
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    // Clients replaying an expired or forged token would otherwise log a warning per request
+    private final LogSampler rejectedTokenLog = new LogSampler(10, Duration.ofMinutes(1));
+
     @Autowired
     private JwtUtils jwtUtils;
 
     @Autowired
-    private UserDetailsService userDetailsService;
+    private AuthenticatedUserCache userCache;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
@@ -32,80 +45,53 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         
         // Skip authentication for public endpoints and OPTIONS requests
         if (requestURI.startsWith("/auth/") || request.getMethod().equals("OPTIONS")) {
-            logger.debug("Skipping JWT filter for path: " + requestURI + " with method: " + request.getMethod());
+            log.debug("Skipping JWT filter for path: {} with method: {}", requestURI, request.getMethod());
             filterChain.doFilter(request, response);
             return;
         }
 
-        logger.debug("Processing request: " + requestURI + " [" + request.getMethod() + "]");
-        String authHeader = request.getHeader("Authorization");
-        logger.debug("Authorization header: " + (authHeader != null ? "Bearer [REDACTED]" : "null"));
-        
-        try {
-            String jwt = parseJwt(request);
-            
-            if (jwt != null) {
-                logger.debug("JWT token found in request");
-                String username = jwtUtils.extractUsername(jwt);
-                logger.debug("Extracted username from JWT: " + username);
-                
-                if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                    logger.debug("Loading UserDetails for username: " + username);
-                    UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                    logger.debug("UserDetails loaded: " + userDetails);
-                    logger.debug("UserDetails class: " + userDetails.getClass().getName());
-                    logger.debug("Authorities: " + userDetails.getAuthorities());
-                    
-                    if (jwtUtils.validateToken(jwt, userDetails)) {
-                        logger.debug("JWT token validated successfully for username: " + username);
-                        
-                        // IMPORTANT DEBUG: Log what's being set as the principal
-                        logger.debug("Setting principal in SecurityContext. UserDetails class: " + 
-                                    userDetails.getClass().getName());
-                        logger.debug("Principal to string: " + userDetails.toString());
-                        
-                        UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                                userDetails, null, userDetails.getAuthorities());
-                        authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                        
-                        // Important: Set the authentication BEFORE continuing the filter chain
-                        SecurityContextHolder.getContext().setAuthentication(authToken);
-                        logger.debug("Authentication set in SecurityContext for user: " + username);
-                        logger.debug("Authentication principal class: " + 
-                                    SecurityContextHolder.getContext().getAuthentication().getPrincipal().getClass().getName());
-                    } else {
-                        logger.warn("JWT token validation failed for token: " + jwt.substring(0, 10) + "...");
-                    }
-                } else {
-                    if (username == null) {
-                        logger.warn("Username could not be extracted from JWT");
-                    }
-                    if (SecurityContextHolder.getContext().getAuthentication() != null) {
-                        logger.debug("SecurityContext already contains Authentication");
-                    }
+        String jwt = parseJwt(request);
+        if (jwt != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            try {
+                authenticate(jwt, request);
+            } catch (JwtException | IllegalArgumentException e) {
+                if (rejectedTokenLog.sample()) {
+                    log.warn("Rejected JWT for {}: {} ({} more rejections not logged)",
+                            requestURI, e.getMessage(), rejectedTokenLog.drainSuppressed());
                 }
-            } else {
-                logger.debug("No JWT token found in request");
+            } catch (Exception e) {
+                log.error("Cannot process JWT token: {}", e.getMessage(), e);
+                // Do not throw exception - let the security chain handle it
             }
-        } catch (Exception e) {
-            logger.error("Cannot process JWT token: " + e.getMessage(), e);
-            // Do not throw exception - let the security chain handle it
-        }
-        
-        // Log authentication status before continuing
-        if (SecurityContextHolder.getContext().getAuthentication() != null) {
-            logger.debug("SecurityContext contains Authentication: " + 
-                        SecurityContextHolder.getContext().getAuthentication());
-            logger.debug("Authentication principal class: " + 
-                        SecurityContextHolder.getContext().getAuthentication().getPrincipal().getClass().getName());
-        } else {
-            logger.debug("No Authentication in SecurityContext");
         }
         
         // Always continue the filter chain
         filterChain.doFilter(request, response);
     }
 
+    private void authenticate(String jwt, HttpServletRequest request) {
+        VerifiedToken token = jwtUtils.verifyAndParse(jwt);
+        String email = token.subject();
+        Optional<User> account = email != null ? userCache.resolve(email) : Optional.empty();
+        if (account.isEmpty()) {
+            log.warn("JWT subject no longer has an account: {}", email);
+            return;
+        }
+        User user = account.get();
+
+        // Tokens issued before the id claim existed are trusted by subject alone. A different id
+        // means the account was deleted and the email registered again: the token is revoked.
+        if (token.userId() != null && !token.userId().equals(user.getId())) {
+            log.warn("JWT user id does not match the account of {}", email);
+            return;
+        }
+        // Authorities come from the cached account, so a role change applies without a new token
+        UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                user, null, user.getAuthorities());
+        authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+        SecurityContextHolder.getContext().setAuthentication(authToken);
+    }
+
     private String parseJwt(HttpServletRequest request) {
         String headerAuth = request.getHeader("Authorization");
         
@@ -115,4 +101,4 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         
         return null;
     }
-} 
\ No newline at end of file
+}
@@ -1,25 +1,41 @@
 package com.wtplatform.backend.security;
 
+import com.wtplatform.backend.model.User;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.function.Function;
 
+/**
+ * Issues and verifies JWTs. The key and parser are built once; recently verified tokens are
+ * remembered by SHA-256 digest until they expire, so a client repeating its token skips the
+ * signature check and claims parsing. Beyond {@code jwt.verified-cache.max-size} the least
+ * recently used token is forgotten.
+ */
 @Component
 public class JwtUtils {
-    private static final Logger logger = LoggerFactory.getLogger(JwtUtils.class);
+
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_ROLE = "role";
 
     @Value("${jwt.secret}")
     private String jwtSecret;
@@ -27,78 +43,70 @@ public class JwtUtils {
     @Value("${jwt.expiration}")
     private long jwtExpirationMs;
 
-    public String extractUsername(String token) {
-        try {
-            return extractClaim(token, Claims::getSubject);
-        } catch (Exception e) {
-            logger.error("Failed to extract username from token: " + e.getMessage());
-            return null;
-        }
-    }
-
-    public Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
-    }
+    @Value("${jwt.verified-cache.max-size:10000}")
+    private int verifiedCacheMaxSize = 10000;
 
-    public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
-    }
+    private Key signingKey;
+    private JwtParser parser;
+    // Access-ordered, so the least recently used token is dropped beyond verifiedCacheMaxSize
+    private final Map<String, VerifiedToken> verified = Collections.synchronizedMap(
+            new LinkedHashMap<>(256, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, VerifiedToken> eldest) {
+                    return size() > verifiedCacheMaxSize;
+                }
+            });
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    @PostConstruct
+    public void init() {
+        signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+        parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
     }
 
-    private Key getSigningKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(jwtSecret);
-        return Keys.hmacShaKeyFor(keyBytes);
-    }
+    /**
+     * Verify the signature and expiry of a token and return its claims
+     *
+     * @throws io.jsonwebtoken.JwtException if the token is invalid or expired
+     */
+    public VerifiedToken verifyAndParse(String token) {
+        String digest = digest(token);
+        VerifiedToken cached = verified.get(digest);
+        if (cached != null) {
+            if (cached.expiresAt().isAfter(Instant.now())) {
+                return cached;
+            }
+            verified.remove(digest);
+        }
 
-    private Boolean isTokenExpired(String token) {
-        try {
-            final Date expiration = extractExpiration(token);
-            return expiration.before(new Date());
-        } catch (Exception e) {
-            logger.error("Error checking token expiration: " + e.getMessage());
-            return true; // Consider expired if we can't check
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        if (claims.getExpiration() == null) {
+            // Every token issued here expires; one that does not is not ours
+            throw new MalformedJwtException("Token has no expiry");
         }
+        Number userId = claims.get(CLAIM_USER_ID, Number.class);
+        VerifiedToken result = new VerifiedToken(claims.getSubject(),
+                userId != null ? userId.longValue() : null,
+                claims.get(CLAIM_ROLE, String.class),
+                claims.getExpiration().toInstant());
+        verified.put(digest, result);
+        return result;
     }
 
-    public Boolean validateToken(String token, UserDetails userDetails) {
+    private static String digest(String token) {
         try {
-            final String username = extractUsername(token);
-            logger.debug("Validating token for user: " + username);
-            
-            boolean isValid = username != null && 
-                             username.equals(userDetails.getUsername()) && 
-                             !isTokenExpired(token) &&
-                             userDetails.isEnabled();
-            
-            if (!isValid) {
-                if (username == null) {
-                    logger.debug("Token validation failed: Username is null");
-                } else if (!username.equals(userDetails.getUsername())) {
-                    logger.debug("Token validation failed: Username mismatch");
-                } else if (isTokenExpired(token)) {
-                    logger.debug("Token validation failed: Token is expired");
-                } else if (!userDetails.isEnabled()) {
-                    logger.debug("Token validation failed: User is disabled");
-                }
-            }
-            
-            return isValid;
-        } catch (Exception e) {
-            logger.error("Token validation failed with exception: " + e.getMessage());
-            return false;
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
         }
     }
 
     public String generateToken(UserDetails userDetails) {
         Map<String, Object> claims = new HashMap<>();
+        if (userDetails instanceof User user) {
+            claims.put(CLAIM_USER_ID, user.getId());
+            claims.put(CLAIM_ROLE, user.getRole());
+        }
         return createToken(claims, userDetails.getUsername());
     }
 
@@ -111,7 +119,7 @@ public class JwtUtils {
                 .setSubject(subject)
                 .setIssuedAt(now)
                 .setExpiration(expiryDate)
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
-} 
\ No newline at end of file
+}
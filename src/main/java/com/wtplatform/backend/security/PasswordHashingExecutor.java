@@ -0,0 +1,86 @@
+package com.wtplatform.backend.security;
+
+import com.wtplatform.backend.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Runs password hashing (BCrypt) on a small pool of its own, so a login burst uses at most
+ * {@code security.password-hashing.threads} cores and cannot occupy every request thread with
+ * hashing. Beyond the queue, or past the wait timeout, a login is refused with
+ * {@link TooManyRequestsException} instead of queueing without bound.
+ *
+ * Metrics: {@code auth.password_hashing.queue.depth}, {@code .active} and {@code .rejected}.
+ */
+@Component
+public class PasswordHashingExecutor implements DisposableBean {
+
+    private static final long RETRY_AFTER_SECONDS = 1;
+
+    private final ThreadPoolExecutor executor;
+    private final Counter rejected;
+    private final long timeoutMs;
+
+    public PasswordHashingExecutor(MeterRegistry meterRegistry,
+                                   @Value("${security.password-hashing.threads:2}") int threads,
+                                   @Value("${security.password-hashing.queue-capacity:64}") int queueCapacity,
+                                   @Value("${security.password-hashing.timeout-ms:3000}") long timeoutMs) {
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                Thread.ofPlatform().name("password-hashing-", 0).daemon(true).factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.timeoutMs = timeoutMs;
+        Gauge.builder("auth.password_hashing.queue.depth", executor, e -> e.getQueue().size())
+                .description("Password hashes waiting for a hashing thread")
+                .register(meterRegistry);
+        Gauge.builder("auth.password_hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+                .register(meterRegistry);
+        this.rejected = Counter.builder("auth.password_hashing.rejected")
+                .description("Password hashes refused because the queue was full or the wait timed out")
+                .register(meterRegistry);
+    }
+
+    public <T> T call(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new TooManyRequestsException("Too many sign-in attempts in progress, please retry", RETRY_AFTER_SECONDS);
+        }
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejected.increment();
+            throw new TooManyRequestsException("Too many sign-in attempts in progress, please retry", RETRY_AFTER_SECONDS);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing password", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,94 @@
+package com.wtplatform.backend.security;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * In-memory token buckets, one per key (an IP address, an account). A bucket holds up to
+ * {@code capacity} tokens and refills continuously at {@code refillPerMinute}; each request
+ * takes one. Buckets are updated with compare-and-set, so keys never contend on a lock.
+ * At most {@code maxKeys} buckets are held: once full, keys without a bucket are limited
+ * until {@link #evictFull} (run on a schedule, never on the request path) frees room.
+ */
+public class TokenBucketLimiter {
+
+    private final double capacity;
+    private final double tokensPerNano;
+    private final int maxKeys;
+    private final Map<String, AtomicReference<Bucket>> buckets = new ConcurrentHashMap<>();
+    private final AtomicInteger size = new AtomicInteger();
+
+    public TokenBucketLimiter(int capacity, int refillPerMinute, int maxKeys) {
+        this.capacity = capacity;
+        this.tokensPerNano = refillPerMinute / (double) TimeUnit.MINUTES.toNanos(1);
+        this.maxKeys = maxKeys;
+    }
+
+    /**
+     * Take a token for the key
+     *
+     * @return 0 if allowed, else the seconds until a token is available
+     */
+    public long tryAcquire(String key) {
+        long now = System.nanoTime();
+        AtomicReference<Bucket> ref = buckets.get(key);
+        if (ref == null) {
+            ref = buckets.computeIfAbsent(key, k -> reserve() ? new AtomicReference<>(new Bucket(capacity, now)) : null);
+            if (ref == null) {
+                // Full: a new key waits as long as an emptied bucket would
+                return secondsUntilToken(0);
+            }
+        }
+        while (true) {
+            Bucket current = ref.get();
+            double tokens = current.tokensAt(now, capacity, tokensPerNano);
+            if (tokens < 1) {
+                return secondsUntilToken(tokens);
+            }
+            if (ref.compareAndSet(current, new Bucket(tokens - 1, now))) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Drop buckets that have refilled: a new one for the key would be the same
+     */
+    public void evictFull(long now) {
+        buckets.forEach((key, ref) -> {
+            if (ref.get().tokensAt(now, capacity, tokensPerNano) >= capacity && buckets.remove(key, ref)) {
+                size.decrementAndGet();
+            }
+        });
+    }
+
+    int size() {
+        return buckets.size();
+    }
+
+    private boolean reserve() {
+        while (true) {
+            int current = size.get();
+            if (current >= maxKeys) {
+                return false;
+            }
+            if (size.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private long secondsUntilToken(double tokens) {
+        return Math.max(1, (long) Math.ceil((1 - tokens) / tokensPerNano / TimeUnit.SECONDS.toNanos(1)));
+    }
+
+    private record Bucket(double tokens, long updatedAt) {
+
+        double tokensAt(long now, double capacity, double tokensPerNano) {
+            return Math.min(capacity, tokens + (now - updatedAt) * tokensPerNano);
+        }
+    }
+}
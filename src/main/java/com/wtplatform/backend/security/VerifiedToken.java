@@ -0,0 +1,13 @@
+package com.wtplatform.backend.security;
+
+import java.time.Instant;
+
+/**
+ * The claims of a JWT whose signature and expiry have been verified
+ *
+ * @param subject the account email
+ * @param userId the account id, null for tokens issued before it was a claim
+ * @param role the role at issue time, null for tokens issued before it was a claim
+ */
+public record VerifiedToken(String subject, Long userId, String role, Instant expiresAt) {
+}
@@ -1,5 +1,6 @@
 package com.wtplatform.backend.service;
 
+import com.wtplatform.backend.logging.LogSampler;
 import com.wtplatform.backend.model.NavHistory;
 import com.wtplatform.backend.model.AmfiScheme;
 import com.wtplatform.backend.repository.NavHistoryRepository;
@@ -7,7 +8,10 @@ import com.wtplatform.backend.repository.AmfiSchemeRepository;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.dao.DataAccessException;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.ResourceLoader;
 import org.springframework.util.FileCopyUtils;
@@ -22,6 +26,7 @@ import java.io.IOException;
 import java.math.BigDecimal;
 import java.net.URL;
 import java.net.HttpURLConnection;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
@@ -41,6 +46,8 @@ public class AmfiNavImporter {
     private final NavHistoryRepository navRepo;
     private final AmfiSchemeRepository schemeRepo;
     private final ResourceLoader resourceLoader;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
     
     @Value("${amfi.batch.size:1000}")
     private int batchSize;
@@ -70,7 +77,10 @@ public class AmfiNavImporter {
             downloadAndSaveAmfiFile(amfiDataBuilder);
             
             // Step 2: Process data and update DB
-            processAmfiDataAndUpdateDb(amfiDataBuilder.toString());
+            NavImportCompletedEvent completed = processAmfiDataAndUpdateDb(amfiDataBuilder.toString());
+
+            // Step 3: Let dependants (AUM snapshots) run once the NAVs are committed
+            eventPublisher.publishEvent(completed);
             
         } catch (Exception e) {
             log.error("Error during AMFI data import: {}", e.getMessage(), e);
@@ -115,13 +125,17 @@ public class AmfiNavImporter {
         }
     }
     
-    private void processAmfiDataAndUpdateDb(String amfiData) {
+    private NavImportCompletedEvent processAmfiDataAndUpdateDb(String amfiData) {
         try {
             String[] lines = amfiData.split("\n");
             int processedCount = 0;
             LocalDate today = LocalDate.now();
+            LocalDate latestNavDate = null;
             List<NavHistory> navBatch = new ArrayList<>();
             Map<String, NavUpdateInfo> latestNavs = new HashMap<>();
+            Map<String, BigDecimal> importedNavs = new HashMap<>();
+            // A format change would fail every one of the file's lines; log a sample of them
+            LogSampler lineErrorLog = new LogSampler(20, Duration.ofMinutes(1));
 
             for (String line : lines) {
                 line = line.trim();
@@ -157,15 +171,22 @@ public class AmfiNavImporter {
                     // Process the line using existing method
                     processLine(fields, navBatch, latestNavs);
                     processedCount++;
+                    LocalDate navDate = navBatch.get(navBatch.size() - 1).getNavDate();
+                    if (latestNavDate == null || navDate.isAfter(latestNavDate)) {
+                        latestNavDate = navDate;
+                    }
 
                     // Process in batches
                     if (navBatch.size() >= batchSize) {
+                        latestNavs.forEach((code, info) -> importedNavs.put(code, info.nav));
                         saveNavBatch(navBatch, latestNavs);
                         navBatch.clear();
                         latestNavs.clear();
                     }
                 } catch (Exception e) {
-                    log.error("Error processing AMFI line: {}. Error: {}", line, e.getMessage());
+                    if (lineErrorLog.sample()) {
+                        log.error("Error processing AMFI line: {}. Error: {}", line, e.getMessage());
+                    }
                     // Continue processing other lines even if one fails
                     continue;
                 }
@@ -173,10 +194,16 @@ public class AmfiNavImporter {
             
             // Process remaining records
             if (!navBatch.isEmpty()) {
+                latestNavs.forEach((code, info) -> importedNavs.put(code, info.nav));
                 saveNavBatch(navBatch, latestNavs);
             }
             
+            long unloggedLineErrors = lineErrorLog.drainSuppressed();
+            if (unloggedLineErrors > 0) {
+                log.warn("{} more AMFI lines failed to process and were not logged individually", unloggedLineErrors);
+            }
             log.info("Successfully processed {} AMFI entries", processedCount);
+            return new NavImportCompletedEvent(latestNavDate != null ? latestNavDate : today, processedCount, importedNavs);
             
         } catch (Exception e) {
             log.error("Error processing AMFI data for DB update: {}", e.getMessage(), e);
@@ -261,7 +288,6 @@ public class AmfiNavImporter {
         }
     }
 
-    @Transactional
     protected void saveNavBatch(List<NavHistory> navBatch, Map<String, NavUpdateInfo> latestNavs) {
         if (navBatch.isEmpty()) {
             return;
@@ -271,18 +297,26 @@ public class AmfiNavImporter {
         List<NavHistory> successfulSaves = new ArrayList<>();
         Map<String, String> failedEntries = new HashMap<>();
 
-        // Process each NAV entry individually within the batch
-        for (NavHistory nav : navBatch) {
-            try {
-                NavHistory savedNav = navRepo.save(nav);
-                successfulSaves.add(savedNav);
-                log.debug("Successfully saved NAV entry - FundId: {}, Date: {}, Nav: {}", 
-                    nav.getFundId(), nav.getNavDate(), nav.getNav());
-            } catch (Exception e) {
-                String errorMessage = e.getMessage();
-                failedEntries.put(nav.getFundId() + "_" + nav.getNavDate(), errorMessage);
-                log.warn("Failed to save NAV entry - FundId: {}, Date: {}, Error: {}", 
-                    nav.getFundId(), nav.getNavDate(), errorMessage);
+        // The whole batch in one transaction, flushed as JDBC batches
+        try {
+            successfulSaves.addAll(transactionTemplate.execute(status -> navRepo.saveAll(navBatch)));
+        } catch (DataAccessException batchError) {
+            log.warn("Batch save of {} NAV entries failed, retrying one by one: {}",
+                navBatch.size(), batchError.getMessage());
+            // Process each NAV entry individually; ids drawn by the rolled back batch are discarded
+            for (NavHistory nav : navBatch) {
+                nav.setId(null);
+                try {
+                    NavHistory savedNav = navRepo.save(nav);
+                    successfulSaves.add(savedNav);
+                    log.debug("Successfully saved NAV entry - FundId: {}, Date: {}, Nav: {}", 
+                        nav.getFundId(), nav.getNavDate(), nav.getNav());
+                } catch (Exception e) {
+                    String errorMessage = e.getMessage();
+                    failedEntries.put(nav.getFundId() + "_" + nav.getNavDate(), errorMessage);
+                    log.warn("Failed to save NAV entry - FundId: {}, Date: {}, Error: {}", 
+                        nav.getFundId(), nav.getNavDate(), errorMessage);
+                }
             }
         }
 
@@ -0,0 +1,622 @@
+package com.wtplatform.backend.service;
+
+import com.wtplatform.backend.exception.AumNotReadyException;
+import com.wtplatform.backend.projection.HoldingProjection;
+import com.wtplatform.backend.repository.TransactionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Values the whole firm's holdings against the latest AMFI NAVs.
+ *
+ * Holdings are loaded once as flat rows and copied into primitive columns; valuation and
+ * the client/user roll-ups are then straight loops over those arrays. The resulting
+ * {@link Book} is immutable and cached. Loading it runs the firm-wide holdings query, so it
+ * never happens on a request thread: the book is built at startup and rebuilt on a
+ * background thread once it is older than {@code aum.engine.max-age-seconds}, while
+ * requests keep reading the previous one.
+ * When a NAV import completes, only the schemes whose NAV moved are revalued and their
+ * deltas pushed into the client and user totals.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AumEngine implements DisposableBean {
+
+    static final String UNCLASSIFIED = "Unclassified";
+    static final String UNKNOWN_AMC = "Unknown";
+
+    private final TransactionRepository transactionRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${aum.engine.max-age-seconds:300}")
+    private long maxAgeSeconds;
+
+    // Orders full reloads and NAV revaluations; held across the holdings query, so a
+    // revaluation that arrives meanwhile is applied on top of the reloaded book
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ExecutorService rebuilder =
+        Executors.newSingleThreadExecutor(Thread.ofPlatform().name("aum-rebuild").daemon().factory());
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    private volatile Book current;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        scheduleRefresh();
+    }
+
+    @Override
+    public void destroy() {
+        rebuilder.shutdownNow();
+    }
+
+    /**
+     * The cached book. Never queries the database: a book older than the configured max age
+     * is returned as is while a rebuild is started in the background.
+     *
+     * @throws AumNotReadyException if the first book has not been built yet
+     */
+    public Book current() {
+        Book book = current;
+        if (book == null) {
+            scheduleRefresh();
+            throw new AumNotReadyException("AUM valuation is still loading, please retry shortly");
+        }
+        if (book.loadedAt.isBefore(LocalDateTime.now().minusSeconds(maxAgeSeconds))) {
+            scheduleRefresh();
+        }
+        return book;
+    }
+
+    /**
+     * Start a background reload unless one is already running
+     */
+    private void scheduleRefresh() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            rebuilder.execute(() -> {
+                try {
+                    refresh();
+                } catch (Exception e) {
+                    log.error("[AUM] Valuation rebuild failed: {}", e.getMessage(), e);
+                } finally {
+                    rebuilding.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Shutting down
+            rebuilding.set(false);
+        }
+    }
+
+    /**
+     * Reload all holdings and revalue them
+     */
+    public Book refresh() {
+        lock.lock();
+        try {
+            long started = System.nanoTime();
+            List<HoldingProjection> rows = transactionRepository.findHoldingsForValuation(null);
+            Book book = build(rows);
+            current = book;
+            log.info("[AUM] Valued {} positions for {} clients in {} ms, total AUM {}",
+                book.positions, book.clientIds.length, Duration.ofNanos(System.nanoTime() - started).toMillis(),
+                book.totalAum);
+            return book;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Reprice the cached book with the NAVs of a completed import. Holdings are not reloaded;
+     * a book that has not been loaded yet picks the NAVs up when it is.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onNavImportCompleted(NavImportCompletedEvent event) {
+        if (event.latestNavs().isEmpty()) {
+            return;
+        }
+        lock.lock();
+        try {
+            Book book = current;
+            if (book == null) {
+                return;
+            }
+            long started = System.nanoTime();
+            Book revalued = book.revalue(event.latestNavs());
+            current = revalued;
+            log.info("[AUM] Revalued {} of {} held schemes in {} µs, total AUM {} -> {}",
+                revalued.revaluedSchemes, book.schemeCodes.length,
+                (System.nanoTime() - started) / 1_000, book.totalAum, revalued.totalAum);
+        } finally {
+            lock.unlock();
+        }
+        eventPublisher.publishEvent(DashboardChangedEvent.forAllUsers(
+            DashboardChangedEvent.Topic.DASHBOARD, DashboardChangedEvent.Topic.AUM));
+    }
+
+    /**
+     * Build a book from holding rows ordered by user and client
+     */
+    public Book build(List<HoldingProjection> rows) {
+        final int n = rows.size();
+        Dictionary assetClasses = new Dictionary();
+        Dictionary amcs = new Dictionary();
+
+        int[] posClient = new int[n];
+        int[] posAssetClass = new int[n];
+        int[] posAmc = new int[n];
+        int[] posScheme = new int[n];
+        Dictionary schemes = new Dictionary();
+        double[] units = new double[n];
+        double[] nav = new double[n];
+        double[] invested = new double[n];
+
+        List<Long> clientIds = new ArrayList<>();
+        List<String> clientNames = new ArrayList<>();
+        List<Integer> clientUser = new ArrayList<>();
+        List<Long> userIds = new ArrayList<>();
+        List<Integer> userFirstPosition = new ArrayList<>();
+
+        Long lastClient = null;
+        Long lastUser = null;
+        for (int i = 0; i < n; i++) {
+            HoldingProjection row = rows.get(i);
+            if (!row.getUserId().equals(lastUser)) {
+                lastUser = row.getUserId();
+                userIds.add(lastUser);
+                userFirstPosition.add(i);
+                lastClient = null;
+            }
+            if (!row.getClientId().equals(lastClient)) {
+                lastClient = row.getClientId();
+                clientIds.add(lastClient);
+                clientNames.add(row.getClientName());
+                clientUser.add(userIds.size() - 1);
+            }
+            posClient[i] = clientIds.size() - 1;
+            // Book-value balances are not priced by NAV, so they stay out of the scheme index
+            posScheme[i] = Boolean.TRUE.equals(row.getBookValue()) || row.getSchemeCode() == null
+                ? -1 : schemes.index(row.getSchemeCode());
+            units[i] = toDouble(row.getUnits());
+            nav[i] = toDouble(row.getNav());
+            invested[i] = toDouble(row.getInvested());
+            posAssetClass[i] = assetClasses.index(resolveAssetClass(row.getAssetClass(), row.getCategory()));
+            posAmc[i] = amcs.index(row.getAmcName() != null && !row.getAmcName().isBlank()
+                ? row.getAmcName().trim() : UNKNOWN_AMC);
+        }
+
+        int users = userIds.size();
+        int[] userStart = new int[users + 1];
+        for (int u = 0; u < users; u++) {
+            userStart[u] = userFirstPosition.get(u);
+        }
+        userStart[users] = n;
+
+        return new Book(n, posClient, posAssetClass, posAmc, posScheme, schemes.names(), units, nav, invested,
+            clientIds.stream().mapToLong(Long::longValue).toArray(),
+            clientNames.toArray(new String[0]),
+            clientUser.stream().mapToInt(Integer::intValue).toArray(),
+            userIds.stream().mapToLong(Long::longValue).toArray(),
+            userStart, assetClasses.names(), amcs.names(), LocalDateTime.now());
+    }
+
+    /**
+     * Transaction asset class wins; otherwise it is derived from the AMFI category header,
+     * e.g. "Open Ended Schemes(Debt Scheme - Liquid Fund)" becomes "Debt"
+     */
+    static String resolveAssetClass(String assetClass, String category) {
+        if (assetClass != null && !assetClass.isBlank()) {
+            String trimmed = assetClass.trim();
+            for (String known : new String[] {"Equity", "Debt", "Hybrid", "Solution Oriented", "Other"}) {
+                if (known.equalsIgnoreCase(trimmed)) {
+                    return known;
+                }
+            }
+            return trimmed;
+        }
+        if (category == null || category.isBlank()) {
+            return UNCLASSIFIED;
+        }
+        String upper = category.toUpperCase();
+        if (upper.contains("EQUITY") || upper.contains("ELSS")) {
+            return "Equity";
+        }
+        if (upper.contains("DEBT") || upper.contains("LIQUID") || upper.contains("GILT") || upper.contains("MONEY MARKET")) {
+            return "Debt";
+        }
+        if (upper.contains("HYBRID")) {
+            return "Hybrid";
+        }
+        if (upper.contains("SOLUTION")) {
+            return "Solution Oriented";
+        }
+        return "Other";
+    }
+
+    private static double toDouble(BigDecimal value) {
+        return value != null ? value.doubleValue() : 0.0;
+    }
+
+    /**
+     * Immutable, column-oriented valuation of every position in the firm.
+     * Positions are grouped by user, and by client within a user, so each user's
+     * holdings are the contiguous slice [userStart[u], userStart[u + 1]).
+     * A CSR index (schemeStart/schemePositions) lists the positions holding each scheme.
+     */
+    public static final class Book {
+        final int positions;
+        final int[] posClient;
+        final int[] posAssetClass;
+        final int[] posAmc;
+        final int[] posScheme;          // -1 for book-value positions
+        final double[] units;
+        final double[] nav;
+        final double[] invested;
+        final double[] value;
+
+        final String[] schemeCodes;
+        final Map<String, Integer> schemeIndex;
+        final int[] schemeStart;
+        final int[] schemePositions;
+        final double[] schemeUnits;
+
+        final long[] clientIds;
+        final String[] clientNames;
+        final int[] clientUser;
+        final double[] clientAum;
+
+        final long[] userIds;
+        final int[] userStart;
+        final double[] userAum;
+        final Map<Long, Integer> userIndex;
+
+        final String[] assetClassNames;
+        final String[] amcNames;
+        final double totalAum;
+        final LocalDateTime loadedAt;     // when holdings were read from the database
+        final LocalDateTime computedAt;   // when prices were last applied
+        final int revaluedSchemes;
+
+        Book(int positions, int[] posClient, int[] posAssetClass, int[] posAmc, int[] posScheme,
+             String[] schemeCodes, double[] units, double[] nav, double[] invested, long[] clientIds,
+             String[] clientNames, int[] clientUser, long[] userIds, int[] userStart, String[] assetClassNames,
+             String[] amcNames, LocalDateTime computedAt) {
+            this.positions = positions;
+            this.posClient = posClient;
+            this.posAssetClass = posAssetClass;
+            this.posAmc = posAmc;
+            this.posScheme = posScheme;
+            this.schemeCodes = schemeCodes;
+            this.units = units;
+            this.nav = nav;
+            this.invested = invested;
+            this.clientIds = clientIds;
+            this.clientNames = clientNames;
+            this.clientUser = clientUser;
+            this.userIds = userIds;
+            this.userStart = userStart;
+            this.assetClassNames = assetClassNames;
+            this.amcNames = amcNames;
+            this.loadedAt = computedAt;
+            this.computedAt = computedAt;
+            this.revaluedSchemes = schemeCodes.length;
+
+            // Pass 1: value every position; schemes without a NAV fall back to their cost
+            this.value = new double[positions];
+            for (int i = 0; i < positions; i++) {
+                value[i] = valueOf(units[i], nav[i], invested[i]);
+            }
+            // Pass 2: roll positions up to clients
+            this.clientAum = new double[clientIds.length];
+            for (int i = 0; i < positions; i++) {
+                clientAum[posClient[i]] += value[i];
+            }
+            // Pass 3: roll clients up to users and the firm
+            this.userAum = new double[userIds.length];
+            double total = 0.0;
+            for (int c = 0; c < clientIds.length; c++) {
+                userAum[clientUser[c]] += clientAum[c];
+                total += clientAum[c];
+            }
+            this.totalAum = total;
+
+            // Pass 4: counting sort of positions by scheme, plus units held per scheme
+            this.schemeStart = new int[schemeCodes.length + 1];
+            this.schemeUnits = new double[schemeCodes.length];
+            for (int i = 0; i < positions; i++) {
+                if (posScheme[i] >= 0) {
+                    schemeStart[posScheme[i] + 1]++;
+                    schemeUnits[posScheme[i]] += units[i];
+                }
+            }
+            for (int k = 0; k < schemeCodes.length; k++) {
+                schemeStart[k + 1] += schemeStart[k];
+            }
+            this.schemePositions = new int[schemeStart[schemeCodes.length]];
+            int[] fill = Arrays.copyOf(schemeStart, schemeCodes.length);
+            for (int i = 0; i < positions; i++) {
+                if (posScheme[i] >= 0) {
+                    schemePositions[fill[posScheme[i]]++] = i;
+                }
+            }
+            this.schemeIndex = new HashMap<>(schemeCodes.length * 2);
+            for (int k = 0; k < schemeCodes.length; k++) {
+                schemeIndex.put(schemeCodes[k], k);
+            }
+
+            this.userIndex = new HashMap<>(userIds.length * 2);
+            for (int u = 0; u < userIds.length; u++) {
+                userIndex.put(userIds[u], u);
+            }
+        }
+
+        /**
+         * Repriced copy of {@code base}: shares the structural columns, owns the price-dependent ones
+         */
+        private Book(Book base, double[] nav, double[] value, double[] clientAum, double[] userAum,
+                     double totalAum, int revaluedSchemes) {
+            this.positions = base.positions;
+            this.posClient = base.posClient;
+            this.posAssetClass = base.posAssetClass;
+            this.posAmc = base.posAmc;
+            this.posScheme = base.posScheme;
+            this.units = base.units;
+            this.invested = base.invested;
+            this.schemeCodes = base.schemeCodes;
+            this.schemeIndex = base.schemeIndex;
+            this.schemeStart = base.schemeStart;
+            this.schemePositions = base.schemePositions;
+            this.schemeUnits = base.schemeUnits;
+            this.clientIds = base.clientIds;
+            this.clientNames = base.clientNames;
+            this.clientUser = base.clientUser;
+            this.userIds = base.userIds;
+            this.userStart = base.userStart;
+            this.userIndex = base.userIndex;
+            this.assetClassNames = base.assetClassNames;
+            this.amcNames = base.amcNames;
+            this.loadedAt = base.loadedAt;
+            this.nav = nav;
+            this.value = value;
+            this.clientAum = clientAum;
+            this.userAum = userAum;
+            this.totalAum = totalAum;
+            this.revaluedSchemes = revaluedSchemes;
+            this.computedAt = LocalDateTime.now();
+        }
+
+        private static double valueOf(double units, double nav, double invested) {
+            return nav > 0.0 ? units * nav : invested;
+        }
+
+        /**
+         * Apply new NAVs by scheme code. Only schemes that are held and whose NAV differs are
+         * touched, and each holder's change in value is added to its client and user totals,
+         * so the work is proportional to the holders of the changed schemes.
+         */
+        public Book revalue(Map<String, BigDecimal> latestNavs) {
+            double[] newNav = nav.clone();
+            double[] newValue = value.clone();
+            double[] newClientAum = clientAum.clone();
+            double[] newUserAum = userAum.clone();
+            double total = totalAum;
+            int changed = 0;
+
+            for (Map.Entry<String, BigDecimal> entry : latestNavs.entrySet()) {
+                Integer scheme = schemeIndex.get(entry.getKey());
+                if (scheme == null || entry.getValue() == null) {
+                    continue;
+                }
+                double price = entry.getValue().doubleValue();
+                int from = schemeStart[scheme];
+                int to = schemeStart[scheme + 1];
+                if (newNav[schemePositions[from]] == price) {
+                    continue;
+                }
+                changed++;
+                for (int k = from; k < to; k++) {
+                    int i = schemePositions[k];
+                    double updated = valueOf(units[i], price, invested[i]);
+                    double delta = updated - newValue[i];
+                    newNav[i] = price;
+                    newValue[i] = updated;
+                    int c = posClient[i];
+                    newClientAum[c] += delta;
+                    newUserAum[clientUser[c]] += delta;
+                    total += delta;
+                }
+            }
+            return new Book(this, newNav, newValue, newClientAum, newUserAum, total, changed);
+        }
+
+        /**
+         * Total units held firm-wide in a scheme
+         */
+        public double unitsHeld(String schemeCode) {
+            Integer scheme = schemeIndex.get(schemeCode);
+            return scheme != null ? schemeUnits[scheme] : 0.0;
+        }
+
+        /**
+         * Number of positions (client holdings) in a scheme
+         */
+        public int holders(String schemeCode) {
+            Integer scheme = schemeIndex.get(schemeCode);
+            return scheme != null ? schemeStart[scheme + 1] - schemeStart[scheme] : 0;
+        }
+
+        public LocalDateTime getComputedAt() {
+            return computedAt;
+        }
+
+        public double getTotalAum() {
+            return totalAum;
+        }
+
+        public double userAum(Long userId) {
+            Integer u = userIndex.get(userId);
+            return u != null ? userAum[u] : 0.0;
+        }
+
+        /**
+         * Number of the user's clients with a positive valuation
+         */
+        public int contributingClients(Long userId) {
+            Integer u = userIndex.get(userId);
+            if (u == null) {
+                return 0;
+            }
+            int count = 0;
+            int lastClient = -1;
+            for (int i = userStart[u]; i < userStart[u + 1]; i++) {
+                int c = posClient[i];
+                if (c != lastClient) {
+                    lastClient = c;
+                    if (clientAum[c] > 0.0) {
+                        count++;
+                    }
+                }
+            }
+            return count;
+        }
+
+        /**
+         * AUM of each of the user's clients keyed by client ID
+         */
+        public Map<Long, Double> aumByClient(Long userId) {
+            Map<Long, Double> result = new HashMap<>();
+            Integer u = userIndex.get(userId);
+            if (u == null) {
+                return result;
+            }
+            for (int i = userStart[u]; i < userStart[u + 1]; i++) {
+                int c = posClient[i];
+                result.putIfAbsent(clientIds[c], clientAum[c]);
+            }
+            return result;
+        }
+
+        /**
+         * Client display name for each of the user's clients keyed by client ID
+         */
+        public Map<Long, String> clientNames(Long userId) {
+            Map<Long, String> result = new HashMap<>();
+            Integer u = userIndex.get(userId);
+            if (u == null) {
+                return result;
+            }
+            for (int i = userStart[u]; i < userStart[u + 1]; i++) {
+                result.putIfAbsent(clientIds[posClient[i]], clientNames[posClient[i]]);
+            }
+            return result;
+        }
+
+        public Map<String, Double> aumByAssetClass(Long userId) {
+            return sliceBy(userId, posAssetClass, assetClassNames);
+        }
+
+        public Map<String, Double> aumByAmc(Long userId) {
+            return sliceBy(userId, posAmc, amcNames);
+        }
+
+        /**
+         * Visit the AUM of every (client, asset class) pair the client holds
+         */
+        public void forEachClientAssetClass(ClientAssetClassVisitor visitor) {
+            double[] totals = new double[assetClassNames.length];
+            boolean[] seen = new boolean[assetClassNames.length];
+            int i = 0;
+            while (i < positions) {
+                int c = posClient[i];
+                int end = i;
+                while (end < positions && posClient[end] == c) {
+                    totals[posAssetClass[end]] += value[end];
+                    seen[posAssetClass[end]] = true;
+                    end++;
+                }
+                for (int k = 0; k < assetClassNames.length; k++) {
+                    if (seen[k]) {
+                        visitor.visit(userIds[clientUser[c]], clientIds[c], assetClassNames[k], totals[k]);
+                        totals[k] = 0.0;
+                        seen[k] = false;
+                    }
+                }
+                i = end;
+            }
+        }
+
+        private Map<String, Double> sliceBy(Long userId, int[] dimension, String[] names) {
+            Map<String, Double> result = new HashMap<>();
+            Integer u = userIndex.get(userId);
+            if (u == null) {
+                return result;
+            }
+            double[] totals = new double[names.length];
+            boolean[] seen = new boolean[names.length];
+            for (int i = userStart[u]; i < userStart[u + 1]; i++) {
+                totals[dimension[i]] += value[i];
+                seen[dimension[i]] = true;
+            }
+            for (int k = 0; k < names.length; k++) {
+                if (seen[k]) {
+                    result.put(names[k], totals[k]);
+                }
+            }
+            return result;
+        }
+    }
+
+    @FunctionalInterface
+    public interface ClientAssetClassVisitor {
+        void visit(long userId, long clientId, String assetClass, double aum);
+    }
+
+    /**
+     * String interning to dense int codes
+     */
+    private static final class Dictionary {
+        private final Map<String, Integer> codes = new HashMap<>();
+        private final List<String> names = new ArrayList<>();
+
+        int index(String name) {
+            Integer code = codes.get(name);
+            if (code == null) {
+                code = names.size();
+                codes.put(name, code);
+                names.add(name);
+            }
+            return code;
+        }
+
+        String[] names() {
+            return names.toArray(new String[0]);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.wtplatform.backend.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+/**
+ * One-off AUM snapshot backfill, run by operations rather than over HTTP: it rewrites
+ * firm-wide snapshots for up to {@code aum.snapshot.backfill-max-days} days, which is
+ * neither something an API user should trigger nor work for a request thread.
+ *
+ * <pre>
+ * java -jar backend.jar --spring.main.web-application-type=none \
+ *     --aum.snapshot.backfill.from=2024-04-01 --aum.snapshot.backfill.to=2025-03-31
+ * </pre>
+ *
+ * {@code to} defaults to today. The application exits once the backfill is done, with
+ * status 1 if it failed.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "aum.snapshot.backfill", name = "from")
+public class AumSnapshotBackfillRunner implements ApplicationRunner {
+
+    private final AumSnapshotService aumSnapshotService;
+    private final ConfigurableApplicationContext context;
+
+    @Value("${aum.snapshot.backfill.from}")
+    private String from;
+
+    @Value("${aum.snapshot.backfill.to:}")
+    private String to;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        int exitCode = 0;
+        try {
+            LocalDate end = to.isBlank() ? LocalDate.now() : LocalDate.parse(to);
+            int days = aumSnapshotService.backfill(LocalDate.parse(from), end);
+            log.info("[AUM-SNAPSHOT] Backfill wrote {} days", days);
+        } catch (Exception e) {
+            log.error("[AUM-SNAPSHOT] Backfill from {} to {} failed: {}", from, to, e.getMessage(), e);
+            exitCode = 1;
+        }
+        int status = exitCode;
+        System.exit(SpringApplication.exit(context, () -> status));
+    }
+}
@@ -0,0 +1,117 @@
+package com.wtplatform.backend.service;
+
+import com.wtplatform.backend.model.AumSnapshot;
+import com.wtplatform.backend.repository.AumSnapshotRepository;
+import com.wtplatform.backend.repository.TransactionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes the daily AUM snapshots that back the AUM trend. Each run values the firm's
+ * holdings as of one date with {@link AumEngine} and replaces that date's rows.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AumSnapshotService {
+
+    private final TransactionRepository transactionRepository;
+    private final AumSnapshotRepository snapshotRepository;
+    private final AumEngine aumEngine;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${aum.snapshot.backfill-max-days:731}")
+    private int backfillMaxDays;
+
+    private volatile LocalDateTime lastWrittenAt;
+
+    /**
+     * When snapshot rows were last written by this instance, or null if not since startup
+     */
+    public LocalDateTime getLastWrittenAt() {
+        return lastWrittenAt;
+    }
+
+    /**
+     * Snapshot today's AUM once the nightly NAV import has committed
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onNavImportCompleted(NavImportCompletedEvent event) {
+        log.info("[AUM-SNAPSHOT] NAV import completed ({} NAVs up to {}), writing snapshot",
+            event.navCount(), event.navDate());
+        try {
+            snapshot(LocalDate.now());
+            eventPublisher.publishEvent(DashboardChangedEvent.forAllUsers(DashboardChangedEvent.Topic.AUM));
+        } catch (Exception e) {
+            log.error("[AUM-SNAPSHOT] Snapshot after NAV import failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Replace the snapshot rows of one date
+     *
+     * @return the number of rows written
+     */
+    public int snapshot(LocalDate date) {
+        // Explicit transaction: also called per day from backfill() within this bean
+        Integer written = transactionTemplate.execute(status -> {
+            AumEngine.Book book = aumEngine.build(transactionRepository.findHoldingsForValuation(date));
+            List<AumSnapshot> rows = new ArrayList<>();
+            book.forEachClientAssetClass((userId, clientId, assetClass, aum) -> rows.add(AumSnapshot.builder()
+                .snapshotDate(date)
+                .userId(userId)
+                .clientId(clientId)
+                .assetClass(assetClass)
+                .aum(BigDecimal.valueOf(aum).setScale(2, RoundingMode.HALF_UP))
+                .build()));
+            int removed = snapshotRepository.deleteBySnapshotDate(date);
+            snapshotRepository.saveAll(rows);
+            log.info("[AUM-SNAPSHOT] {}: wrote {} rows (replaced {}), firm AUM {}",
+                date, rows.size(), removed, book.getTotalAum());
+            return rows.size();
+        });
+        lastWrittenAt = LocalDateTime.now();
+        return written != null ? written : 0;
+    }
+
+    /**
+     * Rebuild snapshots for every day in [from, to] from nav_history.
+     * Each day is committed on its own so a failure leaves earlier days in place.
+     *
+     * @return the number of days written
+     */
+    public int backfill(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("Backfill start date must not be after end date");
+        }
+        if (to.isAfter(LocalDate.now())) {
+            throw new IllegalArgumentException("Cannot snapshot future dates");
+        }
+        long days = ChronoUnit.DAYS.between(from, to) + 1;
+        if (days > backfillMaxDays) {
+            throw new IllegalArgumentException("Backfill is limited to " + backfillMaxDays + " days");
+        }
+        log.info("[AUM-SNAPSHOT] Backfilling {} days from {} to {}", days, from, to);
+        int count = 0;
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            snapshot(date);
+            count++;
+        }
+        return count;
+    }
+}
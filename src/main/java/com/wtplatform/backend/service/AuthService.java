@@ -2,10 +2,14 @@ package com.wtplatform.backend.service;
 
 import com.wtplatform.backend.model.User;
 import com.wtplatform.backend.repository.UserRepository;
+import com.wtplatform.backend.security.AuthRateLimiter;
+import com.wtplatform.backend.security.AuthenticatedUserCache;
 import com.wtplatform.backend.security.JwtUtils;
 import com.wtplatform.backend.dto.AuthResponse;
+import com.wtplatform.backend.exception.TooManyRequestsException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.InternalAuthenticationServiceException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -27,16 +31,20 @@ public class AuthService {
     @Autowired
     private JwtUtils jwtUtils;
 
+    @Autowired
+    private AuthenticatedUserCache userCache;
+
+    @Autowired
+    private AuthRateLimiter authRateLimiter;
+
     public String authenticateUser(String email, String password) {
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(email, password));
+        Authentication authentication = authenticate(email, password);
         SecurityContextHolder.getContext().setAuthentication(authentication);
         return jwtUtils.generateToken((User) authentication.getPrincipal());
     }
 
     public AuthResponse authenticateUserWithRole(String email, String password) {
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(email, password));
+        Authentication authentication = authenticate(email, password);
         SecurityContextHolder.getContext().setAuthentication(authentication);
         
         User user = (User) authentication.getPrincipal();
@@ -45,6 +53,20 @@ public class AuthService {
         return new AuthResponse(token, user.getRole());
     }
 
+    private Authentication authenticate(String email, String password) {
+        authRateLimiter.acquireForAccount(email);
+        try {
+            return authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(email, password));
+        } catch (InternalAuthenticationServiceException e) {
+            // The provider wraps whatever escapes its user lookup: a full hashing pool is
+            // still a 429, not a failed sign-in
+            if (e.getCause() instanceof TooManyRequestsException tooMany) {
+                throw tooMany;
+            }
+            throw e;
+        }
+    }
+
     public User registerUser(String email, String password) {
         if (userRepository.existsByEmail(email)) {
             throw new RuntimeException("Email is already in use!");
@@ -53,7 +75,10 @@ public class AuthService {
         User user = new User();
         user.setEmail(email);
         user.setPassword(passwordEncoder.encode(password));
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        // Drop a cached "no such account" for this email
+        userCache.evict(email);
+        return saved;
     }
 
     public User registerUser(String email, String password, String role) {
@@ -69,7 +94,10 @@ public class AuthService {
         String normalizedRole = validateAndNormalizeRole(role);
         user.setRole(normalizedRole);
         
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        // Drop a cached "no such account" for this email
+        userCache.evict(email);
+        return saved;
     }
     
     private String validateAndNormalizeRole(String role) {
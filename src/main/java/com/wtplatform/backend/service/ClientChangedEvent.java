@@ -0,0 +1,16 @@
+package com.wtplatform.backend.service;
+
+import com.wtplatform.backend.model.Client;
+
+/**
+ * A client was created, edited, activated or deactivated. Carries the searchable fields as
+ * committed so listeners need not reload the client. Consumed by {@link ClientTypeaheadIndex}.
+ */
+public record ClientChangedEvent(Long userId, Long clientId, String name, String pan, String email,
+                                 String phone, boolean active) {
+
+    public static ClientChangedEvent of(Client client) {
+        return new ClientChangedEvent(client.getUser().getId(), client.getId(), client.getName(),
+            client.getPan(), client.getEmail(), client.getPhone(), client.isActive());
+    }
+}
@@ -0,0 +1,37 @@
+package com.wtplatform.backend.service;
+
+import com.wtplatform.backend.dto.ClientImportJobDTO;
+import com.wtplatform.backend.dto.ClientImportRowResultDTO;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Bulk client onboarding: imports a CSV or NDJSON file of clients as a background job
+ */
+public interface ClientImportService {
+
+    /**
+     * Start importing a file of clients for the current user
+     * 
+     * @param file CSV with a header row, or NDJSON with one client object per line
+     * @param format CSV or NDJSON; when null, taken from the file extension
+     * @return the queued job
+     */
+    ClientImportJobDTO startImport(MultipartFile file, String format) throws IOException;
+
+    /**
+     * Progress of one of the current user's import jobs
+     */
+    Optional<ClientImportJobDTO> getJob(String jobId);
+
+    /**
+     * Row outcomes of one of the current user's import jobs, in file order
+     * 
+     * @param offset number of rows to skip
+     * @param limit maximum number of rows to return
+     */
+    Optional<List<ClientImportRowResultDTO>> getResults(String jobId, int offset, int limit);
+}
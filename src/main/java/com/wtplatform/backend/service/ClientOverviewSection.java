@@ -0,0 +1,36 @@
+package com.wtplatform.backend.service;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Optional parts of the client overview, selected with its {@code fields} parameter
+ */
+public enum ClientOverviewSection {
+    NOTES, TRANSACTIONS, STPS, BALANCES, HOLDINGS, DOCUMENTS;
+
+    /**
+     * Parse a comma-separated list of section names; null or blank selects every section
+     */
+    public static Set<ClientOverviewSection> parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return EnumSet.allOf(ClientOverviewSection.class);
+        }
+        Set<ClientOverviewSection> sections = EnumSet.noneOf(ClientOverviewSection.class);
+        for (String field : fields.split(",")) {
+            String name = field.trim().toUpperCase(Locale.ROOT);
+            if (name.isEmpty()) {
+                continue;
+            }
+            try {
+                sections.add(valueOf(name));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown overview field: " + field.trim()
+                        + ". Allowed: " + Arrays.toString(values()).toLowerCase(Locale.ROOT));
+            }
+        }
+        return sections;
+    }
+}
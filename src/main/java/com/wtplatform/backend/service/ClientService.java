@@ -1,7 +1,12 @@
 package com.wtplatform.backend.service;
 
 import com.wtplatform.backend.dto.ClientDTO;
+import com.wtplatform.backend.dto.ClientScrollDTO;
+import com.wtplatform.backend.dto.ClientSegmentDTO;
+import com.wtplatform.backend.dto.ClientSuggestionDTO;
 import com.wtplatform.backend.dto.ClientDocumentDTO;
+import com.wtplatform.backend.dto.ClientFilterDTO;
+import com.wtplatform.backend.dto.ClientOverviewDTO;
 import com.wtplatform.backend.dto.DocumentUploadResponse;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -10,14 +15,61 @@ import org.springframework.web.multipart.MultipartFile;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.util.List;
+import java.util.Set;
 
 public interface ClientService {
     ClientDTO createClient(ClientDTO clientDTO);
     ClientDTO updateClient(Long id, ClientDTO clientDTO);
     ClientDTO getClientById(Long id);
+
+    /**
+     * Everything the client profile shows, with ownership verified once and the sections
+     * loaded concurrently
+     * 
+     * @param id the client ID
+     * @param sections the sections to include besides the client itself
+     * @param transactionLimit how many recent transactions to include
+     * @return the client overview
+     */
+    ClientOverviewDTO getClientOverview(Long id, Set<ClientOverviewSection> sections, int transactionLimit);
     ClientDTO getClientByPan(String pan);
     List<ClientDTO> getAllClients();
     List<ClientDTO> searchClients(String searchTerm);
+
+    /**
+     * Search the current user's clients by name, PAN, email or phone, best matches first.
+     * A complete PAN or phone number returns only the exact match.
+     * 
+     * @param searchTerm the search term
+     * @param limit maximum number of results, capped at 50
+     * @return matching clients, name prefix matches first
+     */
+    List<ClientDTO> searchClients(String searchTerm, int limit);
+
+    /**
+     * Typeahead suggestions among the current user's active clients, served from memory
+     * 
+     * @param query the text typed so far; every word must start a name word, PAN, email or phone
+     * @param limit maximum number of suggestions, capped at 50
+     * @return suggestions, name matches first
+     */
+    List<ClientSuggestionDTO> suggestClients(String query, int limit);
+
+    /**
+     * Count and AUM of the current user's active clients per risk profile and investment horizon
+     * 
+     * @return one row per segment that has active clients
+     */
+    List<ClientSegmentDTO> getClientSegments();
+
+    /**
+     * Get a page of the current user's clients matching every given criterion, in one query
+     * 
+     * @param filter the criteria; null criteria are ignored
+     * @param pageable the pagination information; sortable by name, createdAt or aum
+     * @return a page of matching clients
+     */
+    Page<ClientDTO> filterClients(ClientFilterDTO filter, Pageable pageable);
     List<ClientDTO> getClientsByRiskProfileAndHorizon(String riskProfile, String investmentHorizon);
     void deactivateClient(Long id);
     void activateClient(Long id);
@@ -83,6 +135,21 @@ public interface ClientService {
      * @return a page of clients for the current user
      */
     Page<ClientDTO> getPagedClients(Pageable pageable, String searchTerm);
+
+    /**
+     * Get the next keyset-paged slice of clients for the current authenticated user.
+     * Unlike offset pages, the cost of a slice does not grow with how deep it is.
+     * 
+     * @param searchTerm optional search term
+     * @param sort sort field: name, createdAt or aum
+     * @param direction asc or desc
+     * @param size maximum number of clients in the slice
+     * @param cursor the nextCursor of the previous slice, or null for the first
+     * @param includeCount whether to also count all matching clients
+     * @return the slice and the cursor of the next one
+     */
+    ClientScrollDTO scrollClients(String searchTerm, String sort, String direction, int size,
+                                  String cursor, boolean includeCount);
     
     /**
      * Import clients from a CSV file
@@ -0,0 +1,47 @@
+package com.wtplatform.backend.service;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.function.Function;
+
+/**
+ * Client list sort keys accepted from the API. Each is backed by a (user_id, column, id)
+ * index, so sorted pages and keyset continuation are index range scans.
+ */
+public enum ClientSortField {
+    NAME("name", "name", value -> value),
+    CREATED_AT("createdAt", "createdAt", LocalDateTime::parse),
+    AUM("aum", "aum", Double::valueOf);
+
+    private final String parameter;
+    private final String property;
+    private final Function<String, Object> parser;
+
+    ClientSortField(String parameter, String property, Function<String, Object> parser) {
+        this.parameter = parameter;
+        this.property = property;
+        this.parser = parser;
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    /**
+     * Parse a cursor key value written with {@code String.valueOf}
+     */
+    public Object parseKey(String value) {
+        return parser.apply(value);
+    }
+
+    public static ClientSortField fromParameter(String parameter) {
+        if (parameter == null || parameter.isBlank()) {
+            return NAME;
+        }
+        return Arrays.stream(values())
+                .filter(field -> field.parameter.equalsIgnoreCase(parameter.trim()))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unsupported sort field: " + parameter
+                        + ". Allowed: name, createdAt, aum"));
+    }
+}
@@ -0,0 +1,418 @@
+package com.wtplatform.backend.service;
+
+import com.wtplatform.backend.dto.ClientSuggestionDTO;
+import com.wtplatform.backend.model.Client;
+import com.wtplatform.backend.repository.ClientRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory typeahead over each active advisor's active clients, so autocomplete does not
+ * query the database per keystroke.
+ *
+ * An advisor's index is loaded on their first suggestion and then kept current from
+ * {@link ClientChangedEvent}s. It is a sorted array of tokens (name words, PAN, email, phone
+ * digits), so a prefix is one binary search and a scan of the matching range. Readers use an
+ * immutable snapshot; a change builds the next one by merging, without reloading.
+ *
+ * Memory is bounded by evicting advisors idle for {@code typeahead.idle-minutes} and, beyond
+ * {@code typeahead.max-advisors}, the least recently used.
+ */
+@Slf4j
+@Component
+public class ClientTypeaheadIndex {
+
+    static final int RANK_NAME_START = 0;
+    static final int RANK_NAME_WORD = 1;
+    static final int RANK_OTHER = 2;
+
+    private final ClientRepository clientRepository;
+    private final Map<Long, AdvisorIndex> advisors = new ConcurrentHashMap<>();
+
+    @Value("${typeahead.max-advisors:500}")
+    private int maxAdvisors = 500;
+
+    @Value("${typeahead.idle-minutes:30}")
+    private long idleMinutes = 30;
+
+    public ClientTypeaheadIndex(ClientRepository clientRepository) {
+        this.clientRepository = clientRepository;
+    }
+
+    /**
+     * Active clients of the advisor with a token starting with each word of the query:
+     * name starts first, then other name words, then PAN, email or phone.
+     */
+    public List<ClientSuggestionDTO> suggest(Long userId, String query, int limit) {
+        String[] terms = queryTerms(query);
+        if (terms.length == 0 || limit <= 0) {
+            return List.of();
+        }
+        AdvisorIndex index = advisors.get(userId);
+        if (index == null) {
+            index = load(userId);
+        }
+        index.lastAccessNanos = System.nanoTime();
+        return index.await().suggest(terms, limit);
+    }
+
+    /**
+     * Apply a committed change to a loaded advisor. Advisors not loaded read it from the
+     * database when they are; a change that arrives while the advisor is loading is queued
+     * and applied once the load completes rather than lost.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onClientChanged(ClientChangedEvent event) {
+        AdvisorIndex index = advisors.get(event.userId());
+        if (index != null) {
+            index.apply(event);
+        }
+    }
+
+    /**
+     * Drop an advisor's index so the next suggestion reloads it, e.g. after a bulk import
+     * that would otherwise be applied one client at a time
+     */
+    public void invalidate(Long userId) {
+        advisors.remove(userId);
+    }
+
+    @Scheduled(fixedDelayString = "${typeahead.evict-interval-ms:60000}")
+    public void evictIdle() {
+        long cutoff = System.nanoTime() - TimeUnit.MINUTES.toNanos(idleMinutes);
+        advisors.entrySet().removeIf(e -> e.getValue().lastAccessNanos - cutoff < 0);
+        evictLeastRecentlyUsed();
+    }
+
+    int loadedAdvisors() {
+        return advisors.size();
+    }
+
+    /**
+     * Register a loading placeholder for the advisor and read their clients outside the map,
+     * so the query does not hold a map bin lock; concurrent callers wait on the placeholder
+     */
+    private AdvisorIndex load(Long userId) {
+        AdvisorIndex index = new AdvisorIndex();
+        AdvisorIndex existing = advisors.putIfAbsent(userId, index);
+        if (existing != null) {
+            return existing;
+        }
+        try {
+            List<Entry> entries = new ArrayList<>();
+            for (Client client : clientRepository.findByUserId(userId)) {
+                if (client.isActive()) {
+                    entries.add(Entry.of(client.getId(), client.getName(), client.getPan(),
+                        client.getEmail(), client.getPhone()));
+                }
+            }
+            log.debug("[TYPEAHEAD] Loaded {} clients of user {}", entries.size(), userId);
+            index.loaded(Snapshot.of(entries));
+        } catch (RuntimeException e) {
+            advisors.remove(userId, index);
+            index.failed(e);
+            throw e;
+        }
+        evictLeastRecentlyUsed();
+        return index;
+    }
+
+    private void evictLeastRecentlyUsed() {
+        while (advisors.size() > maxAdvisors) {
+            Long oldest = null;
+            long oldestAccess = 0;
+            for (Map.Entry<Long, AdvisorIndex> e : advisors.entrySet()) {
+                if (oldest == null || e.getValue().lastAccessNanos - oldestAccess < 0) {
+                    oldest = e.getKey();
+                    oldestAccess = e.getValue().lastAccessNanos;
+                }
+            }
+            if (oldest == null) {
+                return;
+            }
+            advisors.remove(oldest);
+        }
+    }
+
+    static String[] queryTerms(String query) {
+        if (query == null || query.isBlank()) {
+            return new String[0];
+        }
+        return query.trim().toLowerCase(Locale.ROOT).split("\\s+");
+    }
+
+    /**
+     * One advisor's index; until its clients are loaded, readers wait and changes are queued
+     */
+    private static final class AdvisorIndex {
+        private final CompletableFuture<Snapshot> ready = new CompletableFuture<>();
+        private List<ClientChangedEvent> pending = new ArrayList<>();
+        private volatile Snapshot snapshot;
+        volatile long lastAccessNanos = System.nanoTime();
+
+        Snapshot await() {
+            Snapshot current = snapshot;
+            if (current != null) {
+                return current;
+            }
+            try {
+                return ready.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+
+        synchronized void apply(ClientChangedEvent event) {
+            if (pending != null) {
+                pending.add(event);
+            } else {
+                snapshot = applyTo(snapshot, event);
+            }
+        }
+
+        synchronized void loaded(Snapshot loaded) {
+            Snapshot current = loaded;
+            for (ClientChangedEvent event : pending) {
+                current = applyTo(current, event);
+            }
+            pending = null;
+            snapshot = current;
+            ready.complete(current);
+        }
+
+        void failed(RuntimeException e) {
+            ready.completeExceptionally(e);
+        }
+
+        private static Snapshot applyTo(Snapshot snapshot, ClientChangedEvent event) {
+            Entry entry = event.active()
+                ? Entry.of(event.clientId(), event.name(), event.pan(), event.email(), event.phone())
+                : null;
+            return snapshot.with(event.clientId(), entry);
+        }
+    }
+
+    /**
+     * One searchable client with its tokens and the rank of each
+     */
+    record Entry(Long id, String name, String pan, String email, String phone, String[] tokens, byte[] ranks) {
+
+        static Entry of(Long id, String name, String pan, String email, String phone) {
+            Map<String, Integer> tokens = new HashMap<>();
+            if (name != null) {
+                String[] words = name.trim().toLowerCase(Locale.ROOT).split("\\s+");
+                for (int i = 0; i < words.length; i++) {
+                    addToken(tokens, words[i], i == 0 ? RANK_NAME_START : RANK_NAME_WORD);
+                    // "mary-jane" is also found by "jane"
+                    for (String part : words[i].split("[^\\p{L}\\p{N}]+")) {
+                        addToken(tokens, part, RANK_NAME_WORD);
+                    }
+                }
+            }
+            if (pan != null) {
+                addToken(tokens, pan.toLowerCase(Locale.ROOT), RANK_OTHER);
+            }
+            if (email != null) {
+                addToken(tokens, email.toLowerCase(Locale.ROOT), RANK_OTHER);
+            }
+            if (phone != null) {
+                String digits = phone.replaceAll("[^0-9]", "");
+                addToken(tokens, digits, RANK_OTHER);
+                // Without the country code
+                if (digits.length() > 10) {
+                    addToken(tokens, digits.substring(digits.length() - 10), RANK_OTHER);
+                }
+            }
+            String[] tokenArray = new String[tokens.size()];
+            byte[] rankArray = new byte[tokens.size()];
+            int i = 0;
+            for (Map.Entry<String, Integer> token : tokens.entrySet()) {
+                tokenArray[i] = token.getKey();
+                rankArray[i] = token.getValue().byteValue();
+                i++;
+            }
+            return new Entry(id, name, pan, email, phone, tokenArray, rankArray);
+        }
+
+        private static void addToken(Map<String, Integer> tokens, String token, int rank) {
+            if (!token.isEmpty()) {
+                tokens.merge(token, rank, Math::min);
+            }
+        }
+
+        /**
+         * Best rank of a token starting with the term, or -1 if none does
+         */
+        int rankOf(String term) {
+            int best = -1;
+            for (int i = 0; i < tokens.length; i++) {
+                if (tokens[i].startsWith(term) && (best < 0 || ranks[i] < best)) {
+                    best = ranks[i];
+                }
+            }
+            return best;
+        }
+
+        ClientSuggestionDTO toSuggestion() {
+            return ClientSuggestionDTO.builder().id(id).name(name).pan(pan).email(email).phone(phone).build();
+        }
+    }
+
+    /**
+     * Immutable index of one advisor: every (token, client) posting sorted by token
+     */
+    static final class Snapshot {
+        private final Map<Long, Entry> entries;
+        private final String[] tokens;
+        private final Entry[] postings;
+
+        private Snapshot(Map<Long, Entry> entries, String[] tokens, Entry[] postings) {
+            this.entries = entries;
+            this.tokens = tokens;
+            this.postings = postings;
+        }
+
+        static Snapshot of(List<Entry> clients) {
+            Map<Long, Entry> entries = new HashMap<>();
+            List<Posting> all = new ArrayList<>();
+            for (Entry entry : clients) {
+                entries.put(entry.id(), entry);
+                addPostings(all, entry);
+            }
+            all.sort(Comparator.comparing(Posting::token));
+            String[] tokens = new String[all.size()];
+            Entry[] postings = new Entry[all.size()];
+            for (int i = 0; i < tokens.length; i++) {
+                tokens[i] = all.get(i).token();
+                postings[i] = all.get(i).entry();
+            }
+            return new Snapshot(entries, tokens, postings);
+        }
+
+        /**
+         * The next snapshot with one client replaced, added or (entry null) removed
+         */
+        Snapshot with(Long clientId, Entry entry) {
+            Entry previous = entries.get(clientId);
+            if (previous == null && entry == null) {
+                return this;
+            }
+            Map<Long, Entry> nextEntries = new HashMap<>(entries);
+            List<Posting> added = new ArrayList<>();
+            if (entry != null) {
+                nextEntries.put(clientId, entry);
+                addPostings(added, entry);
+                added.sort(Comparator.comparing(Posting::token));
+            } else {
+                nextEntries.remove(clientId);
+            }
+            int removed = previous != null ? previous.tokens().length : 0;
+            int size = tokens.length - removed + added.size();
+            String[] nextTokens = new String[size];
+            Entry[] nextPostings = new Entry[size];
+
+            // Merge the kept postings with the new client's, both already sorted
+            int out = 0;
+            int a = 0;
+            for (int i = 0; i < tokens.length; i++) {
+                if (postings[i] == previous) {
+                    continue;
+                }
+                while (a < added.size() && added.get(a).token().compareTo(tokens[i]) < 0) {
+                    nextTokens[out] = added.get(a).token();
+                    nextPostings[out++] = entry;
+                    a++;
+                }
+                nextTokens[out] = tokens[i];
+                nextPostings[out++] = postings[i];
+            }
+            while (a < added.size()) {
+                nextTokens[out] = added.get(a).token();
+                nextPostings[out++] = entry;
+                a++;
+            }
+            return new Snapshot(nextEntries, nextTokens, nextPostings);
+        }
+
+        List<ClientSuggestionDTO> suggest(String[] terms, int limit) {
+            // Scan the range of the longest term, the most selective, and check the others per client
+            String scanTerm = terms[0];
+            for (String term : terms) {
+                if (term.length() > scanTerm.length()) {
+                    scanTerm = term;
+                }
+            }
+            int from = lowerBound(scanTerm);
+            Set<Entry> candidates = new LinkedHashSet<>();
+            for (int i = from; i < tokens.length && tokens[i].startsWith(scanTerm); i++) {
+                candidates.add(postings[i]);
+            }
+
+            List<Ranked> matches = new ArrayList<>();
+            for (Entry candidate : candidates) {
+                int rank = 0;
+                for (String term : terms) {
+                    int termRank = candidate.rankOf(term);
+                    if (termRank < 0) {
+                        rank = -1;
+                        break;
+                    }
+                    rank += termRank;
+                }
+                if (rank >= 0) {
+                    matches.add(new Ranked(candidate, rank));
+                }
+            }
+            matches.sort(Comparator.comparingInt(Ranked::rank)
+                .thenComparing(r -> r.entry().name(), Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER))
+                .thenComparing(r -> r.entry().id()));
+            return matches.stream().limit(limit).map(r -> r.entry().toSuggestion()).toList();
+        }
+
+        int size() {
+            return entries.size();
+        }
+
+        private int lowerBound(String term) {
+            int index = Arrays.binarySearch(tokens, term);
+            if (index < 0) {
+                return -index - 1;
+            }
+            // Step back over equal tokens of other clients
+            while (index > 0 && tokens[index - 1].equals(term)) {
+                index--;
+            }
+            return index;
+        }
+
+        private static void addPostings(List<Posting> postings, Entry entry) {
+            for (String token : entry.tokens()) {
+                postings.add(new Posting(token, entry));
+            }
+        }
+    }
+
+    private record Posting(String token, Entry entry) {
+    }
+
+    private record Ranked(Entry entry, int rank) {
+    }
+}
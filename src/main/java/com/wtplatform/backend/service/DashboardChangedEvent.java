@@ -0,0 +1,24 @@
+package com.wtplatform.backend.service;
+
+import java.util.Set;
+
+/**
+ * Something shown on a user's dashboard may have changed. Consumed by {@link DashboardPushService}.
+ *
+ * @param userId the affected user, or null when every user is affected (e.g. a NAV import)
+ * @param topics which dashboard sections to refresh
+ */
+public record DashboardChangedEvent(Long userId, Set<Topic> topics) {
+
+    public enum Topic {
+        DASHBOARD, STP, AUM
+    }
+
+    public static DashboardChangedEvent forUser(Long userId, Topic... topics) {
+        return new DashboardChangedEvent(userId, Set.of(topics));
+    }
+
+    public static DashboardChangedEvent forAllUsers(Topic... topics) {
+        return new DashboardChangedEvent(null, Set.of(topics));
+    }
+}
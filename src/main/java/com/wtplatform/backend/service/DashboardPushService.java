@@ -0,0 +1,281 @@
+package com.wtplatform.backend.service;
+
+import com.wtplatform.backend.model.Transaction;
+import com.wtplatform.backend.repository.ClientRepository;
+import com.wtplatform.backend.repository.StpBalanceWarningRepository;
+import com.wtplatform.backend.repository.TransactionRepository;
+import com.wtplatform.backend.service.DashboardChangedEvent.Topic;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Server-sent dashboard updates, replacing client-side polling of the dashboard, STP and
+ * AUM summaries.
+ *
+ * Change events only mark a subscriber's topics dirty. A periodic flush reads the dirty
+ * topics once per user and sends each subscriber the fields that differ from what it last
+ * received. A subscriber that is still writing a previous event is skipped, and its
+ * changes keep accumulating in the dirty mask, so a slow client receives one coalesced
+ * delta when it catches up instead of a growing queue.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DashboardPushService implements DisposableBean {
+
+    private static final int RECENT_TRANSACTIONS_LIMIT = 4;
+
+    private final ClientRepository clientRepository;
+    private final TransactionRepository transactionRepository;
+    private final StpBalanceWarningRepository stpBalanceWarningRepository;
+    private final AumEngine aumEngine;
+    private final AumSnapshotService aumSnapshotService;
+
+    @Value("${push.dashboard.max-subscriptions-per-user:5}")
+    private int maxSubscriptionsPerUser;
+
+    @Value("${push.dashboard.timeout-ms:1800000}")
+    private long emitterTimeoutMs;
+
+    private final Map<Long, List<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final ExecutorService sender =
+        Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("dashboard-push-", 0).factory());
+
+    /**
+     * Open a stream for a user. The first flush sends the full state of the requested topics.
+     * Beyond the per-user limit, the oldest stream of that user is closed.
+     */
+    public SseEmitter subscribe(Long userId, Set<Topic> topics) {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        Subscriber subscriber = new Subscriber(userId, emitter, maskOf(topics));
+        List<Subscriber> evicted = new ArrayList<>();
+        subscribers.compute(userId, (id, list) -> {
+            List<Subscriber> current = list != null ? list : new CopyOnWriteArrayList<>();
+            while (current.size() >= maxSubscriptionsPerUser) {
+                evicted.add(current.remove(0));
+            }
+            current.add(subscriber);
+            return current;
+        });
+        evicted.forEach(old -> old.emitter.complete());
+
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(e -> remove(subscriber));
+        subscriber.pending.set(subscriber.topicMask);
+        log.debug("[PUSH] User {} subscribed to {}", userId, topics);
+        return emitter;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onDashboardChanged(DashboardChangedEvent event) {
+        int mask = maskOf(event.topics());
+        if (event.userId() == null) {
+            subscribers.values().forEach(list -> list.forEach(s -> s.markDirty(mask)));
+        } else {
+            List<Subscriber> list = subscribers.get(event.userId());
+            if (list != null) {
+                list.forEach(s -> s.markDirty(mask));
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${push.dashboard.flush-interval-ms:1000}")
+    public void flush() {
+        subscribers.forEach((userId, list) -> {
+            List<Subscriber> claimed = new ArrayList<>();
+            for (Subscriber s : list) {
+                if (s.pending.get() != 0 && s.busy.compareAndSet(false, true)) {
+                    claimed.add(s);
+                }
+            }
+            if (!claimed.isEmpty()) {
+                sender.execute(() -> push(userId, claimed));
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${push.dashboard.heartbeat-ms:25000}")
+    public void heartbeat() {
+        subscribers.values().forEach(list -> list.forEach(s -> {
+            if (s.busy.compareAndSet(false, true)) {
+                sender.execute(() -> {
+                    try {
+                        s.emitter.send(SseEmitter.event().comment("ping"));
+                    } catch (IOException | IllegalStateException e) {
+                        remove(s);
+                    } finally {
+                        s.busy.set(false);
+                    }
+                });
+            }
+        }));
+    }
+
+    private void push(Long userId, List<Subscriber> claimed) {
+        int[] masks = new int[claimed.size()];
+        int union = 0;
+        for (int i = 0; i < masks.length; i++) {
+            masks[i] = claimed.get(i).pending.getAndSet(0);
+            union |= masks[i];
+        }
+
+        Map<Topic, Map<String, Object>> state;
+        try {
+            state = readState(userId, union);
+        } catch (Exception e) {
+            log.warn("[PUSH] Could not read dashboard state for user {}: {}", userId, e.getMessage());
+            for (int i = 0; i < masks.length; i++) {
+                claimed.get(i).markDirty(masks[i]);
+                claimed.get(i).busy.set(false);
+            }
+            return;
+        }
+
+        for (int i = 0; i < masks.length; i++) {
+            Subscriber s = claimed.get(i);
+            try {
+                Map<String, Map<String, Object>> delta = s.diff(state, masks[i]);
+                if (!delta.isEmpty()) {
+                    s.emitter.send(SseEmitter.event().name("delta").data(delta, MediaType.APPLICATION_JSON));
+                }
+            } catch (IOException | IllegalStateException e) {
+                log.debug("[PUSH] Dropping stream of user {}: {}", userId, e.getMessage());
+                remove(s);
+            } finally {
+                s.busy.set(false);
+            }
+        }
+    }
+
+    private Map<Topic, Map<String, Object>> readState(Long userId, int mask) {
+        Map<Topic, Map<String, Object>> state = new EnumMap<>(Topic.class);
+        AumEngine.Book book = (mask & (bit(Topic.DASHBOARD) | bit(Topic.AUM))) != 0 ? aumEngine.current() : null;
+        if ((mask & bit(Topic.DASHBOARD)) != 0) {
+            Map<String, Object> dashboard = new LinkedHashMap<>();
+            dashboard.put("clientCount", clientRepository.countByUserId(userId));
+            dashboard.put("activeClientCount", clientRepository.countByUserIdAndIsActive(userId, true));
+            dashboard.put("totalAum", book.userAum(userId));
+            // IDs only: a changed list tells the client to refetch /api/dashboard/stats
+            dashboard.put("recentTransactionIds", transactionRepository
+                .findRecentWithClientByUserId(userId, PageRequest.of(0, RECENT_TRANSACTIONS_LIMIT))
+                .stream().map(Transaction::getId).toList());
+            state.put(Topic.DASHBOARD, dashboard);
+        }
+        if ((mask & bit(Topic.STP)) != 0) {
+            LocalDate today = LocalDate.now();
+            Map<String, Object> stp = new LinkedHashMap<>();
+            stp.put("activeStps", transactionRepository.countActiveStpsByUserId(userId));
+            stp.put("executingToday", transactionRepository.countStpsExecutingToday(userId, today));
+            stp.put("expiringNext3Months",
+                transactionRepository.countStpsExpiringBetween(userId, today, today.plusMonths(3)));
+            stp.put("zeroBalanceCount", stpBalanceWarningRepository.countByUserId(userId));
+            state.put(Topic.STP, stp);
+        }
+        if ((mask & bit(Topic.AUM)) != 0) {
+            Map<String, Object> aum = new LinkedHashMap<>();
+            aum.put("totalAum", book.userAum(userId));
+            aum.put("contributingClients", book.contributingClients(userId));
+            aum.put("lastUpdated", book.getComputedAt());
+            // A new value tells the client to refetch /api/v1/aum/trend
+            aum.put("trendUpdatedAt", aumSnapshotService.getLastWrittenAt());
+            state.put(Topic.AUM, aum);
+        }
+        return state;
+    }
+
+    private void remove(Subscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.userId, (id, list) -> {
+            list.remove(subscriber);
+            return list.isEmpty() ? null : list;
+        });
+    }
+
+    @Override
+    public void destroy() {
+        subscribers.values().forEach(list -> list.forEach(s -> s.emitter.complete()));
+        subscribers.clear();
+        sender.shutdownNow();
+    }
+
+    private static int bit(Topic topic) {
+        return 1 << topic.ordinal();
+    }
+
+    private static int maskOf(Set<Topic> topics) {
+        int mask = 0;
+        for (Topic topic : topics) {
+            mask |= bit(topic);
+        }
+        return mask;
+    }
+
+    private static final class Subscriber {
+        final Long userId;
+        final SseEmitter emitter;
+        final int topicMask;
+        final AtomicInteger pending = new AtomicInteger();
+        final AtomicBoolean busy = new AtomicBoolean();
+        // Only touched by the sender thread holding busy
+        final Map<String, Object> lastSent = new HashMap<>();
+
+        Subscriber(Long userId, SseEmitter emitter, int topicMask) {
+            this.userId = userId;
+            this.emitter = emitter;
+            this.topicMask = topicMask;
+        }
+
+        void markDirty(int mask) {
+            int relevant = mask & topicMask;
+            if (relevant != 0) {
+                pending.getAndUpdate(p -> p | relevant);
+            }
+        }
+
+        /**
+         * Fields of the given topics whose value differs from what this subscriber last received
+         */
+        Map<String, Map<String, Object>> diff(Map<Topic, Map<String, Object>> state, int mask) {
+            Map<String, Map<String, Object>> delta = new LinkedHashMap<>();
+            state.forEach((topic, fields) -> {
+                if ((mask & bit(topic)) == 0) {
+                    return;
+                }
+                fields.forEach((field, value) -> {
+                    String key = topic.name() + '.' + field;
+                    if (!Objects.equals(lastSent.get(key), value)) {
+                        lastSent.put(key, value);
+                        delta.computeIfAbsent(topic.name().toLowerCase(), t -> new LinkedHashMap<>()).put(field, value);
+                    }
+                });
+            });
+            return delta;
+        }
+    }
+}
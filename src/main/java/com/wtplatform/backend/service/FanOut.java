@@ -0,0 +1,189 @@
+package com.wtplatform.backend.service;
+
+import com.wtplatform.backend.exception.FanOutTimeoutException;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs independent read-only sub-queries of a composite endpoint on virtual threads.
+ *
+ * <pre>
+ * try (FanOut.Scope scope = fanOut.open()) {
+ *     FanOut.Subtask&lt;Long&gt; count = scope.fork(() -&gt; repository.countByUserId(userId));
+ *     FanOut.Subtask&lt;List&lt;X&gt;&gt; rows = scope.fork(() -&gt; repository.findRecent(userId));
+ *     scope.join();
+ *     return new Dto(count.get(), rows.get());
+ * }
+ * </pre>
+ *
+ * Each subtask runs with the caller's {@link SecurityContext} and in its own read-only
+ * transaction: a transaction is bound to one thread, so the caller's cannot be shared and
+ * writes must not be forked. {@link Scope#join()} fails fast: the first failure or the
+ * scope deadline cancels (interrupts) every unfinished subtask, and closing the scope
+ * cancels anything still running, so no subtask outlives the request.
+ */
+@Component
+public class FanOut implements DisposableBean {
+
+    private final ExecutorService executor =
+        Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("fan-out-", 0).factory());
+    private final TransactionTemplate readOnlyTransaction;
+
+    @Value("${concurrency.fan-out.timeout-ms:5000}")
+    private long defaultTimeoutMs;
+
+    public FanOut(PlatformTransactionManager transactionManager) {
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Open a scope with the configured default timeout
+     */
+    public Scope open() {
+        return open(Duration.ofMillis(defaultTimeoutMs));
+    }
+
+    public Scope open(Duration timeout) {
+        return new Scope(timeout);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    public final class Scope implements AutoCloseable {
+        private final CompletionService<Object> completion = new ExecutorCompletionService<>(executor);
+        private final List<Future<?>> forks = new ArrayList<>();
+        private final SecurityContext securityContext = SecurityContextHolder.getContext();
+        private final Duration timeout;
+        private final long deadline;
+        private boolean joined;
+
+        private Scope(Duration timeout) {
+            this.timeout = timeout;
+            this.deadline = System.nanoTime() + timeout.toNanos();
+        }
+
+        public <T> Subtask<T> fork(Callable<T> task) {
+            return submit(() -> readOnlyTransaction.execute(status -> call(task)));
+        }
+
+        /**
+         * Fork a call to a remote service (e.g. S3) outside any transaction, so it does not
+         * hold a database connection while it waits
+         */
+        public <T> Subtask<T> forkRemote(Callable<T> task) {
+            return submit(task);
+        }
+
+        @SuppressWarnings("unchecked")
+        private <T> Subtask<T> submit(Callable<T> task) {
+            if (joined) {
+                throw new IllegalStateException("Cannot fork after join");
+            }
+            Future<T> future = (Future<T>) (Future<?>) completion.submit(() -> {
+                SecurityContextHolder.setContext(securityContext);
+                try {
+                    return task.call();
+                } finally {
+                    SecurityContextHolder.clearContext();
+                }
+            });
+            forks.add(future);
+            return new Subtask<>(future);
+        }
+
+        /**
+         * Wait for every subtask, rethrowing the first failure
+         *
+         * @throws FanOutTimeoutException if the subtasks do not all finish within the scope timeout
+         */
+        public void join() {
+            joined = true;
+            try {
+                for (int remaining = forks.size(); remaining > 0; remaining--) {
+                    Future<Object> done = completion.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (done == null) {
+                        cancelAll();
+                        throw new FanOutTimeoutException("Sub-queries did not complete within " + timeout.toMillis() + " ms");
+                    }
+                    done.get();
+                }
+            } catch (ExecutionException e) {
+                cancelAll();
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException runtime) {
+                    throw runtime;
+                }
+                if (cause instanceof Error error) {
+                    throw error;
+                }
+                throw new IllegalStateException(cause);
+            } catch (InterruptedException e) {
+                cancelAll();
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for sub-queries", e);
+            }
+        }
+
+        @Override
+        public void close() {
+            cancelAll();
+        }
+
+        private void cancelAll() {
+            for (Future<?> fork : forks) {
+                if (!fork.isDone()) {
+                    fork.cancel(true);
+                }
+            }
+        }
+    }
+
+    /**
+     * Handle to the result of a forked sub-query, readable after {@link Scope#join()}
+     */
+    public static final class Subtask<T> {
+        private final Future<T> future;
+
+        private Subtask(Future<T> future) {
+            this.future = future;
+        }
+
+        public T get() {
+            if (!future.isDone()) {
+                throw new IllegalStateException("Subtask read before Scope.join()");
+            }
+            return future.resultNow();
+        }
+    }
+
+    private static <T> T call(Callable<T> task) {
+        try {
+            return task.call();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
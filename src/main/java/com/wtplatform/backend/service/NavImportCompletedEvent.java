@@ -0,0 +1,15 @@
+package com.wtplatform.backend.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Published by {@link AmfiNavImporter} once a NAV file has been written to the database
+ *
+ * @param navDate latest NAV date seen in the file
+ * @param navCount number of NAV lines processed
+ * @param latestNavs latest NAV per scheme code in the file
+ */
+public record NavImportCompletedEvent(LocalDate navDate, int navCount, Map<String, BigDecimal> latestNavs) {
+}
@@ -0,0 +1,71 @@
+package com.wtplatform.backend.service;
+
+import com.wtplatform.backend.repository.StpBalanceWarningRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+/**
+ * Daily early-warning scan of STPs that are due soon but cannot be funded from their
+ * source fund. Results are materialised into stp_balance_warnings so the STP summary
+ * and warning list read a small table instead of re-joining the whole book per request.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StpBalanceScanner {
+
+    // The scan runs and counts days in IST, whatever the JVM's default zone
+    private static final String SCAN_ZONE = "Asia/Kolkata";
+
+    private final StpBalanceWarningRepository warningRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${stp.warning.lookahead-days:7}")
+    private int lookaheadDays;
+
+    @Scheduled(cron = "${stp.warning.scan-cron:0 0 6 * * *}", zone = SCAN_ZONE)
+    public void scheduledScan() {
+        log.info("[STP-SCAN] Scheduled STP balance scan started");
+        scan();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void scanOnStartup() {
+        try {
+            scan();
+        } catch (Exception e) {
+            log.warn("[STP-SCAN] Initial STP balance scan failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Replace the warnings table with the STPs at risk in the next lookahead window
+     *
+     * @return the number of at-risk STPs found
+     */
+    public int scan() {
+        LocalDate today = LocalDate.now(ZoneId.of(SCAN_ZONE));
+        LocalDate until = today.plusDays(lookaheadDays);
+        // Explicit transaction: scan() is also invoked from within this bean, bypassing the proxy
+        Integer inserted = transactionTemplate.execute(status -> {
+            int removed = warningRepository.deleteAllWarnings();
+            int found = warningRepository.insertAtRiskStps(today, until);
+            log.info("[STP-SCAN] {} STPs at risk between {} and {} (replaced {} previous warnings)",
+                found, today, until, removed);
+            return found;
+        });
+        eventPublisher.publishEvent(DashboardChangedEvent.forAllUsers(DashboardChangedEvent.Topic.STP));
+        return inserted != null ? inserted : 0;
+    }
+}
@@ -0,0 +1,545 @@
+package com.wtplatform.backend.service;
+
+import com.wtplatform.backend.dto.BalanceShortfallDTO;
+import com.wtplatform.backend.dto.FundCashFlowDTO;
+import com.wtplatform.backend.dto.StpProjectionDTO;
+import com.wtplatform.backend.projection.FundBalanceProjection;
+import com.wtplatform.backend.projection.RecurringScheduleProjection;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Expands recurring SIP/STP/SWP schedules into a forward cash-flow timeline.
+ *
+ * Schedules are held column-wise in primitive arrays and occurrences are generated
+ * with plain calendar arithmetic on epoch days, so no LocalDate or entity is created
+ * per occurrence. Flows are aggregated per fund and month, and every (client, fund)
+ * account is replayed against its opening fund_balance to find the first date its
+ * projected balance goes negative.
+ *
+ * Monthly and quarterly schedules keep the day of month of their start date, falling on the
+ * last day of shorter months: one started on the 31st runs on Feb 28 and again on Mar 31.
+ * {@link #plusMonthsOnDay} applies the same rule when an STP is executed.
+ */
+@Slf4j
+@Component
+public class StpProjectionEngine {
+
+    static final byte DAILY = 0;
+    static final byte WEEKLY = 1;
+    static final byte MONTHLY = 2;
+    static final byte QUARTERLY = 3;
+
+    private static final double NEGATIVE_EPSILON = 1e-6;
+
+    /**
+     * Project the given schedules and opening balances from {@code fromDate} for {@code months} months
+     */
+    public StpProjectionDTO project(List<RecurringScheduleProjection> rows,
+                                    List<FundBalanceProjection> balances,
+                                    LocalDate fromDate, int months) {
+        Schedules schedules = new Schedules(rows.size());
+        for (FundBalanceProjection balance : balances) {
+            if (balance.getBalance() != null) {
+                schedules.addOpeningBalance(balance.getClientId(), balance.getFundId(), balance.getBalance().doubleValue());
+            }
+        }
+        for (RecurringScheduleProjection row : rows) {
+            LocalDate anchor = row.getNextTransactionDate() != null ? row.getNextTransactionDate() : row.getStartDate();
+            LocalDate dayOf = row.getStartDate() != null ? row.getStartDate() : anchor;
+            BigDecimal amount = row.getAmount();
+            schedules.add(row.getClientId(), row.getType(), row.getFromFund(), row.getToFund(), row.getFundName(),
+                    amount != null ? amount.doubleValue() : 0.0, row.getFrequency(), anchor,
+                    dayOf != null ? dayOf.getDayOfMonth() : 0, row.getEndDate());
+        }
+        if (schedules.skipped() > 0) {
+            log.debug("Skipped {} schedules with missing anchor date, amount or unsupported frequency", schedules.skipped());
+        }
+        return project(schedules, fromDate, months);
+    }
+
+    /**
+     * Project pre-built schedules from {@code fromDate} (inclusive) to {@code fromDate + months} (exclusive)
+     */
+    public StpProjectionDTO project(Schedules s, LocalDate fromDate, int months) {
+        final int fromDay = (int) fromDate.toEpochDay();
+        final LocalDate toDate = fromDate.plusMonths(months);
+        final int toDay = (int) toDate.toEpochDay();
+        final int horizonDays = toDay - fromDay;
+
+        // Month bucket for every day offset in the horizon
+        final YearMonth firstMonth = YearMonth.from(fromDate);
+        final int firstMonthIdx = fromDate.getYear() * 12 + fromDate.getMonthValue() - 1;
+        final LocalDate lastDate = toDate.minusDays(1);
+        final int buckets = lastDate.getYear() * 12 + lastDate.getMonthValue() - 1 - firstMonthIdx + 1;
+        final int[] bucketOfDay = new int[horizonDays];
+        for (int b = 0, offset = 0; b < buckets; b++) {
+            YearMonth ym = firstMonth.plusMonths(b);
+            int nextStart = Math.min(horizonDays, epochDay(ym.getYear(), ym.getMonthValue(), 1) + ym.lengthOfMonth() - fromDay);
+            while (offset < nextStart) {
+                bucketOfDay[offset++] = b;
+            }
+        }
+
+        final int funds = s.fundNames.size();
+        final double[] debits = new double[funds * buckets];
+        final double[] credits = new double[funds * buckets];
+        final int[] counts = new int[funds * buckets];
+
+        // Only accounts that are debited can run dry; credits into other accounts need no replay
+        final boolean[] debited = new boolean[s.accountCount];
+        for (int i = 0; i < s.size; i++) {
+            if (s.debitAccount[i] >= 0) {
+                debited[s.debitAccount[i]] = true;
+            }
+        }
+
+        Events events = new Events(Math.max(16, s.size * Math.min(months, 12)));
+        long occurrences = 0;
+        final int lastDay = toDay - 1;
+
+        for (int i = 0; i < s.size; i++) {
+            final int last = Math.min(s.endDay[i], lastDay);
+            final double amount = s.amount[i];
+            final int debitFund = s.debitFund[i];
+            final int creditFund = s.creditFund[i];
+            final int debitAccount = s.debitAccount[i];
+            final int creditAccount = s.creditAccount[i] >= 0 && debited[s.creditAccount[i]] ? s.creditAccount[i] : -1;
+
+            switch (s.frequency[i]) {
+                case DAILY, WEEKLY -> {
+                    final int step = s.frequency[i] == DAILY ? 1 : 7;
+                    int day = s.anchorDay[i];
+                    if (day < fromDay) {
+                        day += ((fromDay - day + step - 1) / step) * step;
+                    }
+                    for (; day <= last; day += step) {
+                        int offset = day - fromDay;
+                        int cell = bucketOfDay[offset];
+                        if (debitFund >= 0) {
+                            debits[debitFund * buckets + cell] += amount;
+                            counts[debitFund * buckets + cell]++;
+                            events.add(debitAccount, offset, -amount);
+                        }
+                        if (creditFund >= 0) {
+                            credits[creditFund * buckets + cell] += amount;
+                            counts[creditFund * buckets + cell]++;
+                            if (creditAccount >= 0) {
+                                events.add(creditAccount, offset, amount);
+                            }
+                        }
+                        occurrences++;
+                    }
+                }
+                case MONTHLY, QUARTERLY -> {
+                    final int step = s.frequency[i] == MONTHLY ? 1 : 3;
+                    final int anchorMonth = s.anchorMonth[i];
+                    final int dayOfMonth = s.anchorDayOfMonth[i];
+                    int k = anchorMonth >= firstMonthIdx ? 0 : (firstMonthIdx - anchorMonth + step - 1) / step;
+                    while (true) {
+                        int monthIdx = anchorMonth + k * step;
+                        int year = monthIdx / 12;
+                        int month = monthIdx % 12 + 1;
+                        int day = epochDay(year, month, Math.min(dayOfMonth, lengthOfMonth(year, month)));
+                        k++;
+                        if (day < fromDay) {
+                            continue;
+                        }
+                        if (day > last) {
+                            break;
+                        }
+                        int offset = day - fromDay;
+                        int cell = monthIdx - firstMonthIdx;
+                        if (debitFund >= 0) {
+                            debits[debitFund * buckets + cell] += amount;
+                            counts[debitFund * buckets + cell]++;
+                            events.add(debitAccount, offset, -amount);
+                        }
+                        if (creditFund >= 0) {
+                            credits[creditFund * buckets + cell] += amount;
+                            counts[creditFund * buckets + cell]++;
+                            if (creditAccount >= 0) {
+                                events.add(creditAccount, offset, amount);
+                            }
+                        }
+                        occurrences++;
+                    }
+                }
+                default -> {
+                    // Unsupported frequencies are rejected in Schedules.add
+                }
+            }
+        }
+
+        List<FundCashFlowDTO> flows = new ArrayList<>();
+        for (int b = 0; b < buckets; b++) {
+            String month = firstMonth.plusMonths(b).toString();
+            for (int f = 0; f < funds; f++) {
+                int cell = f * buckets + b;
+                if (counts[cell] == 0) {
+                    continue;
+                }
+                flows.add(FundCashFlowDTO.builder()
+                        .fund(s.fundNames.get(f))
+                        .month(month)
+                        .debits(round(debits[cell]))
+                        .credits(round(credits[cell]))
+                        .net(round(credits[cell] - debits[cell]))
+                        .transactionCount(counts[cell])
+                        .build());
+            }
+        }
+        flows.sort(Comparator.comparing(FundCashFlowDTO::getMonth).thenComparing(FundCashFlowDTO::getFund));
+
+        List<BalanceShortfallDTO> shortfalls = findShortfalls(s, events, fromDate, horizonDays);
+
+        return StpProjectionDTO.builder()
+                .fromDate(fromDate)
+                .toDate(toDate.minusDays(1))
+                .horizonMonths(months)
+                .scheduleCount(s.size)
+                .occurrenceCount(occurrences)
+                .monthlyFlows(flows)
+                .shortfalls(shortfalls)
+                .build();
+    }
+
+    /**
+     * Replay the dated deltas of every account in day order against its opening balance and
+     * report the first day each account's running balance drops below zero.
+     */
+    private List<BalanceShortfallDTO> findShortfalls(Schedules s, Events events, LocalDate fromDate, int horizonDays) {
+        final int accounts = s.accountCount;
+        final int eventCount = events.size;
+
+        // Counting sort of events by account
+        int[] start = new int[accounts + 1];
+        for (int e = 0; e < eventCount; e++) {
+            start[events.account[e] + 1]++;
+        }
+        for (int a = 0; a < accounts; a++) {
+            start[a + 1] += start[a];
+        }
+        int[] order = new int[eventCount];
+        int[] cursor = Arrays.copyOf(start, accounts);
+        for (int e = 0; e < eventCount; e++) {
+            order[cursor[events.account[e]]++] = e;
+        }
+
+        List<BalanceShortfallDTO> shortfalls = new ArrayList<>();
+        double[] dayDelta = new double[horizonDays];
+        int[] touched = new int[16];
+
+        for (int a = 0; a < accounts; a++) {
+            double opening = s.accountOpening[a];
+            if (start[a] == start[a + 1]) {
+                continue;
+            }
+            int touchedCount = 0;
+            for (int p = start[a]; p < start[a + 1]; p++) {
+                int e = order[p];
+                int day = events.day[e];
+                if (dayDelta[day] == 0.0) {
+                    if (touchedCount == touched.length) {
+                        touched = Arrays.copyOf(touched, touchedCount * 2);
+                    }
+                    touched[touchedCount++] = day;
+                }
+                dayDelta[day] += events.amount[e];
+            }
+            Arrays.sort(touched, 0, touchedCount);
+
+            double running = opening;
+            int negativeDay = -1;
+            double negativeBalance = 0.0;
+            for (int t = 0; t < touchedCount; t++) {
+                int day = touched[t];
+                running += dayDelta[day];
+                dayDelta[day] = 0.0; // leave the scratch array clean for the next account
+                if (negativeDay < 0 && running < -NEGATIVE_EPSILON) {
+                    negativeDay = day;
+                    negativeBalance = running;
+                }
+            }
+
+            if (negativeDay >= 0) {
+                shortfalls.add(BalanceShortfallDTO.builder()
+                        .clientId(s.accountClient[a])
+                        .fund(s.fundNames.get(s.accountFund[a]))
+                        .openingBalance(round(opening))
+                        .firstNegativeDate(fromDate.plusDays(negativeDay))
+                        .projectedBalance(round(negativeBalance))
+                        .build());
+            }
+        }
+        shortfalls.sort(Comparator.comparing(BalanceShortfallDTO::getFirstNegativeDate)
+                .thenComparing(BalanceShortfallDTO::getClientId));
+        return shortfalls;
+    }
+
+    static byte parseFrequency(String frequency) {
+        if (frequency == null) {
+            return -1;
+        }
+        return switch (frequency.trim().toUpperCase()) {
+            case "DAILY" -> DAILY;
+            case "WEEKLY" -> WEEKLY;
+            case "MONTHLY" -> MONTHLY;
+            case "QUARTERLY" -> QUARTERLY;
+            default -> -1;
+        };
+    }
+
+    /**
+     * Days since 1970-01-01 for a proleptic Gregorian date (same result as LocalDate.toEpochDay)
+     */
+    static int epochDay(int year, int month, int day) {
+        int y = month <= 2 ? year - 1 : year;
+        int era = (y >= 0 ? y : y - 399) / 400;
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468;
+    }
+
+    static int lengthOfMonth(int year, int month) {
+        return switch (month) {
+            case 2 -> (year % 4 == 0 && (year % 100 != 0 || year % 400 == 0)) ? 29 : 28;
+            case 4, 6, 9, 11 -> 30;
+            default -> 31;
+        };
+    }
+
+    /**
+     * The date {@code months} on from {@code date}, on {@code dayOfMonth} or the last day of a
+     * shorter month
+     */
+    public static LocalDate plusMonthsOnDay(LocalDate date, int months, int dayOfMonth) {
+        YearMonth month = YearMonth.from(date).plusMonths(months);
+        return month.atDay(Math.min(dayOfMonth, month.lengthOfMonth()));
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+
+    /**
+     * Column-oriented store of recurring schedules and (client, fund) accounts.
+     */
+    public static final class Schedules {
+        private final Map<String, Integer> fundIndex = new HashMap<>();
+        private final List<String> fundNames = new ArrayList<>();
+        private final Map<Long, Integer> accountIndex = new HashMap<>();
+
+        private int size;
+        private int skipped;
+        private byte[] frequency;
+        private int[] anchorDay;
+        private int[] anchorMonth;
+        private byte[] anchorDayOfMonth;
+        private int[] endDay;
+        private double[] amount;
+        private int[] debitFund;
+        private int[] creditFund;
+        private int[] debitAccount;
+        private int[] creditAccount;
+
+        private int accountCount;
+        private long[] accountClient = new long[64];
+        private int[] accountFund = new int[64];
+        private double[] accountOpening = new double[64];
+
+        public Schedules(int expectedSize) {
+            int capacity = Math.max(16, expectedSize);
+            frequency = new byte[capacity];
+            anchorDay = new int[capacity];
+            anchorMonth = new int[capacity];
+            anchorDayOfMonth = new byte[capacity];
+            endDay = new int[capacity];
+            amount = new double[capacity];
+            debitFund = new int[capacity];
+            creditFund = new int[capacity];
+            debitAccount = new int[capacity];
+            creditAccount = new int[capacity];
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public int skipped() {
+            return skipped;
+        }
+
+        /**
+         * Register the current balance of a client's fund; accounts without one start at zero
+         */
+        public void addOpeningBalance(Long clientId, String fund, double balance) {
+            if (clientId == null || fund == null || fund.isBlank()) {
+                return;
+            }
+            int idx = account(clientId, fund(fund)); // may grow accountOpening, so resolve it first
+            accountOpening[idx] += balance;
+        }
+
+        /**
+         * Add a recurring schedule. STP debits the source fund and credits the target fund,
+         * SIP credits the invested fund and SWP debits the withdrawn fund.
+         *
+         * @return false if the schedule cannot be projected and was skipped
+         */
+        public boolean add(Long clientId, String type, String fromFund, String toFund, String fundName,
+                           double installment, String frequencyName, LocalDate anchor, LocalDate end) {
+            return add(clientId, type, fromFund, toFund, fundName, installment, frequencyName, anchor,
+                    anchor != null ? anchor.getDayOfMonth() : 0, end);
+        }
+
+        /**
+         * Add a recurring schedule whose first occurrence is {@code anchor} and whose monthly and
+         * quarterly occurrences fall on {@code dayOfMonth}, the day of its start date
+         */
+        public boolean add(Long clientId, String type, String fromFund, String toFund, String fundName,
+                           double installment, String frequencyName, LocalDate anchor, int dayOfMonth, LocalDate end) {
+            byte freq = parseFrequency(frequencyName);
+            if (clientId == null || type == null || anchor == null || freq < 0 || !(installment > 0.0)) {
+                skipped++;
+                return false;
+            }
+            String debit;
+            String credit;
+            switch (type.trim().toUpperCase()) {
+                case "STP" -> {
+                    debit = fromFund;
+                    credit = toFund;
+                }
+                case "SIP" -> {
+                    debit = null;
+                    credit = toFund != null && !toFund.isBlank() ? toFund : fundName;
+                }
+                case "SWP" -> {
+                    debit = fromFund != null && !fromFund.isBlank() ? fromFund : fundName;
+                    credit = null;
+                }
+                default -> {
+                    skipped++;
+                    return false;
+                }
+            }
+            boolean hasDebit = debit != null && !debit.isBlank();
+            boolean hasCredit = credit != null && !credit.isBlank();
+            if (!hasDebit && !hasCredit) {
+                skipped++;
+                return false;
+            }
+
+            ensureCapacity();
+            int i = size++;
+            frequency[i] = freq;
+            anchorDay[i] = (int) anchor.toEpochDay();
+            anchorMonth[i] = anchor.getYear() * 12 + anchor.getMonthValue() - 1;
+            anchorDayOfMonth[i] = (byte) dayOfMonth;
+            endDay[i] = end != null ? (int) end.toEpochDay() : Integer.MAX_VALUE;
+            amount[i] = installment;
+            if (hasDebit) {
+                debitFund[i] = fund(debit);
+                debitAccount[i] = account(clientId, debitFund[i]);
+            } else {
+                debitFund[i] = -1;
+                debitAccount[i] = -1;
+            }
+            if (hasCredit) {
+                creditFund[i] = fund(credit);
+                creditAccount[i] = account(clientId, creditFund[i]);
+            } else {
+                creditFund[i] = -1;
+                creditAccount[i] = -1;
+            }
+            return true;
+        }
+
+        private int fund(String name) {
+            String key = name.trim();
+            Integer idx = fundIndex.get(key);
+            if (idx == null) {
+                idx = fundNames.size();
+                fundIndex.put(key, idx);
+                fundNames.add(key);
+            }
+            return idx;
+        }
+
+        private int account(long clientId, int fund) {
+            Long key = (clientId << 24) | fund;
+            Integer idx = accountIndex.get(key);
+            if (idx == null) {
+                idx = accountCount++;
+                if (idx == accountClient.length) {
+                    int capacity = idx * 2;
+                    accountClient = Arrays.copyOf(accountClient, capacity);
+                    accountFund = Arrays.copyOf(accountFund, capacity);
+                    accountOpening = Arrays.copyOf(accountOpening, capacity);
+                }
+                accountClient[idx] = clientId;
+                accountFund[idx] = fund;
+                accountIndex.put(key, idx);
+            }
+            return idx;
+        }
+
+        private void ensureCapacity() {
+            if (size < frequency.length) {
+                return;
+            }
+            int capacity = frequency.length * 2;
+            frequency = Arrays.copyOf(frequency, capacity);
+            anchorDay = Arrays.copyOf(anchorDay, capacity);
+            anchorMonth = Arrays.copyOf(anchorMonth, capacity);
+            anchorDayOfMonth = Arrays.copyOf(anchorDayOfMonth, capacity);
+            endDay = Arrays.copyOf(endDay, capacity);
+            amount = Arrays.copyOf(amount, capacity);
+            debitFund = Arrays.copyOf(debitFund, capacity);
+            creditFund = Arrays.copyOf(creditFund, capacity);
+            debitAccount = Arrays.copyOf(debitAccount, capacity);
+            creditAccount = Arrays.copyOf(creditAccount, capacity);
+        }
+    }
+
+    /**
+     * Growable (account, day offset, signed amount) event columns
+     */
+    private static final class Events {
+        private int size;
+        private int[] account;
+        private int[] day;
+        private double[] amount;
+
+        Events(int capacity) {
+            account = new int[capacity];
+            day = new int[capacity];
+            amount = new double[capacity];
+        }
+
+        void add(int acc, int offset, double value) {
+            if (size == account.length) {
+                int capacity = size * 2;
+                account = Arrays.copyOf(account, capacity);
+                day = Arrays.copyOf(day, capacity);
+                amount = Arrays.copyOf(amount, capacity);
+            }
+            account[size] = acc;
+            day[size] = offset;
+            amount[size] = value;
+            size++;
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.wtplatform.backend.service;
 
 import com.wtplatform.backend.model.Transaction;
+import com.wtplatform.backend.dto.StpBalanceWarningDTO;
+import com.wtplatform.backend.dto.StpProjectionDTO;
 import com.wtplatform.backend.dto.StpSummaryDTO;
 import com.wtplatform.backend.dto.StpTransactionDTO;
 
@@ -13,4 +15,6 @@ public interface StpService {
     void validateStpTransaction(Transaction transaction);
     void processStpTransaction(Transaction transaction);
     void debugStpTrendTypes(Long userId);
+    StpProjectionDTO getStpProjectionByEmail(String email, int months);
+    List<StpBalanceWarningDTO> getStpWarningsByEmail(String email);
 } 
\ No newline at end of file
@@ -3,81 +3,105 @@ package com.wtplatform.backend.service.impl;
 import com.wtplatform.backend.dto.AumSummaryDTO;
 import com.wtplatform.backend.dto.AumTrendDTO;
 import com.wtplatform.backend.dto.AumBreakdownDTO;
+import com.wtplatform.backend.projection.AumDailyTotalProjection;
+import com.wtplatform.backend.repository.AumSnapshotRepository;
+import com.wtplatform.backend.security.AccessControl;
+import com.wtplatform.backend.service.AumEngine;
 import com.wtplatform.backend.service.AumService;
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import java.time.LocalDate;
-import java.time.LocalDateTime;
 import java.util.*;
 import java.time.temporal.ChronoUnit;
 
 @Service
+@RequiredArgsConstructor
 public class AumServiceImpl implements AumService {
 
+    private final AumEngine aumEngine;
+    private final AumSnapshotRepository aumSnapshotRepository;
+    private final AccessControl accessControl;
+
     @Override
     public AumSummaryDTO getAumSummary() {
-        // TODO: Implement actual data fetching from database
+        Long userId = accessControl.currentUserId();
+        AumEngine.Book book = aumEngine.current();
         return AumSummaryDTO.builder()
-                .totalAum(10000000.0)  // Example value
-                .contributingClients(50)
-                .lastUpdated(LocalDateTime.now())
+                .totalAum(book.userAum(userId))
+                .contributingClients(book.contributingClients(userId))
+                .lastUpdated(book.getComputedAt())
                 .build();
     }
 
     @Override
     public List<AumTrendDTO> getAumTrend(String period) {
-        List<AumTrendDTO> trendData = new ArrayList<>();
-        LocalDate endDate = LocalDate.now();
-        LocalDate startDate = calculateStartDate(period);
+        Long userId = accessControl.currentUserId();
+        List<AumDailyTotalProjection> totals =
+                aumSnapshotRepository.findDailyTotals(userId, calculateStartDate(period), LocalDate.now());
 
-        // TODO: Replace with actual data from database
-        double baseAum = 9000000.0;
-        Random random = new Random();
-        
-        LocalDate currentDate = startDate;
-        while (!currentDate.isAfter(endDate)) {
-            // Simulate some random fluctuation in AUM
-            double fluctuation = 1.0 + (random.nextDouble() * 0.02 - 0.01); // ±1% change
-            baseAum *= fluctuation;
-            
+        List<AumTrendDTO> trendData = new ArrayList<>(totals.size());
+        double previous = 0.0;
+        for (AumDailyTotalProjection total : totals) {
+            double aum = total.getAum() != null ? total.getAum().doubleValue() : 0.0;
             trendData.add(AumTrendDTO.builder()
-                    .date(currentDate)
-                    .aumValue(baseAum)
-                    .changePercentage((fluctuation - 1.0) * 100)
+                    .date(total.getSnapshotDate())
+                    .aumValue(aum)
+                    .changePercentage(previous != 0.0 ? (aum - previous) / previous * 100 : 0.0)
                     .build());
-            
-            currentDate = currentDate.plusDays(1);
+            previous = aum;
         }
-
         return trendData;
     }
 
     @Override
     public AumBreakdownDTO getAumBreakdown() {
-        // TODO: Implement actual data fetching from database
-        Map<String, Double> byClient = new HashMap<>();
-        byClient.put("Client A", 2000000.0);
-        byClient.put("Client B", 3000000.0);
-        byClient.put("Client C", 5000000.0);
+        Long userId = accessControl.currentUserId();
 
-        Map<String, Double> byAssetClass = new HashMap<>();
-        byAssetClass.put("Equity", 4000000.0);
-        byAssetClass.put("Fixed Income", 3000000.0);
-        byAssetClass.put("Real Estate", 2000000.0);
-        byAssetClass.put("Alternative Investments", 1000000.0);
+        // The live valuation is an in-memory read; only the year of snapshots hits the database
+        AumEngine.Book book = aumEngine.current();
+        List<AumDailyTotalProjection> lastYear =
+                aumSnapshotRepository.findDailyTotals(userId, calculateStartDate("1y"), LocalDate.now());
 
-        Map<String, Double> byTimeSegment = new HashMap<>();
-        byTimeSegment.put("1M", 9800000.0);
-        byTimeSegment.put("3M", 9500000.0);
-        byTimeSegment.put("6M", 9000000.0);
-        byTimeSegment.put("1Y", 8000000.0);
+        // Client names are not unique, so disambiguate duplicates with the client ID
+        Map<Long, Double> aumByClientId = book.aumByClient(userId);
+        Map<Long, String> names = book.clientNames(userId);
+        Map<String, Long> nameCounts = new HashMap<>();
+        names.values().forEach(name -> nameCounts.merge(name, 1L, Long::sum));
+        Map<String, Double> byClient = new HashMap<>();
+        aumByClientId.forEach((clientId, aum) -> {
+            String name = names.get(clientId);
+            byClient.put(nameCounts.get(name) > 1 ? name + " (#" + clientId + ")" : name, aum);
+        });
 
         return AumBreakdownDTO.builder()
                 .byClient(byClient)
-                .byAssetClass(byAssetClass)
-                .byTimeSegment(byTimeSegment)
+                .byAssetClass(book.aumByAssetClass(userId))
+                .byAmc(book.aumByAmc(userId))
+                .byTimeSegment(getAumByTimeSegment(lastYear))
                 .build();
     }
 
+    /**
+     * AUM at the start of each look-back segment, taken from the latest snapshot on or before it
+     */
+    private Map<String, Double> getAumByTimeSegment(List<AumDailyTotalProjection> totals) {
+        Map<String, Double> byTimeSegment = new LinkedHashMap<>();
+        for (String segment : List.of("1m", "3m", "6m", "1y")) {
+            LocalDate segmentStart = calculateStartDate(segment);
+            Double value = null;
+            for (AumDailyTotalProjection total : totals) {
+                if (total.getSnapshotDate().isAfter(segmentStart)) {
+                    break;
+                }
+                value = total.getAum().doubleValue();
+            }
+            if (value != null) {
+                byTimeSegment.put(segment.toUpperCase(), value);
+            }
+        }
+        return byTimeSegment;
+    }
+
     private LocalDate calculateStartDate(String period) {
         LocalDate endDate = LocalDate.now();
         return switch (period.toLowerCase()) {
@@ -0,0 +1,574 @@
+package com.wtplatform.backend.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wtplatform.backend.dto.ClientDTO;
+import com.wtplatform.backend.dto.ClientImportJobDTO;
+import com.wtplatform.backend.dto.ClientImportRowResultDTO;
+import com.wtplatform.backend.exception.TooManyRequestsException;
+import com.wtplatform.backend.model.Client;
+import com.wtplatform.backend.model.User;
+import com.wtplatform.backend.repository.ClientRepository;
+import com.wtplatform.backend.repository.UserRepository;
+import com.wtplatform.backend.security.AccessControl;
+import com.wtplatform.backend.service.ClientImportService;
+import com.wtplatform.backend.service.ClientTypeaheadIndex;
+import com.wtplatform.backend.service.DashboardChangedEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk client import running on a small pool of background threads.
+ *
+ * Admission is bounded before the upload is copied to disk: each advisor may have
+ * {@code client-import.max-jobs-per-user} jobs queued or running, and at most
+ * {@code client-import.max-queued-jobs} wait for a thread; beyond either the import is
+ * refused with {@link TooManyRequestsException}.
+ *
+ * The file is streamed in chunks. Each chunk is validated, checked for PANs and emails
+ * repeated earlier in the file, checked against existing clients with one IN query per
+ * column, and inserted in one transaction. If a concurrent insert makes a chunk violate the
+ * unique constraints, its rows are retried one by one so only the conflicting rows fail.
+ * Jobs and the first {@code client-import.max-row-results} row results of each are kept in
+ * memory for {@code client-import.retention-minutes}.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ClientImportServiceImpl implements ClientImportService, DisposableBean {
+
+    private static final long RETRY_AFTER_SECONDS = 60;
+
+    private static final List<String> REQUIRED_COLUMNS = List.of(
+            "name", "pan", "email", "phone", "aum", "address",
+            "city", "state", "pincode", "riskProfile", "investmentHorizon");
+
+    private final ClientRepository clientRepository;
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final ClientTypeaheadIndex clientTypeaheadIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AccessControl accessControl;
+
+    @Value("${client-import.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${client-import.max-concurrent-jobs:2}")
+    private int maxConcurrentJobs;
+
+    @Value("${client-import.max-queued-jobs:8}")
+    private int maxQueuedJobs;
+
+    @Value("${client-import.max-jobs-per-user:1}")
+    private int maxJobsPerUser;
+
+    @Value("${client-import.max-row-results:10000}")
+    private int maxRowResults;
+
+    @Value("${client-import.retention-minutes:1440}")
+    private long retentionMinutes;
+
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+    // Queued or running jobs per user
+    private final Map<Long, Integer> activeJobs = new ConcurrentHashMap<>();
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    void init() {
+        executor = new ThreadPoolExecutor(maxConcurrentJobs, maxConcurrentJobs, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(maxQueuedJobs),
+                Thread.ofPlatform().name("client-import-", 0).daemon(true).factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @Override
+    public ClientImportJobDTO startImport(MultipartFile file, String format) throws IOException {
+        if (file == null || file.isEmpty()) {
+            throw new IllegalArgumentException("Empty file");
+        }
+        Format resolved = Format.resolve(format, file.getOriginalFilename());
+        Long userId = accessControl.currentUserId();
+
+        // Admit the job before spending disk on it
+        if (!reserveSlot(userId)) {
+            throw new TooManyRequestsException("An import of yours is already queued or running; "
+                    + "retry when it has finished", RETRY_AFTER_SECONDS);
+        }
+        Path upload = null;
+        try {
+            if (executor.getQueue().remainingCapacity() == 0) {
+                throw queueFull();
+            }
+            // The upload is deleted when the request ends; the job reads its own copy
+            upload = Files.createTempFile("client-import-", "." + resolved.name().toLowerCase(Locale.ROOT));
+            file.transferTo(upload);
+
+            Job job = new Job(UUID.randomUUID().toString(), userId, resolved, maxRowResults);
+            Path jobFile = upload;
+            jobs.put(job.id, job);
+            try {
+                executor.execute(() -> run(job, jobFile));
+            } catch (RejectedExecutionException e) {
+                jobs.remove(job.id);
+                throw e;
+            }
+            log.info("[CLIENT-IMPORT] Queued job {} ({}, {} bytes) for user {}", job.id, resolved, file.getSize(), userId);
+            return job.toDTO();
+        } catch (RejectedExecutionException e) {
+            deleteQuietly(upload);
+            releaseSlot(userId);
+            throw queueFull();
+        } catch (IOException | RuntimeException e) {
+            deleteQuietly(upload);
+            releaseSlot(userId);
+            throw e;
+        }
+    }
+
+    @Override
+    public Optional<ClientImportJobDTO> getJob(String jobId) {
+        return findOwnJob(jobId).map(Job::toDTO);
+    }
+
+    @Override
+    public Optional<List<ClientImportRowResultDTO>> getResults(String jobId, int offset, int limit) {
+        return findOwnJob(jobId).map(job -> job.results(Math.max(0, offset), Math.max(0, limit)));
+    }
+
+    @Scheduled(fixedDelayString = "${client-import.cleanup-interval-ms:600000}")
+    public void removeExpiredJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(retentionMinutes);
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(cutoff));
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    private boolean reserveSlot(Long userId) {
+        boolean[] reserved = new boolean[1];
+        activeJobs.compute(userId, (id, count) -> {
+            int active = count != null ? count : 0;
+            if (active >= maxJobsPerUser) {
+                return count;
+            }
+            reserved[0] = true;
+            return active + 1;
+        });
+        return reserved[0];
+    }
+
+    private void releaseSlot(Long userId) {
+        activeJobs.computeIfPresent(userId, (id, count) -> count > 1 ? count - 1 : null);
+    }
+
+    private static TooManyRequestsException queueFull() {
+        return new TooManyRequestsException("Too many imports are waiting, please retry later", RETRY_AFTER_SECONDS);
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("[CLIENT-IMPORT] Could not delete {}: {}", file, e.getMessage());
+        }
+    }
+
+    private Optional<Job> findOwnJob(String jobId) {
+        Long userId = accessControl.currentUserId();
+        return Optional.ofNullable(jobs.get(jobId)).filter(job -> job.userId.equals(userId));
+    }
+
+    private void run(Job job, Path upload) {
+        job.status = "RUNNING";
+        job.startedAt = LocalDateTime.now();
+        try (BufferedReader reader = Files.newBufferedReader(upload, StandardCharsets.UTF_8);
+             RowSource rows = job.format == Format.CSV ? new CsvRows(reader) : new NdjsonRows(reader, objectMapper)) {
+            List<ParsedRow> chunk = new ArrayList<>(chunkSize);
+            while (rows.hasNext()) {
+                chunk.add(rows.next());
+                job.rowsRead.incrementAndGet();
+                if (chunk.size() == chunkSize) {
+                    importChunk(job, chunk);
+                    job.publishChunk();
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                importChunk(job, chunk);
+                job.publishChunk();
+            }
+            job.status = "COMPLETED";
+            log.info("[CLIENT-IMPORT] Job {} completed: {} rows, {} imported, {} failed",
+                    job.id, job.rowsRead.get(), job.imported.get(), job.failed.get());
+        } catch (Exception e) {
+            job.error = e.getMessage();
+            job.status = "FAILED";
+            log.error("[CLIENT-IMPORT] Job {} failed after {} rows: {}", job.id, job.rowsRead.get(), e.getMessage(), e);
+        } finally {
+            job.publishChunk();
+            deleteQuietly(upload);
+            // Free the slot before the job reads as finished, so the advisor can start the next one
+            releaseSlot(job.userId);
+            job.finishedAt = LocalDateTime.now();
+            if (job.imported.get() > 0) {
+                clientTypeaheadIndex.invalidate(job.userId);
+                eventPublisher.publishEvent(DashboardChangedEvent.forUser(job.userId, DashboardChangedEvent.Topic.DASHBOARD));
+            }
+        }
+    }
+
+    private void importChunk(Job job, List<ParsedRow> chunk) {
+        List<ParsedRow> candidates = new ArrayList<>(chunk.size());
+        for (ParsedRow row : chunk) {
+            String problem = row.error != null ? row.error : validate(row.client);
+            if (problem == null && !job.seenPans.add(row.client.getPan())) {
+                problem = "Duplicate PAN " + row.client.getPan() + " earlier in the file";
+            }
+            if (problem == null && !job.seenEmails.add(row.client.getEmail())) {
+                job.seenPans.remove(row.client.getPan());
+                problem = "Duplicate email " + row.client.getEmail() + " earlier in the file";
+            }
+            if (problem != null) {
+                job.fail(row, problem);
+            } else {
+                candidates.add(row);
+            }
+        }
+        if (candidates.isEmpty()) {
+            return;
+        }
+
+        // One lookup per unique column for the whole chunk
+        Set<String> existingPans = new HashSet<>(clientRepository.findExistingPans(
+                candidates.stream().map(row -> row.client.getPan()).toList()));
+        Set<String> existingEmails = new HashSet<>(clientRepository.findExistingEmails(
+                candidates.stream().map(row -> row.client.getEmail()).toList()));
+        List<ParsedRow> inserts = new ArrayList<>(candidates.size());
+        for (ParsedRow row : candidates) {
+            if (existingPans.contains(row.client.getPan())) {
+                job.fail(row, "Client with PAN " + row.client.getPan() + " already exists");
+            } else if (existingEmails.contains(row.client.getEmail())) {
+                job.fail(row, "Client with email " + row.client.getEmail() + " already exists");
+            } else {
+                inserts.add(row);
+            }
+        }
+        if (inserts.isEmpty()) {
+            return;
+        }
+
+        try {
+            List<Client> saved = transactionTemplate.execute(status -> {
+                User owner = userRepository.getReferenceById(job.userId);
+                return clientRepository.saveAll(inserts.stream().map(row -> toEntity(row.client, owner)).toList());
+            });
+            for (int i = 0; i < inserts.size(); i++) {
+                job.succeed(inserts.get(i), saved.get(i).getId());
+            }
+        } catch (DataIntegrityViolationException e) {
+            // Someone else created one of these clients meanwhile: find out which, row by row
+            for (ParsedRow row : inserts) {
+                try {
+                    Client client = transactionTemplate.execute(status ->
+                            clientRepository.save(toEntity(row.client, userRepository.getReferenceById(job.userId))));
+                    job.succeed(row, client.getId());
+                } catch (DataIntegrityViolationException conflict) {
+                    job.fail(row, "Client with PAN " + row.client.getPan() + " or email "
+                            + row.client.getEmail() + " already exists");
+                }
+            }
+        }
+    }
+
+    private String validate(ClientDTO client) {
+        Set<ConstraintViolation<ClientDTO>> violations = validator.validate(client);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private static Client toEntity(ClientDTO dto, User owner) {
+        Client client = new Client();
+        client.setName(dto.getName());
+        client.setPan(dto.getPan());
+        client.setEmail(dto.getEmail());
+        client.setPhone(dto.getPhone());
+        client.setAum(dto.getAum());
+        client.setAddress(dto.getAddress());
+        client.setCity(dto.getCity());
+        client.setState(dto.getState());
+        client.setPincode(dto.getPincode());
+        client.setRiskProfile(dto.getRiskProfile());
+        client.setInvestmentHorizon(dto.getInvestmentHorizon());
+        client.setActive(true);
+        client.setUser(owner);
+        return client;
+    }
+
+    private enum Format {
+        CSV, NDJSON;
+
+        static Format resolve(String format, String fileName) {
+            if (format != null && !format.isBlank()) {
+                try {
+                    return valueOf(format.trim().toUpperCase(Locale.ROOT));
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException("Unsupported format: " + format + ". Allowed: csv, ndjson");
+                }
+            }
+            String name = fileName != null ? fileName.toLowerCase(Locale.ROOT) : "";
+            if (name.endsWith(".csv")) {
+                return CSV;
+            }
+            if (name.endsWith(".ndjson") || name.endsWith(".jsonl")) {
+                return NDJSON;
+            }
+            throw new IllegalArgumentException("Cannot tell the format of " + fileName + "; pass format=csv or format=ndjson");
+        }
+    }
+
+    /**
+     * One data row: the client, or why it could not be read
+     */
+    private record ParsedRow(int row, ClientDTO client, String error) {
+    }
+
+    private interface RowSource extends Iterator<ParsedRow>, Closeable {
+    }
+
+    private static final class CsvRows implements RowSource {
+        private final CSVParser parser;
+        private final Iterator<CSVRecord> records;
+        private int row;
+
+        CsvRows(BufferedReader reader) throws IOException {
+            this.parser = CSVFormat.DEFAULT.builder()
+                    .setHeader()
+                    .setSkipHeaderRecord(true)
+                    .setIgnoreHeaderCase(true)
+                    .setIgnoreEmptyLines(true)
+                    .setTrim(true)
+                    .build()
+                    .parse(reader);
+            for (String column : REQUIRED_COLUMNS) {
+                if (!parser.getHeaderMap().containsKey(column)) {
+                    throw new IllegalArgumentException("Missing required column: " + column);
+                }
+            }
+            this.records = parser.iterator();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return records.hasNext();
+        }
+
+        @Override
+        public ParsedRow next() {
+            CSVRecord record = records.next();
+            row++;
+            if (!record.isConsistent()) {
+                return new ParsedRow(row, null, "Row has " + record.size() + " values, header has "
+                        + parser.getHeaderMap().size());
+            }
+            ClientDTO client = new ClientDTO();
+            client.setName(record.get("name"));
+            client.setPan(record.get("pan"));
+            client.setEmail(record.get("email"));
+            client.setPhone(record.get("phone"));
+            client.setAddress(record.get("address"));
+            client.setCity(record.get("city"));
+            client.setState(record.get("state"));
+            client.setPincode(record.get("pincode"));
+            client.setRiskProfile(record.get("riskProfile"));
+            client.setInvestmentHorizon(record.get("investmentHorizon"));
+            try {
+                client.setAum(Double.parseDouble(record.get("aum")));
+            } catch (NumberFormatException e) {
+                return new ParsedRow(row, client, "Invalid AUM value: " + record.get("aum"));
+            }
+            return new ParsedRow(row, client, null);
+        }
+
+        @Override
+        public void close() throws IOException {
+            parser.close();
+        }
+    }
+
+    private static final class NdjsonRows implements RowSource {
+        private final BufferedReader reader;
+        private final ObjectMapper objectMapper;
+        private String nextLine;
+        private int row;
+
+        NdjsonRows(BufferedReader reader, ObjectMapper objectMapper) throws IOException {
+            this.reader = reader;
+            this.objectMapper = objectMapper;
+            advance();
+        }
+
+        private void advance() throws IOException {
+            do {
+                nextLine = reader.readLine();
+            } while (nextLine != null && nextLine.isBlank());
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextLine != null;
+        }
+
+        @Override
+        public ParsedRow next() {
+            String line = nextLine;
+            row++;
+            ParsedRow parsed;
+            try {
+                parsed = new ParsedRow(row, objectMapper.readValue(line, ClientDTO.class), null);
+            } catch (JsonProcessingException e) {
+                parsed = new ParsedRow(row, null, "Invalid JSON: " + e.getOriginalMessage());
+            }
+            try {
+                advance();
+            } catch (IOException e) {
+                throw new IllegalStateException("Could not read the import file", e);
+            }
+            return parsed;
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+
+    private static final class Job {
+        final String id;
+        final Long userId;
+        final Format format;
+        final AtomicInteger rowsRead = new AtomicInteger();
+        final AtomicInteger imported = new AtomicInteger();
+        final AtomicInteger failed = new AtomicInteger();
+        // Only touched by the job's thread, like chunkResults
+        final Set<String> seenPans = new HashSet<>();
+        final Set<String> seenEmails = new HashSet<>();
+        // Outcomes of the chunk in progress, published in row order once it is done
+        final List<ClientImportRowResultDTO> chunkResults = new ArrayList<>();
+        private final List<ClientImportRowResultDTO> results = Collections.synchronizedList(new ArrayList<>());
+        private final int maxResults;
+        final AtomicInteger resultsDropped = new AtomicInteger();
+        volatile String status = "QUEUED";
+        volatile LocalDateTime startedAt;
+        volatile LocalDateTime finishedAt;
+        volatile String error;
+
+        Job(String id, Long userId, Format format, int maxResults) {
+            this.id = id;
+            this.userId = userId;
+            this.format = format;
+            this.maxResults = maxResults;
+        }
+
+        void succeed(ParsedRow row, Long clientId) {
+            imported.incrementAndGet();
+            record(row, "IMPORTED", clientId, null);
+        }
+
+        void fail(ParsedRow row, String message) {
+            failed.incrementAndGet();
+            record(row, "FAILED", null, message);
+        }
+
+        private void record(ParsedRow row, String outcome, Long clientId, String message) {
+            chunkResults.add(ClientImportRowResultDTO.builder()
+                    .row(row.row())
+                    .status(outcome)
+                    .clientId(clientId)
+                    .pan(row.client() != null ? row.client().getPan() : null)
+                    .message(message)
+                    .build());
+        }
+
+        void publishChunk() {
+            chunkResults.sort(Comparator.comparingInt(ClientImportRowResultDTO::getRow));
+            int kept = Math.max(0, Math.min(chunkResults.size(), maxResults - results.size()));
+            results.addAll(chunkResults.subList(0, kept));
+            resultsDropped.addAndGet(chunkResults.size() - kept);
+            chunkResults.clear();
+        }
+
+        List<ClientImportRowResultDTO> results(int offset, int limit) {
+            synchronized (results) {
+                return new ArrayList<>(results.subList(
+                        Math.min(offset, results.size()), Math.min(offset + limit, results.size())));
+            }
+        }
+
+        ClientImportJobDTO toDTO() {
+            return ClientImportJobDTO.builder()
+                    .jobId(id)
+                    .status(status)
+                    .format(format.name())
+                    .rowsRead(rowsRead.get())
+                    .imported(imported.get())
+                    .failed(failed.get())
+                    .startedAt(startedAt)
+                    .finishedAt(finishedAt)
+                    .error(error)
+                    .resultsDropped(resultsDropped.get())
+                    .build();
+        }
+    }
+}
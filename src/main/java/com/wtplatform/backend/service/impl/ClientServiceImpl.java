@@ -2,34 +2,65 @@ package com.wtplatform.backend.service.impl;
 
 import com.wtplatform.backend.dto.ClientDTO;
 import com.wtplatform.backend.dto.ClientDocumentDTO;
+import com.wtplatform.backend.dto.ClientFilterDTO;
+import com.wtplatform.backend.dto.ClientOverviewDTO;
+import com.wtplatform.backend.dto.FundBalanceDTO;
+import com.wtplatform.backend.dto.NoteDTO;
+import com.wtplatform.backend.dto.TransactionDTO;
+import com.wtplatform.backend.dto.ClientScrollDTO;
+import com.wtplatform.backend.dto.ClientSegmentDTO;
+import com.wtplatform.backend.dto.ClientSuggestionDTO;
 import com.wtplatform.backend.dto.DocumentUploadResponse;
+import com.wtplatform.backend.exception.AumNotReadyException;
 import com.wtplatform.backend.model.Client;
+import com.wtplatform.backend.model.Note;
 import com.wtplatform.backend.model.User;
 import com.wtplatform.backend.repository.ClientRepository;
-import com.wtplatform.backend.repository.UserRepository;
+import com.wtplatform.backend.repository.FundBalanceRepository;
+import com.wtplatform.backend.repository.NoteRepository;
+import com.wtplatform.backend.repository.TransactionRepository;
+import com.wtplatform.backend.repository.ClientSpecifications;
+import com.wtplatform.backend.security.AccessControl;
+import com.wtplatform.backend.service.AumEngine;
+import com.wtplatform.backend.service.ClientChangedEvent;
+import com.wtplatform.backend.service.ClientOverviewSection;
 import com.wtplatform.backend.service.ClientService;
+import com.wtplatform.backend.service.ClientSortField;
+import com.wtplatform.backend.service.ClientTypeaheadIndex;
+import com.wtplatform.backend.service.FanOut;
 import com.wtplatform.backend.service.S3Service;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.KeysetScrollPosition;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 import software.amazon.awssdk.services.s3.model.S3Object;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.time.Instant;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Base64;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -38,53 +69,45 @@ import java.util.stream.Collectors;
 public class ClientServiceImpl implements ClientService {
     private static final Logger logger = LoggerFactory.getLogger(ClientServiceImpl.class);
     private static final Pattern FILE_NAME_PATTERN = Pattern.compile("(\\d{8}_\\d{6})_(.+)$");
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int DEFAULT_SEARCH_LIMIT = 20;
+    private static final int MAX_SEARCH_LIMIT = 50;
+    private static final int MIN_INFIX_SEARCH_LENGTH = 3;
+    private static final Pattern PAN_PATTERN = Pattern.compile("[A-Z]{5}[0-9]{4}[A-Z]");
+    private static final Pattern PHONE_PATTERN = Pattern.compile("\\+?[0-9]{10,15}");
+    private static final String CURSOR_SEPARATOR = "\u0000";
 
     @Autowired
     private ClientRepository clientRepository;
     
+    // Client documents only: the S3 client is built on first use, not at startup
+    @Lazy
     @Autowired
     private S3Service s3Service;
     
     @Autowired
-    private UserRepository userRepository;
-
-    /**
-     * Get the currently authenticated user
-     * 
-     * @return the current user
-     * @throws RuntimeException if no user is authenticated or user not found
-     */
-    private User getCurrentUser() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        if (authentication == null || !authentication.isAuthenticated()) {
-            throw new RuntimeException("No authenticated user found");
-        }
-        
-        String email = authentication.getName();
-        return userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found: " + email));
-    }
+    private AccessControl accessControl;
     
-    /**
-     * Verify the client belongs to the current user
-     * 
-     * @param clientId the client ID
-     * @return the client if it belongs to the current user
-     * @throws RuntimeException if the client doesn't belong to the current user
-     */
-    private Client verifyClientOwnership(Long clientId) {
-        User currentUser = getCurrentUser();
-        Client client = clientRepository.findById(clientId)
-                .orElseThrow(() -> new RuntimeException("Client not found with ID: " + clientId));
-        
-        if (!client.getUser().getId().equals(currentUser.getId())) {
-            logger.warn("User {} attempted to access client {} which belongs to user {}", 
-                    currentUser.getId(), clientId, client.getUser().getId());
-            throw new RuntimeException("Access denied: Client does not belong to current user");
-        }
-        
-        return client;
-    }
+    @Autowired
+    private ClientTypeaheadIndex clientTypeaheadIndex;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private NoteRepository noteRepository;
+    
+    @Autowired
+    private TransactionRepository transactionRepository;
+    
+    @Autowired
+    private FundBalanceRepository fundBalanceRepository;
+    
+    @Autowired
+    private AumEngine aumEngine;
+    
+    @Autowired
+    private FanOut fanOut;
 
     @Override
     @Transactional
@@ -94,90 +117,216 @@ public class ClientServiceImpl implements ClientService {
         client.setActive(true);
         
         // Set the current user as the client's owner
-        client.setUser(getCurrentUser());
+        client.setUser(accessControl.currentUserReference());
         
-        return mapEntityToDTO(clientRepository.save(client));
+        Client saved = clientRepository.save(client);
+        eventPublisher.publishEvent(ClientChangedEvent.of(saved));
+        return mapEntityToDTO(saved);
     }
 
     @Override
     @Transactional
     public ClientDTO updateClient(Long id, ClientDTO clientDTO) {
         // Verify client belongs to current user
-        Client client = verifyClientOwnership(id);
+        Client client = accessControl.requireOwnedClient(id);
         mapDTOToEntity(clientDTO, client);
-        return mapEntityToDTO(clientRepository.save(client));
+        Client saved = clientRepository.save(client);
+        eventPublisher.publishEvent(ClientChangedEvent.of(saved));
+        return mapEntityToDTO(saved);
     }
 
     @Override
     public ClientDTO getClientById(Long id) {
         // Verify client belongs to current user
-        Client client = verifyClientOwnership(id);
+        Client client = accessControl.requireOwnedClient(id);
         return mapEntityToDTO(client);
     }
 
+    @Override
+    public ClientOverviewDTO getClientOverview(Long id, Set<ClientOverviewSection> sections, int transactionLimit) {
+        Long userId = accessControl.currentUserId();
+        // The one ownership check of the overview: the client is only found if the user owns it
+        Client client = clientRepository.findByIdAndUserId(id, userId)
+                .orElseThrow(() -> new RuntimeException("Client not found with ID: " + id));
+        int limit = Math.max(1, Math.min(transactionLimit, MAX_PAGE_SIZE));
+        Double holdingsValue = sections.contains(ClientOverviewSection.HOLDINGS) ? cachedHoldingsValue(userId, id) : null;
+        
+        try (FanOut.Scope scope = fanOut.open()) {
+            FanOut.Subtask<List<NoteDTO>> notes = !sections.contains(ClientOverviewSection.NOTES) ? null
+                    : scope.fork(() -> noteRepository.findByClientId(id).stream()
+                            .sorted(Comparator.comparing(Note::isPinned).reversed()
+                                    .thenComparing(Note::getCreatedAt, Comparator.nullsLast(Comparator.reverseOrder())))
+                            .map(NoteDTO::fromEntity)
+                            .collect(Collectors.toList()));
+            FanOut.Subtask<List<TransactionDTO>> transactions = !sections.contains(ClientOverviewSection.TRANSACTIONS) ? null
+                    : scope.fork(() -> TransactionDTO.fromEntities(
+                            transactionRepository.findRecentWithClientByClientId(id, PageRequest.of(0, limit))));
+            FanOut.Subtask<List<TransactionDTO>> stps = !sections.contains(ClientOverviewSection.STPS) ? null
+                    : scope.fork(() -> TransactionDTO.fromEntities(
+                            transactionRepository.findWithClientByClientIdAndType(id, "STP")));
+            FanOut.Subtask<List<FundBalanceDTO>> balances = !sections.contains(ClientOverviewSection.BALANCES) ? null
+                    : scope.fork(() -> fundBalanceRepository.findByClientId(id).stream()
+                            .map(FundBalanceDTO::fromEntity)
+                            .collect(Collectors.toList()));
+            FanOut.Subtask<List<ClientDocumentDTO>> documents = !sections.contains(ClientOverviewSection.DOCUMENTS) ? null
+                    : scope.forkRemote(() -> mapS3ObjectsToDocumentDTOs(
+                            s3Service.listObjects(String.format("clients/%d/documents/", id)), id));
+            scope.join();
+            
+            return ClientOverviewDTO.builder()
+                    .client(mapEntityToDTO(client))
+                    .holdingsValue(holdingsValue)
+                    .notes(notes != null ? notes.get() : null)
+                    .recentTransactions(transactions != null ? transactions.get() : null)
+                    .stps(stps != null ? stps.get() : null)
+                    .fundBalances(balances != null ? balances.get() : null)
+                    .documents(documents != null ? documents.get() : null)
+                    .build();
+        }
+    }
+
+    /**
+     * The client's value from the cached AUM book, or null (section left out) while the
+     * first valuation is still loading, so the rest of the profile still renders
+     */
+    private Double cachedHoldingsValue(Long userId, Long clientId) {
+        try {
+            return aumEngine.current().aumByClient(userId).getOrDefault(clientId, 0.0);
+        } catch (AumNotReadyException e) {
+            logger.debug("Overview of client {} without holdings: {}", clientId, e.getMessage());
+            return null;
+        }
+    }
+
     @Override
     public ClientDTO getClientByPan(String pan) {
-        User currentUser = getCurrentUser();
+        Long currentUserId = accessControl.currentUserId();
         return clientRepository.findByPan(pan)
-                .filter(client -> client.getUser().getId().equals(currentUser.getId()))
+                .filter(client -> client.getUser().getId().equals(currentUserId))
                 .map(this::mapEntityToDTO)
                 .orElseThrow(() -> new RuntimeException("Client not found"));
     }
 
     @Override
     public List<ClientDTO> getAllClients() {
-        User currentUser = getCurrentUser();
-        return clientRepository.findByUserId(currentUser.getId()).stream()
+        Long currentUserId = accessControl.currentUserId();
+        return clientRepository.findByUserId(currentUserId).stream()
                 .map(this::mapEntityToDTO)
                 .collect(Collectors.toList());
     }
 
     @Override
     public List<ClientDTO> searchClients(String searchTerm) {
-        User currentUser = getCurrentUser();
-        return clientRepository.searchClientsByUser(currentUser.getId(), searchTerm).stream()
+        return searchClients(searchTerm, DEFAULT_SEARCH_LIMIT);
+    }
+
+    @Override
+    public List<ClientDTO> searchClients(String searchTerm, int limit) {
+        String term = searchTerm != null ? searchTerm.trim() : "";
+        if (term.isEmpty()) {
+            return List.of();
+        }
+        Long currentUserId = accessControl.currentUserId();
+        
+        // A complete PAN or phone number is an exact lookup, not a fuzzy search
+        List<Client> exact = findExactMatches(currentUserId, term);
+        if (!exact.isEmpty()) {
+            return exact.stream().map(this::mapEntityToDTO).collect(Collectors.toList());
+        }
+        
+        String escaped = escapeLike(term.toLowerCase());
+        // Too short for a trigram: only prefixes are matched
+        String pattern = term.length() < MIN_INFIX_SEARCH_LENGTH ? escaped + "%" : "%" + escaped + "%";
+        int boundedLimit = Math.max(1, Math.min(limit, MAX_SEARCH_LIMIT));
+        return clientRepository.searchRankedByUser(currentUserId, pattern, escaped + "%",
+                        "% " + escaped + "%", boundedLimit).stream()
                 .map(this::mapEntityToDTO)
                 .collect(Collectors.toList());
     }
+    
+    @Override
+    public List<ClientSuggestionDTO> suggestClients(String query, int limit) {
+        return clientTypeaheadIndex.suggest(accessControl.currentUserId(), query, Math.max(1, Math.min(limit, MAX_SEARCH_LIMIT)));
+    }
+    
+    private List<Client> findExactMatches(Long userId, String term) {
+        String upper = term.toUpperCase();
+        if (PAN_PATTERN.matcher(upper).matches()) {
+            return clientRepository.findByUserIdAndPan(userId, upper).map(List::of).orElse(List.of());
+        }
+        if (PHONE_PATTERN.matcher(term).matches()) {
+            return clientRepository.findByUserIdAndPhone(userId, term);
+        }
+        return List.of();
+    }
+    
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
 
     @Override
     public List<ClientDTO> getClientsByRiskProfileAndHorizon(String riskProfile, String investmentHorizon) {
-        User currentUser = getCurrentUser();
-        return clientRepository.findByRiskProfileAndInvestmentHorizon(riskProfile, investmentHorizon).stream()
-                .filter(client -> client.getUser().getId().equals(currentUser.getId()))
+        return clientRepository.findActiveByUserAndRiskProfileAndInvestmentHorizon(
+                        accessControl.currentUserId(), riskProfile, investmentHorizon).stream()
                 .map(this::mapEntityToDTO)
                 .collect(Collectors.toList());
     }
+    
+    @Override
+    public Page<ClientDTO> filterClients(ClientFilterDTO filter, Pageable pageable) {
+        if (filter.getMinAum() != null && filter.getMaxAum() != null && filter.getMinAum() > filter.getMaxAum()) {
+            throw new IllegalArgumentException("minAum must not be greater than maxAum");
+        }
+        Pageable sortedPage = PageRequest.of(pageable.getPageNumber(),
+                Math.min(pageable.getPageSize(), MAX_PAGE_SIZE), resolveSort(pageable.getSort()));
+        Specification<Client> spec = ClientSpecifications.ownedBy(accessControl.currentUserId())
+                .and(ClientSpecifications.filteredBy(filter));
+        return clientRepository.findAll(spec, sortedPage).map(this::mapEntityToDTO);
+    }
 
     @Override
     public long getClientCount() {
-        User currentUser = getCurrentUser();
-        return clientRepository.findByUserId(currentUser.getId()).size();
+        return clientRepository.countByUserId(accessControl.currentUserId());
+    }
+    
+    @Override
+    public List<ClientSegmentDTO> getClientSegments() {
+        return clientRepository.aggregateActiveBySegment(accessControl.currentUserId()).stream()
+                .map(segment -> ClientSegmentDTO.builder()
+                        .riskProfile(segment.getRiskProfile())
+                        .investmentHorizon(segment.getInvestmentHorizon())
+                        .clientCount(segment.getClientCount())
+                        .totalAum(segment.getTotalAum())
+                        .averageAum(segment.getAverageAum())
+                        .build())
+                .collect(Collectors.toList());
     }
 
     @Override
     @Transactional
     public void deactivateClient(Long id) {
         // Verify client belongs to current user
-        Client client = verifyClientOwnership(id);
+        Client client = accessControl.requireOwnedClient(id);
         client.setActive(false);
         clientRepository.save(client);
+        eventPublisher.publishEvent(ClientChangedEvent.of(client));
     }
 
     @Override
     @Transactional
     public void activateClient(Long id) {
         // Verify client belongs to current user
-        Client client = verifyClientOwnership(id);
+        Client client = accessControl.requireOwnedClient(id);
         client.setActive(true);
         clientRepository.save(client);
+        eventPublisher.publishEvent(ClientChangedEvent.of(client));
     }
 
     @Override
     @Transactional
     public DocumentUploadResponse uploadDocument(Long clientId, MultipartFile file, String documentType) throws IOException {
         // Verify client belongs to current user
-        Client client = verifyClientOwnership(clientId);
+        Client client = accessControl.requireOwnedClient(clientId);
         
         logger.info("Uploading document type '{}' for client ID: {}", documentType, clientId);
         
@@ -215,7 +364,7 @@ public class ClientServiceImpl implements ClientService {
         logger.info("Listing all documents for client ID: {}", clientId);
         
         // Verify client belongs to current user
-        verifyClientOwnership(clientId);
+        accessControl.assertOwnsClient(clientId);
         
         String prefix = String.format("clients/%d/documents/", clientId);
         List<S3Object> s3Objects = s3Service.listObjects(prefix);
@@ -228,7 +377,7 @@ public class ClientServiceImpl implements ClientService {
         logger.info("Listing documents of type '{}' for client ID: {}", documentType, clientId);
         
         // Verify client belongs to current user
-        verifyClientOwnership(clientId);
+        accessControl.assertOwnsClient(clientId);
         
         String prefix = String.format("clients/%d/documents/%s/", clientId, documentType);
         List<S3Object> s3Objects = s3Service.listObjects(prefix);
@@ -238,24 +387,89 @@ public class ClientServiceImpl implements ClientService {
     
     @Override
     public Page<ClientDTO> getPagedClients(Pageable pageable, String searchTerm) {
-        User currentUser = getCurrentUser();
-        List<Client> clients;
+        Long currentUserId = accessControl.currentUserId();
+        Pageable sortedPage = PageRequest.of(pageable.getPageNumber(),
+                Math.min(pageable.getPageSize(), MAX_PAGE_SIZE), resolveSort(pageable.getSort()));
+        return clientRepository.findAll(clientFilter(currentUserId, searchTerm), sortedPage)
+                .map(this::mapEntityToDTO);
+    }
+    
+    @Override
+    public ClientScrollDTO scrollClients(String searchTerm, String sort, String direction, int size,
+                                         String cursor, boolean includeCount) {
+        Long currentUserId = accessControl.currentUserId();
+        ClientSortField sortField = ClientSortField.fromParameter(sort);
+        Sort.Direction sortDirection = direction == null || direction.isBlank()
+                ? Sort.Direction.ASC : Sort.Direction.fromString(direction);
+        Sort keysetSort = Sort.by(sortDirection, sortField.getProperty(), "id");
+        int limit = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        ScrollPosition position = cursor == null || cursor.isBlank()
+                ? ScrollPosition.keyset() : decodeCursor(cursor, sortField);
         
-        if (searchTerm != null && !searchTerm.trim().isEmpty()) {
-            clients = clientRepository.searchClientsByUser(currentUser.getId(), searchTerm);
-        } else {
-            clients = clientRepository.findByUserId(currentUser.getId());
-        }
+        Specification<Client> filter = clientFilter(currentUserId, searchTerm);
+        Window<Client> window = clientRepository.findBy(filter,
+                query -> query.sortBy(keysetSort).limit(limit).scroll(position));
         
-        // Manual pagination (not ideal but works for this example)
-        int start = (int) pageable.getOffset();
-        int end = Math.min((start + pageable.getPageSize()), clients.size());
+        String nextCursor = window.hasNext() && !window.isEmpty()
+                ? encodeCursor((KeysetScrollPosition) window.positionAt(window.size() - 1), sortField)
+                : null;
         
-        List<ClientDTO> clientDTOs = clients.subList(start, end).stream()
-                .map(this::mapEntityToDTO)
-                .collect(Collectors.toList());
-        
-        return new PageImpl<>(clientDTOs, pageable, clients.size());
+        return ClientScrollDTO.builder()
+                .content(window.getContent().stream().map(this::mapEntityToDTO).collect(Collectors.toList()))
+                .nextCursor(nextCursor)
+                .hasNext(nextCursor != null)
+                .totalElements(includeCount ? clientRepository.count(filter) : null)
+                .build();
+    }
+    
+    private Specification<Client> clientFilter(Long userId, String searchTerm) {
+        Specification<Client> filter = ClientSpecifications.ownedBy(userId);
+        if (searchTerm != null && !searchTerm.trim().isEmpty()) {
+            filter = filter.and(ClientSpecifications.matching(searchTerm));
+        }
+        return filter;
+    }
+    
+    /**
+     * Restrict sorting to indexed columns, with id as a stable tie-breaker
+     */
+    private Sort resolveSort(Sort requested) {
+        if (requested.isUnsorted()) {
+            return Sort.by(ClientSortField.NAME.getProperty(), "id");
+        }
+        List<Sort.Order> orders = requested.toList();
+        if (orders.size() > 1) {
+            throw new IllegalArgumentException("Clients can only be sorted by one field");
+        }
+        Sort.Order order = orders.get(0);
+        ClientSortField field = ClientSortField.fromParameter(order.getProperty());
+        return Sort.by(order.getDirection(), field.getProperty(), "id");
+    }
+    
+    /**
+     * Opaque cursor: sort field, client id and sort key of the last client in the slice
+     */
+    private String encodeCursor(KeysetScrollPosition position, ClientSortField sortField) {
+        Map<String, ?> keys = position.getKeys();
+        String raw = sortField.name() + CURSOR_SEPARATOR + keys.get("id")
+                + CURSOR_SEPARATOR + keys.get(sortField.getProperty());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    private ScrollPosition decodeCursor(String cursor, ClientSortField sortField) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split(CURSOR_SEPARATOR, 3);
+            if (parts.length != 3 || !parts[0].equals(sortField.name())) {
+                throw new IllegalArgumentException("Cursor does not belong to this sort order");
+            }
+            Map<String, Object> keys = new LinkedHashMap<>();
+            keys.put(sortField.getProperty(), sortField.parseKey(parts[2]));
+            keys.put("id", Long.valueOf(parts[1]));
+            return ScrollPosition.forward(keys);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
     }
     
     private List<ClientDocumentDTO> mapS3ObjectsToDocumentDTOs(List<S3Object> s3Objects, Long clientId) {
@@ -365,8 +579,8 @@ public class ClientServiceImpl implements ClientService {
     public List<ClientDTO> importClientsFromCSV(MultipartFile file) throws IOException {
         logger.debug("Importing clients from CSV file");
         
-        // Get current user
-        User currentUser = getCurrentUser();
+        // Owner of the imported clients, not loaded
+        User currentUser = accessControl.currentUserReference();
         
         // Read CSV content
         String content = new String(file.getBytes());
@@ -460,6 +674,7 @@ public class ClientServiceImpl implements ClientService {
                 
                 // Save client
                 Client savedClient = clientRepository.save(client);
+                eventPublisher.publishEvent(ClientChangedEvent.of(savedClient));
                 importedClients.add(mapEntityToDTO(savedClient));
             } catch (Exception e) {
                 if (e instanceof IOException) {
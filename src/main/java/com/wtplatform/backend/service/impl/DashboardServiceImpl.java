@@ -2,11 +2,17 @@ package com.wtplatform.backend.service.impl;
 
 import com.wtplatform.backend.dto.DashboardStatsDTO;
 import com.wtplatform.backend.dto.TransactionDTO;
+import com.wtplatform.backend.exception.AumNotReadyException;
 import com.wtplatform.backend.repository.ClientRepository;
-import com.wtplatform.backend.service.ClientService;
+import com.wtplatform.backend.repository.TransactionRepository;
+import com.wtplatform.backend.security.AccessControl;
+import com.wtplatform.backend.service.AumEngine;
 import com.wtplatform.backend.service.DashboardService;
-import com.wtplatform.backend.service.TransactionService;
+import com.wtplatform.backend.service.FanOut;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -14,34 +20,62 @@ import java.util.List;
 @Service
 public class DashboardServiceImpl implements DashboardService {
 
+    private static final Logger logger = LoggerFactory.getLogger(DashboardServiceImpl.class);
     private static final int RECENT_TRANSACTIONS_LIMIT = 4;
 
     @Autowired
     private ClientRepository clientRepository;
     
     @Autowired
-    private ClientService clientService;
+    private TransactionRepository transactionRepository;
     
     @Autowired
-    private TransactionService transactionService;
+    private AumEngine aumEngine;
+    
+    @Autowired
+    private FanOut fanOut;
+    
+    @Autowired
+    private AccessControl accessControl;
     
     @Override
     public DashboardStatsDTO getDashboardStats() {
-        // Get user-specific client count
-        long clientCount = clientService.getClientCount();
+        // Resolve the user once; the parts below only need its ID and run in parallel
+        Long userId = accessControl.currentUserId();
         
-        // Calculate total AUM for current user by summing their clients' AUM values
-        double totalAum = clientService.getAllClients().stream()
-                .mapToDouble(clientDTO -> clientDTO.getAum())
-                .sum();
+        // Same valuation as /api/v1/aum/summary rather than the manually maintained Client.aum;
+        // an in-memory read, so it is not forked
+        Double totalAum = cachedTotalAum(userId);
         
-        // Get most recent transactions for the current user
-        List<TransactionDTO> recentTransactions = transactionService.getRecentTransactions(RECENT_TRANSACTIONS_LIMIT);
-        
-        return DashboardStatsDTO.builder()
-                .clientCount(clientCount)
-                .totalAum(totalAum)
-                .recentTransactions(recentTransactions)
-                .build();
+        try (FanOut.Scope scope = fanOut.open()) {
+            FanOut.Subtask<Long> clientCount = scope.fork(() -> clientRepository.countByUserId(userId));
+            FanOut.Subtask<Long> activeClientCount = scope.fork(
+                    () -> clientRepository.countByUserIdAndIsActive(userId, true));
+            
+            FanOut.Subtask<List<TransactionDTO>> recentTransactions = scope.fork(
+                    () -> TransactionDTO.fromEntities(transactionRepository.findRecentWithClientByUserId(
+                            userId, PageRequest.of(0, RECENT_TRANSACTIONS_LIMIT))));
+            
+            scope.join();
+            return DashboardStatsDTO.builder()
+                    .clientCount(clientCount.get())
+                    .activeClientCount(activeClientCount.get())
+                    .totalAum(totalAum)
+                    .recentTransactions(recentTransactions.get())
+                    .build();
+        }
+    }
+
+    /**
+     * The user's AUM from the cached AUM book, or null while the first valuation is still
+     * loading, so the counts and recent transactions still render
+     */
+    private Double cachedTotalAum(Long userId) {
+        try {
+            return aumEngine.current().userAum(userId);
+        } catch (AumNotReadyException e) {
+            logger.debug("Dashboard without AUM: {}", e.getMessage());
+            return null;
+        }
     }
-} 
\ No newline at end of file
+}
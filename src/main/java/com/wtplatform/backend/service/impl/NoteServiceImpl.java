@@ -3,19 +3,15 @@ package com.wtplatform.backend.service.impl;
 import com.wtplatform.backend.dto.NoteDTO;
 import com.wtplatform.backend.model.Client;
 import com.wtplatform.backend.model.Note;
-import com.wtplatform.backend.model.User;
 import com.wtplatform.backend.model.Note.NoteCategory;
-import com.wtplatform.backend.repository.ClientRepository;
 import com.wtplatform.backend.repository.NoteRepository;
-import com.wtplatform.backend.repository.UserRepository;
+import com.wtplatform.backend.security.AccessControl;
 import com.wtplatform.backend.service.NoteService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -30,48 +26,7 @@ public class NoteServiceImpl implements NoteService {
     private NoteRepository noteRepository;
     
     @Autowired
-    private ClientRepository clientRepository;
-    
-    @Autowired
-    private UserRepository userRepository;
-    
-    /**
-     * Get the currently authenticated user
-     * 
-     * @return the current user
-     * @throws RuntimeException if no user is authenticated
-     */
-    private User getCurrentUser() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        if (authentication == null || !authentication.isAuthenticated()) {
-            throw new RuntimeException("No authenticated user found");
-        }
-        
-        String email = authentication.getName();
-        return userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found: " + email));
-    }
-    
-    /**
-     * Verify the client belongs to the current user
-     * 
-     * @param clientId the client ID
-     * @return the client if it belongs to the current user
-     * @throws RuntimeException if the client doesn't belong to the current user
-     */
-    private Client verifyClientOwnership(Long clientId) {
-        User currentUser = getCurrentUser();
-        Client client = clientRepository.findById(clientId)
-                .orElseThrow(() -> new RuntimeException("Client not found with ID: " + clientId));
-        
-        if (!client.getUser().getId().equals(currentUser.getId())) {
-            logger.warn("User {} attempted to access client {} which belongs to user {}", 
-                    currentUser.getId(), clientId, client.getUser().getId());
-            throw new RuntimeException("Access denied: Client does not belong to current user");
-        }
-        
-        return client;
-    }
+    private AccessControl accessControl;
     
     /**
      * Verify the note belongs to a client owned by the current user
@@ -85,7 +40,7 @@ public class NoteServiceImpl implements NoteService {
                 .orElseThrow(() -> new RuntimeException("Note not found with ID: " + noteId));
         
         // Verify the client that owns this note belongs to the current user
-        verifyClientOwnership(note.getClient().getId());
+        accessControl.assertOwnsClient(note.getClient().getId());
         
         return note;
     }
@@ -96,15 +51,14 @@ public class NoteServiceImpl implements NoteService {
         logger.info("Creating new note for client ID: {}", noteDTO.getClientId());
         
         // Verify client belongs to current user
-        Client client = verifyClientOwnership(noteDTO.getClientId());
+        Client client = accessControl.requireOwnedClient(noteDTO.getClientId());
         
         Note note = new Note();
         mapDTOToEntity(noteDTO, note);
         note.setClient(client);
         
         // Set the current user's email as the creator
-        User currentUser = getCurrentUser();
-        note.setCreatedBy(currentUser.getEmail());
+        note.setCreatedBy(accessControl.currentUser().getEmail());
         
         Note savedNote = noteRepository.save(note);
         return mapEntityToDTO(savedNote);
@@ -154,7 +108,7 @@ public class NoteServiceImpl implements NoteService {
         logger.info("Fetching all notes for client ID: {}", clientId);
         
         // Verify client belongs to current user
-        verifyClientOwnership(clientId);
+        accessControl.assertOwnsClient(clientId);
         
         return noteRepository.findByClientId(clientId).stream()
                 .map(this::mapEntityToDTO)
@@ -166,7 +120,7 @@ public class NoteServiceImpl implements NoteService {
         logger.info("Fetching paginated notes for client ID: {}", clientId);
         
         // Verify client belongs to current user
-        verifyClientOwnership(clientId);
+        accessControl.assertOwnsClient(clientId);
         
         return noteRepository.findByClientId(clientId, pageable)
                 .map(this::mapEntityToDTO);
@@ -177,7 +131,7 @@ public class NoteServiceImpl implements NoteService {
         logger.info("Fetching notes for client ID: {} with category: {}", clientId, category);
         
         // Verify client belongs to current user
-        verifyClientOwnership(clientId);
+        accessControl.assertOwnsClient(clientId);
         
         return noteRepository.findByClientIdAndCategory(clientId, category).stream()
                 .map(this::mapEntityToDTO)
@@ -189,7 +143,7 @@ public class NoteServiceImpl implements NoteService {
         logger.info("Fetching pinned notes for client ID: {}", clientId);
         
         // Verify client belongs to current user
-        verifyClientOwnership(clientId);
+        accessControl.assertOwnsClient(clientId);
         
         return noteRepository.findByClientIdAndIsPinnedTrue(clientId).stream()
                 .map(this::mapEntityToDTO)
@@ -201,7 +155,7 @@ public class NoteServiceImpl implements NoteService {
         logger.info("Searching notes for client ID: {} with term: {}", clientId, searchTerm);
         
         // Verify client belongs to current user
-        verifyClientOwnership(clientId);
+        accessControl.assertOwnsClient(clientId);
         
         return noteRepository.searchNotes(clientId, searchTerm).stream()
                 .map(this::mapEntityToDTO)
@@ -223,17 +177,7 @@ public class NoteServiceImpl implements NoteService {
     }
     
     private NoteDTO mapEntityToDTO(Note note) {
-        NoteDTO dto = new NoteDTO();
-        dto.setId(note.getId());
-        dto.setTitle(note.getTitle());
-        dto.setContent(note.getContent());
-        dto.setCreatedAt(note.getCreatedAt());
-        dto.setUpdatedAt(note.getUpdatedAt());
-        dto.setClientId(note.getClient().getId());
-        dto.setCreatedBy(note.getCreatedBy());
-        dto.setCategory(note.getCategory());
-        dto.setPinned(note.isPinned());
-        return dto;
+        return NoteDTO.fromEntity(note);
     }
     
     private void mapDTOToEntity(NoteDTO dto, Note note) {
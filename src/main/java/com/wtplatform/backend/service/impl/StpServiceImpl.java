@@ -1,5 +1,7 @@
 package com.wtplatform.backend.service.impl;
 
+import com.wtplatform.backend.dto.StpBalanceWarningDTO;
+import com.wtplatform.backend.dto.StpProjectionDTO;
 import com.wtplatform.backend.dto.StpSummaryDTO;
 import com.wtplatform.backend.dto.StpTrendDTO;
 import com.wtplatform.backend.dto.StpTransactionDTO;
@@ -7,11 +9,15 @@ import com.wtplatform.backend.exception.InsufficientBalanceException;
 import com.wtplatform.backend.exception.InvalidTransactionException;
 import com.wtplatform.backend.model.Transaction;
 import com.wtplatform.backend.model.FundBalance;
-import com.wtplatform.backend.model.User;
+import com.wtplatform.backend.projection.FundBalanceProjection;
 import com.wtplatform.backend.projection.MonthlyTrendProjection;
+import com.wtplatform.backend.projection.RecurringScheduleProjection;
 import com.wtplatform.backend.repository.TransactionRepository;
 import com.wtplatform.backend.repository.FundBalanceRepository;
-import com.wtplatform.backend.repository.UserRepository;
+import com.wtplatform.backend.repository.StpBalanceWarningRepository;
+import com.wtplatform.backend.security.AccessControl;
+import com.wtplatform.backend.service.FanOut;
+import com.wtplatform.backend.service.StpProjectionEngine;
 import com.wtplatform.backend.service.StpService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -28,6 +34,8 @@ import java.util.stream.Collectors;
 @Slf4j
 public class StpServiceImpl implements StpService {
 
+    private static final int MAX_PROJECTION_MONTHS = 60;
+
     @Autowired
     private TransactionRepository transactionRepository;
 
@@ -35,15 +43,22 @@ public class StpServiceImpl implements StpService {
     private FundBalanceRepository fundBalanceRepository;
 
     @Autowired
-    private UserRepository userRepository;
+    private AccessControl accessControl;
+
+    @Autowired
+    private StpProjectionEngine stpProjectionEngine;
+
+    @Autowired
+    private StpBalanceWarningRepository stpBalanceWarningRepository;
+
+    @Autowired
+    private FanOut fanOut;
 
     @Override
     public StpSummaryDTO getStpSummaryByEmail(String email) {
         log.debug("Getting STP summary for email: {}", email);
-        User user = userRepository.findByEmail(email)
-            .orElseThrow(() -> new RuntimeException("User not found"));
-        log.debug("Found user with ID: {}, email: {}", user.getId(), user.getEmail());
-        return getStpSummary(user.getId());
+        Long userId = accessControl.userIdForEmail(email);
+        return getStpSummary(userId);
     }
 
     @Override
@@ -53,31 +68,38 @@ public class StpServiceImpl implements StpService {
         LocalDate threemonthsLater = today.plusMonths(3);
         log.debug("Date range for expiring STPs: today={}, threemonthsLater={}", today, threemonthsLater);
 
-        // Get active STPs count
-        Long activeStps = transactionRepository.countActiveStpsByUserId(userId);
+        // The five reads are independent, so run them side by side
+        Long activeStps;
+        Long executingToday;
+        Long expiringNext3Months;
+        Long zeroBalanceCount;
+        List<MonthlyTrendProjection> trendResults;
+        try (FanOut.Scope scope = fanOut.open()) {
+            FanOut.Subtask<Long> active = scope.fork(() -> transactionRepository.countActiveStpsByUserId(userId));
+            FanOut.Subtask<Long> executing = scope.fork(() -> transactionRepository.countStpsExecutingToday(userId, today));
+            FanOut.Subtask<Long> expiring = scope.fork(
+                () -> transactionRepository.countStpsExpiringBetween(userId, today, threemonthsLater));
+            // Zero balance count comes from the latest balance scan
+            FanOut.Subtask<Long> zeroBalance = scope.fork(() -> stpBalanceWarningRepository.countByUserId(userId));
+            FanOut.Subtask<List<MonthlyTrendProjection>> trends =
+                scope.fork(() -> transactionRepository.getMonthlyStpTrendsNative(userId));
+            scope.join();
+            activeStps = active.get();
+            executingToday = executing.get();
+            expiringNext3Months = expiring.get();
+            zeroBalanceCount = zeroBalance.get();
+            trendResults = trends.get();
+        }
         log.debug("Active STPs count for userId {}: {}", userId, activeStps);
-
-        // Get executing today count
-        Long executingToday = transactionRepository.countStpsExecutingToday(userId, today);
         log.debug("STPs executing today for userId {}: {}", userId, executingToday);
-
-        // Get expiring in next 3 months
-        Long expiringNext3Months = transactionRepository.countStpsExpiringBetween(userId, today, threemonthsLater);
         log.debug("STPs expiring in next 3 months for userId {}: {}", userId, expiringNext3Months);
-
-        // Get zero balance count
-        Long zeroBalanceCount = transactionRepository.countStpsWithZeroBalance(userId);
-        log.debug("STPs with zero balance for userId {}: {}", userId, zeroBalanceCount);
-        
-        // Get monthly trends with detailed logging
-        log.debug("Fetching monthly STP trends for userId: {}", userId);
-        List<MonthlyTrendProjection> trendResults = transactionRepository.getMonthlyStpTrendsNative(userId);
+        log.debug("STPs with insufficient balance for userId {}: {}", userId, zeroBalanceCount);
         log.debug("Retrieved {} monthly trend records for userId {}", trendResults.size(), userId);
         
         // Log each trend result in detail
         if (trendResults.isEmpty()) {
             log.debug("No trend results found for userId {}", userId);
-        } else {
+        } else if (log.isDebugEnabled()) {
             log.debug("Detailed trend results for userId {}:", userId);
             trendResults.forEach(trend -> {
                 try {
@@ -105,11 +127,7 @@ public class StpServiceImpl implements StpService {
                     trend.getToFund()
                 );
                 log.debug("Mapped trend to DTO - Month: {}, Amount: {}, Count: {}, FromFund: {}, ToFund: {}", 
-                    dto.getMonth() != null ? dto.getMonth() : "null",
-                    dto.getAmount() != null ? dto.getAmount() : "null",
-                    dto.getCount() != null ? dto.getCount() : "null",
-                    dto.getFromFund() != null ? dto.getFromFund() : "null",
-                    dto.getToFund() != null ? dto.getToFund() : "null");
+                    dto.getMonth(), dto.getAmount(), dto.getCount(), dto.getFromFund(), dto.getToFund());
                 return dto;
             })
             .collect(Collectors.toList());
@@ -184,11 +202,14 @@ public class StpServiceImpl implements StpService {
 
     private LocalDate calculateNextExecutionDate(Transaction transaction) {
         LocalDate currentDate = transaction.getNextTransactionDate();
+        // Same rule as the projection: monthly runs stay on the start date's day of month
+        // rather than drifting to the 28th after February
+        int dayOfMonth = (transaction.getStartDate() != null ? transaction.getStartDate() : currentDate).getDayOfMonth();
         return switch (transaction.getFrequency().toUpperCase()) {
             case "DAILY" -> currentDate.plusDays(1);
             case "WEEKLY" -> currentDate.plusWeeks(1);
-            case "MONTHLY" -> currentDate.plusMonths(1);
-            case "QUARTERLY" -> currentDate.plusMonths(3);
+            case "MONTHLY" -> StpProjectionEngine.plusMonthsOnDay(currentDate, 1, dayOfMonth);
+            case "QUARTERLY" -> StpProjectionEngine.plusMonthsOnDay(currentDate, 3, dayOfMonth);
             default -> throw new InvalidTransactionException("Invalid STP frequency");
         };
     }
@@ -207,10 +228,9 @@ public class StpServiceImpl implements StpService {
     @Override
     public List<StpTransactionDTO> getStpListByEmail(String email) {
         log.debug("Getting STP list for email: {}", email);
-        User user = userRepository.findByEmail(email)
-            .orElseThrow(() -> new RuntimeException("User not found"));
+        Long userId = accessControl.userIdForEmail(email);
         
-        List<Transaction> stpTransactions = transactionRepository.findByClientUserIdAndType(user.getId(), "STP");
+        List<Transaction> stpTransactions = transactionRepository.findByClientUserIdAndType(userId, "STP");
         
         return stpTransactions.stream()
             .map(txn -> StpTransactionDTO.builder()
@@ -231,4 +251,40 @@ public class StpServiceImpl implements StpService {
                 .build())
             .collect(Collectors.toList());
     }
-} 
\ No newline at end of file
+
+    @Override
+    @Transactional(readOnly = true)
+    public StpProjectionDTO getStpProjectionByEmail(String email, int months) {
+        Long userId = accessControl.userIdForEmail(email);
+        int horizon = Math.max(1, Math.min(months, MAX_PROJECTION_MONTHS));
+        LocalDate today = LocalDate.now();
+
+        List<RecurringScheduleProjection> schedules =
+            transactionRepository.findActiveRecurringSchedulesByUserId(userId, today);
+        List<FundBalanceProjection> balances = fundBalanceRepository.findBalancesByUserId(userId);
+        log.debug("Projecting {} recurring schedules against {} fund balances for userId {} over {} months",
+            schedules.size(), balances.size(), userId, horizon);
+
+        return stpProjectionEngine.project(schedules, balances, today, horizon);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<StpBalanceWarningDTO> getStpWarningsByEmail(String email) {
+        Long userId = accessControl.userIdForEmail(email);
+
+        return stpBalanceWarningRepository.findByUserIdOrderByNextTransactionDateAscClientNameAsc(userId).stream()
+            .map(warning -> StpBalanceWarningDTO.builder()
+                .transactionId(warning.getTransactionId())
+                .clientId(warning.getClientId())
+                .clientName(warning.getClientName())
+                .fromFund(warning.getFromFund())
+                .toFund(warning.getToFund())
+                .amount(warning.getAmount())
+                .sourceBalance(warning.getSourceBalance())
+                .nextTransactionDate(warning.getNextTransactionDate())
+                .scanDate(warning.getScanDate())
+                .build())
+            .collect(Collectors.toList());
+    }
+}
@@ -1,11 +1,15 @@
 package com.wtplatform.backend.service.impl;
 
 import com.wtplatform.backend.dto.TransactionDTO;
+import com.wtplatform.backend.logging.LogSampler;
 import com.wtplatform.backend.model.Client;
 import com.wtplatform.backend.model.Transaction;
 import com.wtplatform.backend.model.User;
 import com.wtplatform.backend.repository.ClientRepository;
 import com.wtplatform.backend.repository.TransactionRepository;
+import com.wtplatform.backend.security.AccessControl;
+import com.wtplatform.backend.service.DashboardChangedEvent;
+import com.wtplatform.backend.service.DashboardChangedEvent.Topic;
 import com.wtplatform.backend.service.TransactionService;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
@@ -20,6 +24,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
@@ -28,6 +33,7 @@ import java.io.BufferedReader;
 import java.io.InputStreamReader;
 import java.io.IOException;
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
@@ -45,6 +51,8 @@ public class TransactionServiceImpl implements TransactionService {
 
     private final TransactionRepository transactionRepository;
     private final ClientRepository clientRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AccessControl accessControl;
 
     @Override
     @Transactional(readOnly = true)
@@ -60,7 +68,7 @@ public class TransactionServiceImpl implements TransactionService {
         
         try {
             // Only return transactions for clients belonging to the current user
-            Long userId = getUserIdFromAuth(auth);
+            Long userId = accessControl.currentUserId();
             log.info("Extracted user ID: {}", userId);
             
             List<Transaction> transactions = transactionRepository.findByUserId(userId);
@@ -93,7 +101,7 @@ public class TransactionServiceImpl implements TransactionService {
         log.info("Getting transactions for client ID: {}", clientId);
         
         // Check if the client belongs to the current user
-        validateClientAccess(clientId);
+        accessControl.assertOwnsClient(clientId);
         
         List<Transaction> transactions = transactionRepository.findByClientId(clientId);
         log.info("Found {} transactions for client ID: {}", transactions.size(), clientId);
@@ -108,7 +116,7 @@ public class TransactionServiceImpl implements TransactionService {
             clientId, pageable.getPageNumber(), pageable.getPageSize());
             
         // Check if the client belongs to the current user
-        validateClientAccess(clientId);
+        accessControl.assertOwnsClient(clientId);
         
         Page<Transaction> transactionPage = transactionRepository.findByClientId(clientId, pageable);
         
@@ -142,7 +150,7 @@ public class TransactionServiceImpl implements TransactionService {
             log.info("Found {} transactions with type: {}", allTransactionsByType.size(), type);
             
             // Then filter to only include those for clients belonging to the current user
-            Long userId = getUserIdFromAuth(auth);
+            Long userId = accessControl.currentUserId();
             List<Transaction> filteredTransactions = allTransactionsByType.stream()
                     .filter(t -> t.getClient().getUser().getId().equals(userId))
                     .collect(Collectors.toList());
@@ -163,7 +171,7 @@ public class TransactionServiceImpl implements TransactionService {
         log.info("Getting transactions for client ID: {} with type: {}", clientId, type);
         
         // Check if the client belongs to the current user
-        validateClientAccess(clientId);
+        accessControl.assertOwnsClient(clientId);
         
         List<Transaction> transactions = transactionRepository.findByClientIdAndType(clientId, type);
         log.info("Found {} transactions for client ID: {} with type: {}", 
@@ -177,10 +185,8 @@ public class TransactionServiceImpl implements TransactionService {
     public List<TransactionDTO> getTransactionsByStatus(String status) {
         log.info("Getting transactions with status: {}", status);
         
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        
         try {
-            Long userId = getUserIdFromAuth(auth);
+            Long userId = accessControl.currentUserId();
             
             // First get transactions by status
             List<Transaction> allTransactionsByStatus = transactionRepository.findByStatus(status);
@@ -206,10 +212,8 @@ public class TransactionServiceImpl implements TransactionService {
     public List<TransactionDTO> getTransactionsByDateRange(LocalDate startDate, LocalDate endDate) {
         log.info("Getting transactions between {} and {}", startDate, endDate);
         
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        
         try {
-            Long userId = getUserIdFromAuth(auth);
+            Long userId = accessControl.currentUserId();
             
             // First get transactions by date range
             List<Transaction> allTransactionsByDateRange = transactionRepository.findByTransactionDateBetween(startDate, endDate);
@@ -237,7 +241,7 @@ public class TransactionServiceImpl implements TransactionService {
         log.info("Getting transactions for client ID: {} between {} and {}", clientId, startDate, endDate);
         
         // Check if the client belongs to the current user
-        validateClientAccess(clientId);
+        accessControl.assertOwnsClient(clientId);
         
         List<Transaction> transactions = transactionRepository.findByClientIdAndTransactionDateBetween(clientId, startDate, endDate);
         log.info("Found {} transactions for client ID: {} between {} and {}", 
@@ -262,7 +266,7 @@ public class TransactionServiceImpl implements TransactionService {
             
             Client client;
             try {
-                client = validateClientAccess(clientId);
+                client = accessControl.requireOwnedClient(clientId);
                 log.debug("Client validation successful. Client name: {}", client.getName());
             } catch (EntityNotFoundException e) {
                 log.error("Client not found during transaction creation - ClientId: {}", clientId);
@@ -286,6 +290,7 @@ public class TransactionServiceImpl implements TransactionService {
             // Save the transaction
             log.debug("Saving transaction to the database");
             Transaction savedTransaction = transactionRepository.save(transaction);
+            publishChange(client.getUser().getId());
             log.info("Transaction created successfully - ID: {}, Type: {}, Amount: {}, ClientId: {}, ClientName: {}", 
                 savedTransaction.getId(), 
                 savedTransaction.getType(), 
@@ -319,7 +324,7 @@ public class TransactionServiceImpl implements TransactionService {
         
         // Check if the client exists and belongs to the current user
         Long clientId = transactionDTO.getClientId();
-        Client client = validateClientAccess(clientId);
+        Client client = accessControl.requireOwnedClient(clientId);
         
         // Update transaction fields
         existingTransaction.setClient(client);
@@ -331,6 +336,7 @@ public class TransactionServiceImpl implements TransactionService {
         
         // Save the updated transaction
         Transaction updatedTransaction = transactionRepository.save(existingTransaction);
+        publishChange(client.getUser().getId());
         log.info("Successfully updated transaction with ID: {}", id);
         
         return TransactionDTO.fromEntity(updatedTransaction);
@@ -350,93 +356,25 @@ public class TransactionServiceImpl implements TransactionService {
         
         // Delete the transaction
         transactionRepository.delete(transaction);
+        publishChange(transaction.getClient().getUser().getId());
         log.info("Successfully deleted transaction with ID: {}", id);
     }
-    
-    // Helper method to get user ID from authentication
-    private Long getUserIdFromAuth(Authentication auth) {
-        log.debug("Getting user ID from Authentication");
-        log.debug("Authentication principal: {}, type: {}", 
-            auth.getPrincipal(), 
-            auth.getPrincipal() != null ? auth.getPrincipal().getClass().getName() : "null");
-        
-        if (auth.getPrincipal() == null) {
-            log.error("Authentication principal is null");
-            throw new SecurityException("Authentication principal is null");
-        }
-        
-        try {
-            if (auth.getPrincipal() instanceof User) {
-                User user = (User) auth.getPrincipal();
-                log.debug("Principal is User entity with ID: {}", user.getId());
-                return user.getId();
-            } else {
-                log.error("Authentication principal is not a User entity: {}", auth.getPrincipal().getClass().getName());
-                throw new SecurityException("Authentication principal is not a User entity");
-            }
-        } catch (ClassCastException e) {
-            log.error("Failed to cast Authentication principal to User", e);
-            throw new SecurityException("Failed to cast Authentication principal to User", e);
-        }
-    }
-    
-    // Helper method to validate user access to a client
-    private Client validateClientAccess(Long clientId) {
-        log.debug("Validating access to client with ID: {}", clientId);
-        
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        log.debug("Authentication: {}", auth);
-        log.debug("Authentication principal: {}, type: {}", 
-            auth.getPrincipal(), 
-            auth.getPrincipal() != null ? auth.getPrincipal().getClass().getName() : "null");
-        
-        try {
-            User currentUser = (User) auth.getPrincipal();
-            log.debug("Current user ID: {}", currentUser.getId());
-            
-            Client client = clientRepository.findById(clientId)
-                    .orElseThrow(() -> new EntityNotFoundException("Client not found with id: " + clientId));
-            log.debug("Client found with ID: {}, belongs to user ID: {}", 
-                client.getId(), client.getUser().getId());
-            
-            if (!client.getUser().getId().equals(currentUser.getId())) {
-                log.warn("Access denied: User ID {} tried to access client ID {} belonging to user ID {}",
-                    currentUser.getId(), clientId, client.getUser().getId());
-                throw new SecurityException("You do not have access to this client");
-            }
-            
-            log.debug("Access validated for client ID: {}", clientId);
-            return client;
-        } catch (ClassCastException e) {
-            log.error("Failed to cast Authentication principal to User", e);
-            throw new SecurityException("Failed to cast Authentication principal to User", e);
-        }
+
+    /**
+     * Tell live dashboards of the owning user to refresh once this transaction commits
+     */
+    private void publishChange(Long userId) {
+        eventPublisher.publishEvent(DashboardChangedEvent.forUser(userId, Topic.DASHBOARD, Topic.STP));
     }
     
     // Helper method to validate user access to a transaction
     private void validateUserAccess(Transaction transaction) {
-        log.debug("Validating access to transaction with ID: {}", transaction.getId());
-        
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        log.debug("Authentication principal: {}, type: {}", 
-            auth.getPrincipal(), 
-            auth.getPrincipal() != null ? auth.getPrincipal().getClass().getName() : "null");
-        
-        try {
-            User currentUser = (User) auth.getPrincipal();
-            log.debug("Current user ID: {}", currentUser.getId());
-            log.debug("Transaction client user ID: {}", transaction.getClient().getUser().getId());
-            
-            if (!transaction.getClient().getUser().getId().equals(currentUser.getId())) {
-                log.warn("Access denied: User ID {} tried to access transaction ID {} belonging to user ID {}",
-                    currentUser.getId(), transaction.getId(), transaction.getClient().getUser().getId());
-                throw new SecurityException("You do not have access to this transaction");
-            }
-            
-            log.debug("Access validated for transaction ID: {}", transaction.getId());
-        } catch (ClassCastException e) {
-            log.error("Failed to cast Authentication principal to User", e);
-            throw new SecurityException("Failed to cast Authentication principal to User", e);
+        Long userId = accessControl.currentUserId();
+        Long ownerId = transaction.getClient().getUser().getId();
+        if (!ownerId.equals(userId)) {
+            log.warn("Access denied: User ID {} tried to access transaction ID {} belonging to user ID {}",
+                userId, transaction.getId(), ownerId);
+            throw new SecurityException("You do not have access to this transaction");
         }
     }
 
@@ -445,10 +383,8 @@ public class TransactionServiceImpl implements TransactionService {
     public List<TransactionDTO> getRecentTransactions(int limit) {
         log.info("Getting {} most recent transactions", limit);
         
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        
         try {
-            Long userId = getUserIdFromAuth(auth);
+            Long userId = accessControl.currentUserId();
             
             // Use Spring's Pageable to limit results
             Pageable pageable = PageRequest.of(0, limit);
@@ -476,7 +412,7 @@ public class TransactionServiceImpl implements TransactionService {
         try (BufferedReader reader = new BufferedReader(new InputStreamReader(file.getInputStream()));
              CSVParser csvParser = new CSVParser(reader, CSVFormat.DEFAULT.withFirstRecordAsHeader())) {
             
-            Long userId = getUserIdFromAuth(SecurityContextHolder.getContext().getAuthentication());
+            Long userId = accessControl.currentUserId();
             log.debug("Processing CSV import for user ID: {}", userId);
             
             // Create a map of clientId to Client entity for quick access
@@ -489,6 +425,8 @@ public class TransactionServiceImpl implements TransactionService {
             
             List<Transaction> importedTransactions = new ArrayList<>();
             List<String> errors = new ArrayList<>();
+            // Every row error is reported in the summary below; a broken file logs only the first few
+            LogSampler rowErrorLog = new LogSampler(20, Duration.ofMinutes(1));
             
             for (CSVRecord record : csvParser) {
                 log.debug("Processing row {}", record.getRecordNumber());
@@ -563,7 +501,9 @@ public class TransactionServiceImpl implements TransactionService {
                         transactionDate = LocalDate.parse(transactionDateStr, DateTimeFormatter.ISO_DATE);
                         log.debug("Row {}: Successfully parsed transaction date to: {}", record.getRecordNumber(), transactionDate);
                     } catch (DateTimeParseException e) {
-                        log.error("Row {}: Failed to parse transaction date '{}'. Error: {}", record.getRecordNumber(), transactionDateStr, e.getMessage());
+                        if (rowErrorLog.sample()) {
+                            log.error("Row {}: Failed to parse transaction date '{}'. Error: {}", record.getRecordNumber(), transactionDateStr, e.getMessage());
+                        }
                         errors.add("Row " + record.getRecordNumber() + ": Invalid transaction date format: " + transactionDateStr + ". Use yyyy-MM-dd format.");
                         continue;
                     }
@@ -598,7 +538,9 @@ public class TransactionServiceImpl implements TransactionService {
                             transaction.setStartDate(startDate);
                             log.debug("Row {}: Successfully parsed start date to: {}", record.getRecordNumber(), startDate);
                         } catch (DateTimeParseException e) {
-                            log.error("Row {}: Failed to parse start date '{}'. Error: {}", record.getRecordNumber(), startDateStr, e.getMessage());
+                            if (rowErrorLog.sample()) {
+                                log.error("Row {}: Failed to parse start date '{}'. Error: {}", record.getRecordNumber(), startDateStr, e.getMessage());
+                            }
                             errors.add("Row " + record.getRecordNumber() + ": Invalid start date format: " + startDateStr);
                             continue;
                         }
@@ -611,7 +553,9 @@ public class TransactionServiceImpl implements TransactionService {
                             transaction.setEndDate(endDate);
                             log.debug("Row {}: Successfully parsed end date to: {}", record.getRecordNumber(), endDate);
                         } catch (DateTimeParseException e) {
-                            log.error("Row {}: Failed to parse end date '{}'. Error: {}", record.getRecordNumber(), endDateStr, e.getMessage());
+                            if (rowErrorLog.sample()) {
+                                log.error("Row {}: Failed to parse end date '{}'. Error: {}", record.getRecordNumber(), endDateStr, e.getMessage());
+                            }
                             errors.add("Row " + record.getRecordNumber() + ": Invalid end date format: " + endDateStr);
                             continue;
                         }
@@ -624,7 +568,9 @@ public class TransactionServiceImpl implements TransactionService {
                             transaction.setNextTransactionDate(nextTransactionDate);
                             log.debug("Row {}: Successfully parsed next transaction date to: {}", record.getRecordNumber(), nextTransactionDate);
                         } catch (DateTimeParseException e) {
-                            log.error("Row {}: Failed to parse next transaction date '{}'. Error: {}", record.getRecordNumber(), nextTransactionDateStr, e.getMessage());
+                            if (rowErrorLog.sample()) {
+                                log.error("Row {}: Failed to parse next transaction date '{}'. Error: {}", record.getRecordNumber(), nextTransactionDateStr, e.getMessage());
+                            }
                             errors.add("Row " + record.getRecordNumber() + ": Invalid next transaction date format: " + nextTransactionDateStr);
                             continue;
                         }
@@ -637,8 +583,8 @@ public class TransactionServiceImpl implements TransactionService {
                             installmentNumberStr,
                             installmentNumberStr.length());
                             
-                        // Debug each character to check for hidden characters
-                        if (!installmentNumberStr.isEmpty()) {
+                        // Debug each character to check for hidden characters; only built when logged
+                        if (log.isDebugEnabled() && !installmentNumberStr.isEmpty()) {
                             StringBuilder charDebug = new StringBuilder();
                             for (char c : installmentNumberStr.toCharArray()) {
                                 charDebug.append(String.format("[%c:0x%02X]", c, (int) c));
@@ -666,7 +612,9 @@ public class TransactionServiceImpl implements TransactionService {
                                     record.getRecordNumber(), 
                                     trimmedValue, 
                                     installmentNumberStr);
-                                log.error(errorMsg);
+                                if (rowErrorLog.sample()) {
+                                    log.error(errorMsg);
+                                }
                                 errors.add(errorMsg);
                                 continue;
                             }
@@ -682,8 +630,8 @@ public class TransactionServiceImpl implements TransactionService {
                             totalInstallmentsStr,
                             totalInstallmentsStr.length());
                             
-                        // Debug each character to check for hidden characters
-                        if (!totalInstallmentsStr.isEmpty()) {
+                        // Debug each character to check for hidden characters; only built when logged
+                        if (log.isDebugEnabled() && !totalInstallmentsStr.isEmpty()) {
                             StringBuilder charDebug = new StringBuilder();
                             for (char c : totalInstallmentsStr.toCharArray()) {
                                 charDebug.append(String.format("[%c:0x%02X]", c, (int) c));
@@ -711,7 +659,9 @@ public class TransactionServiceImpl implements TransactionService {
                                     record.getRecordNumber(), 
                                     trimmedValue, 
                                     totalInstallmentsStr);
-                                log.error(errorMsg);
+                                if (rowErrorLog.sample()) {
+                                    log.error(errorMsg);
+                                }
                                 errors.add(errorMsg);
                                 continue;
                             }
@@ -747,11 +697,18 @@ public class TransactionServiceImpl implements TransactionService {
                     log.debug("Row {}: Successfully processed transaction", record.getRecordNumber());
                     
                 } catch (Exception e) {
-                    log.error("Row {}: Unexpected error while processing record: {}", record.getRecordNumber(), e.getMessage(), e);
+                    if (rowErrorLog.sample()) {
+                        log.error("Row {}: Unexpected error while processing record: {}", record.getRecordNumber(), e.getMessage(), e);
+                    }
                     errors.add("Row " + record.getRecordNumber() + ": Error processing record: " + e.getMessage());
                 }
             }
             
+            long unloggedRowErrors = rowErrorLog.drainSuppressed();
+            if (unloggedRowErrors > 0) {
+                log.warn("{} more row errors not logged individually", unloggedRowErrors);
+            }
+            
             // If there are errors, log them and throw an exception
             if (!errors.isEmpty()) {
                 String errorMessage = String.join("\n", errors);
@@ -763,6 +720,7 @@ public class TransactionServiceImpl implements TransactionService {
             List<Transaction> savedTransactions = transactionRepository.saveAll(importedTransactions);
             log.info("Successfully imported {} transactions", savedTransactions.size());
             
+            publishChange(userId);
             return TransactionDTO.fromEntities(savedTransactions);
             
         } catch (IOException e) {
@@ -0,0 +1,14 @@
+-- A client's notes are listed newest first
+CREATE INDEX IF NOT EXISTS idx_notes_client_created ON notes(client_id, created_at);
+
+-- A client's transaction history and recent activity, newest first with id as tie-breaker;
+-- also serves the joins from an advisor's clients to their transactions
+CREATE INDEX IF NOT EXISTS idx_transactions_client_date
+    ON transactions_extended(client_id, transaction_date DESC, id DESC);
+
+-- Dashboard counts, the due-STP scan and cash-flow projection only read active SIP/STP/SWP
+-- schedules, a small slice of the table
+CREATE INDEX IF NOT EXISTS idx_transactions_active_schedules
+    ON transactions_extended(client_id, next_transaction_date)
+    WHERE lower(status) = 'active' AND lower(transaction_type) IN ('sip', 'stp', 'swp');
+
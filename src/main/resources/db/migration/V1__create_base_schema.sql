@@ -0,0 +1,83 @@
+-- Tables the later migrations build on. Databases that predate Flyway already have these
+-- (created by Hibernate) and are baselined at this version instead of running it.
+CREATE TABLE users (
+    id BIGSERIAL PRIMARY KEY,
+    email VARCHAR(255) NOT NULL UNIQUE,
+    password VARCHAR(255) NOT NULL,
+    role VARCHAR(255) NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL
+);
+
+CREATE TABLE clients (
+    id BIGSERIAL PRIMARY KEY,
+    user_id BIGINT NOT NULL REFERENCES users(id),
+    name VARCHAR(255) NOT NULL,
+    email VARCHAR(255) NOT NULL UNIQUE,
+    phone VARCHAR(255) NOT NULL,
+    pan VARCHAR(255) NOT NULL UNIQUE,
+    address VARCHAR(255) NOT NULL,
+    city VARCHAR(255) NOT NULL,
+    state VARCHAR(255) NOT NULL,
+    pincode VARCHAR(255) NOT NULL,
+    riskprofile VARCHAR(255) NOT NULL,
+    investmenthorizon VARCHAR(255) NOT NULL,
+    aum DOUBLE PRECISION NOT NULL,
+    isactive BOOLEAN NOT NULL,
+    createdat TIMESTAMP NOT NULL,
+    updatedat TIMESTAMP NOT NULL
+);
+
+CREATE TABLE notes (
+    id BIGSERIAL PRIMARY KEY,
+    client_id BIGINT NOT NULL REFERENCES clients(id),
+    title VARCHAR(500) NOT NULL,
+    content TEXT NOT NULL,
+    category VARCHAR(255) NOT NULL
+        CHECK (category IN ('GENERAL', 'MEETING', 'CALL', 'TASK', 'REMINDER', 'FOLLOW_UP')),
+    is_pinned BOOLEAN,
+    created_by VARCHAR(255),
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    updated_at TIMESTAMP WITH TIME ZONE
+);
+
+CREATE TABLE transactions_extended (
+    id BIGSERIAL PRIMARY KEY,
+    client_id BIGINT NOT NULL REFERENCES clients(id),
+    client_name VARCHAR(128),
+    transaction_id VARCHAR(64),
+    transaction_type VARCHAR(32) NOT NULL,
+    transaction_date DATE,
+    amount DECIMAL(20,6) NOT NULL,
+    units DECIMAL(20,6),
+    nav_at_txn_time DECIMAL(20,6),
+    scheme_code VARCHAR(32),
+    fund_name VARCHAR(128),
+    from_fund VARCHAR(128),
+    to_fund VARCHAR(128),
+    asset_class VARCHAR(32),
+    mode VARCHAR(32),
+    status VARCHAR(32),
+    remarks VARCHAR(255),
+    is_recurring BOOLEAN,
+    frequency VARCHAR(32),
+    start_date DATE,
+    end_date DATE,
+    next_transaction_date DATE,
+    installment_number INTEGER,
+    total_installments INTEGER,
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL
+);
+
+CREATE TABLE amfi_schemes (
+    schemecode VARCHAR(255) PRIMARY KEY,
+    schemename VARCHAR(255),
+    schemetype VARCHAR(255),
+    category VARCHAR(255),
+    amcname VARCHAR(255),
+    isin VARCHAR(255),
+    isactive BOOLEAN,
+    lastnavvalue DECIMAL(38,2),
+    lastnavdate DATE
+);
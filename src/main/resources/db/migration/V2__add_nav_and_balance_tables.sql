@@ -1,5 +1,5 @@
 -- Create nav_history table
-CREATE TABLE nav_history (
+CREATE TABLE IF NOT EXISTS nav_history (
     id BIGSERIAL PRIMARY KEY,
     fund_id BIGINT NOT NULL,
     nav_date DATE NOT NULL,
@@ -10,10 +10,10 @@ CREATE TABLE nav_history (
 );
 
 -- Create index on fund_id and nav_date for faster lookups
-CREATE INDEX idx_nav_history_fund_date ON nav_history(fund_id, nav_date);
+CREATE INDEX IF NOT EXISTS idx_nav_history_fund_date ON nav_history(fund_id, nav_date);
 
 -- Create fund_balance table
-CREATE TABLE fund_balance (
+CREATE TABLE IF NOT EXISTS fund_balance (
     id BIGSERIAL PRIMARY KEY,
     fund_id VARCHAR(128) NOT NULL,
     client_id BIGINT NOT NULL,
@@ -25,7 +25,7 @@ CREATE TABLE fund_balance (
 );
 
 -- Create index on fund_id and client_id for faster lookups
-CREATE INDEX idx_fund_balance_fund_client ON fund_balance(fund_id, client_id);
+CREATE INDEX IF NOT EXISTS idx_fund_balance_fund_client ON fund_balance(fund_id, client_id);
 
 -- Create index on client_id for faster client-based queries
-CREATE INDEX idx_fund_balance_client ON fund_balance(client_id); 
\ No newline at end of file
+CREATE INDEX IF NOT EXISTS idx_fund_balance_client ON fund_balance(client_id); 
\ No newline at end of file
@@ -0,0 +1,21 @@
+-- Materialised output of the daily STP balance scan
+CREATE TABLE IF NOT EXISTS stp_balance_warnings (
+    id BIGSERIAL PRIMARY KEY,
+    transaction_id BIGINT NOT NULL,
+    client_id BIGINT NOT NULL,
+    user_id BIGINT NOT NULL,
+    client_name VARCHAR(255),
+    from_fund VARCHAR(128),
+    to_fund VARCHAR(128),
+    amount DECIMAL(20,6) NOT NULL,
+    source_balance DECIMAL(20,6),
+    next_transaction_date DATE NOT NULL,
+    scan_date DATE NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT NOW()
+);
+
+-- Summary count and warning list are read per user ordered by due date
+CREATE INDEX IF NOT EXISTS idx_stp_warning_user_next ON stp_balance_warnings(user_id, next_transaction_date);
+
+-- Supports the scan's join from STPs to their client-scoped source balance
+CREATE INDEX IF NOT EXISTS idx_fund_balance_client_fund ON fund_balance(client_id, fund_id);
@@ -0,0 +1,17 @@
+-- End-of-day AUM per (user, client, asset class), written after each NAV import. The asset
+-- class is copied from transaction data as entered, so it is not length-bounded here
+CREATE TABLE IF NOT EXISTS aum_snapshots (
+    id BIGSERIAL PRIMARY KEY,
+    snapshot_date DATE NOT NULL,
+    user_id BIGINT NOT NULL,
+    client_id BIGINT NOT NULL,
+    asset_class TEXT NOT NULL,
+    aum DECIMAL(20,2) NOT NULL,
+    CONSTRAINT uk_aum_snapshot_user_date_client_class UNIQUE (user_id, snapshot_date, client_id, asset_class)
+);
+
+-- A table Hibernate created before Flyway owned the schema has VARCHAR(32)
+ALTER TABLE aum_snapshots ALTER COLUMN asset_class TYPE TEXT;
+
+-- Snapshot rewrites delete a whole day at a time
+CREATE INDEX IF NOT EXISTS idx_aum_snapshot_date ON aum_snapshots(snapshot_date);
@@ -0,0 +1,5 @@
+-- Client list pages are filtered by owner and sorted by one whitelisted column with id
+-- as tie-breaker; these serve both OFFSET pages and keyset continuation
+CREATE INDEX IF NOT EXISTS idx_clients_user_name ON clients(user_id, name, id);
+CREATE INDEX IF NOT EXISTS idx_clients_user_created ON clients(user_id, createdat, id);
+CREATE INDEX IF NOT EXISTS idx_clients_user_aum ON clients(user_id, aum, id);
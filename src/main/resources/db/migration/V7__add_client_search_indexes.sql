@@ -0,0 +1,13 @@
+-- Client search matches a term anywhere in name, PAN, email or phone. Trigram GIN indexes
+-- serve those LIKE '%term%' predicates (and prefix LIKE for short terms) instead of a
+-- sequential scan; btree_gin lets each index also narrow by advisor.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE EXTENSION IF NOT EXISTS btree_gin;
+
+CREATE INDEX IF NOT EXISTS idx_clients_name_trgm ON clients USING gin (user_id, lower(name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_clients_pan_trgm ON clients USING gin (user_id, lower(pan) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_clients_email_trgm ON clients USING gin (user_id, lower(email) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_clients_phone_trgm ON clients USING gin (user_id, lower(phone) gin_trgm_ops);
+
+-- Exact phone lookups; PAN already has its unique index
+CREATE INDEX IF NOT EXISTS idx_clients_user_phone ON clients(user_id, phone);
@@ -0,0 +1,4 @@
+-- Client counts and AUM per risk profile / horizon are aggregated per advisor; with aum
+-- included these read the index alone instead of the client rows
+CREATE INDEX IF NOT EXISTS idx_clients_user_segment
+    ON clients(user_id, riskprofile, investmenthorizon, isactive) INCLUDE (aum);
@@ -0,0 +1,40 @@
+-- Hibernate allocates ids for these tables 50 at a time from their id sequences (pooled
+-- optimizer), which needs the sequences to advance by 50. The column defaults keep using the
+-- same sequences, so SQL inserts and Hibernate never hand out the same id.
+DO $$
+DECLARE
+    t TEXT;
+    seq TEXT;
+    next_id BIGINT;
+    used BIGINT;
+BEGIN
+    FOREACH t IN ARRAY ARRAY['clients', 'notes', 'transactions_extended', 'nav_history', 'fund_balance', 'aum_snapshots']
+    LOOP
+        next_id := 1;
+        IF EXISTS (SELECT 1 FROM pg_attribute
+                   WHERE attrelid = t::regclass AND attname = 'id' AND attidentity <> '') THEN
+            -- Hibernate does not see identity sequences (information_schema.sequences leaves
+            -- them out): replace it with a plain sequence that continues where it left off
+            EXECUTE format('SELECT nextval(%L)', pg_get_serial_sequence(t, 'id')) INTO next_id;
+            EXECUTE format('ALTER TABLE %I ALTER COLUMN id DROP IDENTITY', t);
+        END IF;
+
+        -- A serial column owns its sequence; a schema Hibernate created has a standalone
+        -- <table>_id_seq and no column default
+        seq := COALESCE(pg_get_serial_sequence(t, 'id'), to_regclass(t || '_id_seq')::TEXT);
+        IF seq IS NULL THEN
+            seq := quote_ident(t || '_id_seq');
+            EXECUTE format('CREATE SEQUENCE %s OWNED BY %I.id', seq, t);
+        END IF;
+
+        -- The pooled optimizer takes the first value it fetches, X, as the top of its block
+        -- and hands out X-49..X: that value must be a whole block above every id in use
+        EXECUTE format('SELECT CASE WHEN is_called THEN last_value ELSE last_value - 1 END FROM %s', seq)
+            INTO used;
+        EXECUTE format('SELECT GREATEST(%s, %s, COALESCE(MAX(id), 0)) FROM %I', used, next_id - 1, t)
+            INTO used;
+        EXECUTE format('ALTER SEQUENCE %s INCREMENT BY 50', seq);
+        PERFORM setval(seq, used + 50, false);
+        EXECUTE format('ALTER TABLE %I ALTER COLUMN id SET DEFAULT nextval(%L::regclass)', t, seq);
+    END LOOP;
+END $$;
@@ -0,0 +1,111 @@
+package com.wtplatform.backend.benchmark;
+
+import com.wtplatform.backend.repository.ClientRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import java.sql.Connection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ranked client search of one advisor over 1M clients (1000 advisors) with the V7 trigram
+ * indexes. Needs Docker for the PostgreSQL container.
+ *
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ *   -Dexec.mainClass=com.wtplatform.backend.benchmark.ClientSearchBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ClientSearchBenchmark {
+
+	private static final String SEED_SQL = """
+			INSERT INTO clients (user_id, name, pan, email, phone)
+			SELECT 1 + i % 1000,
+			       (ARRAY['Aarav','Vivaan','Aditya','Ananya','Diya','Ishaan','Kavya','Rohan','Saanvi','Vihaan',
+			              'Priya','Rahul','Sneha','Arjun','Meera','Karan','Pooja','Nikhil','Riya','Siddharth'])[1 + i % 20]
+			       || ' ' ||
+			       (ARRAY['Sharma','Verma','Iyer','Reddy','Patel','Gupta','Nair','Menon','Kulkarni','Joshi',
+			              'Rao','Das','Bose','Mehta','Shah','Kapoor','Malhotra','Chopra','Pillai','Singh'])[1 + (i / 20) % 20]
+			       || ' ' || i,
+			       translate(upper(substr(md5(i::text), 1, 5)), '0123456789', 'ABCDEFGHIJ')
+			           || lpad((i % 10000)::text, 4, '0') || 'K',
+			       'client' || i || '@example.com',
+			       '9' || lpad(i::text, 9, '0')
+			FROM generate_series(1, 1000000) AS i
+			""";
+
+	@Param({"sha", "rohan", "kapoor 4", "client12345", "ab"})
+	private String term;
+
+	private PostgreSQLContainer<?> postgres;
+	private SingleConnectionDataSource dataSource;
+	private NamedParameterJdbcTemplate jdbc;
+
+	@Setup
+	public void setUp() throws Exception {
+		postgres = new PostgreSQLContainer<>(DockerImageName.parse("postgres:latest"));
+		postgres.start();
+		dataSource = new SingleConnectionDataSource(postgres.getJdbcUrl(), postgres.getUsername(),
+				postgres.getPassword(), true);
+		jdbc = new NamedParameterJdbcTemplate(dataSource);
+		jdbc.getJdbcTemplate().execute("CREATE TABLE clients (id BIGSERIAL PRIMARY KEY, user_id BIGINT NOT NULL, "
+				+ "name VARCHAR(255) NOT NULL, pan VARCHAR(255) NOT NULL, email VARCHAR(255) NOT NULL, "
+				+ "phone VARCHAR(255) NOT NULL)");
+		jdbc.getJdbcTemplate().execute(SEED_SQL);
+		try (Connection connection = dataSource.getConnection()) {
+			ScriptUtils.executeSqlScript(connection,
+					new ClassPathResource("db/migration/V7__add_client_search_indexes.sql"));
+		}
+		jdbc.getJdbcTemplate().execute("ANALYZE clients");
+	}
+
+	@TearDown
+	public void tearDown() {
+		dataSource.destroy();
+		postgres.stop();
+	}
+
+	@Benchmark
+	public List<Long> search() {
+		String escaped = term.toLowerCase();
+		String pattern = term.length() < 3 ? escaped + "%" : "%" + escaped + "%";
+		MapSqlParameterSource params = new MapSqlParameterSource()
+				.addValue("userId", 42L)
+				.addValue("pattern", pattern)
+				.addValue("prefix", escaped + "%")
+				.addValue("wordPrefix", "% " + escaped + "%")
+				.addValue("limit", 20);
+		return jdbc.query(ClientRepository.RANKED_SEARCH_SQL, params, (rs, row) -> rs.getLong("id"));
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder()
+				.include(ClientSearchBenchmark.class.getSimpleName())
+				.build()).run();
+	}
+}
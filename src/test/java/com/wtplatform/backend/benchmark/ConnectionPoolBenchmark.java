@@ -0,0 +1,107 @@
+package com.wtplatform.backend.benchmark;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load test of one short read transaction per request from 32 concurrent callers, with a
+ * connection opened per transaction (the former DriverManagerDataSource) and with the
+ * Hikari pool configured as in application.properties. Sample mode reports p50/p99/p99.9.
+ * Needs Docker for the PostgreSQL container.
+ *
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ *   -Dexec.mainClass=com.wtplatform.backend.benchmark.ConnectionPoolBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(32)
+@Fork(1)
+public class ConnectionPoolBenchmark {
+
+	@Param({"driver-manager", "hikari"})
+	private String pool;
+
+	private PostgreSQLContainer<?> postgres;
+	private DataSource dataSource;
+	private JdbcTemplate jdbc;
+	private TransactionTemplate readOnlyTransaction;
+
+	@Setup
+	public void setUp() {
+		postgres = new PostgreSQLContainer<>(DockerImageName.parse("postgres:latest"));
+		postgres.start();
+		dataSource = "hikari".equals(pool) ? hikari() : new DriverManagerDataSource(
+				postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+		jdbc = new JdbcTemplate(dataSource);
+		jdbc.execute("CREATE TABLE clients (id BIGSERIAL PRIMARY KEY, user_id BIGINT NOT NULL, name VARCHAR(255))");
+		jdbc.execute("INSERT INTO clients (user_id, name) SELECT 1 + i % 100, 'client ' || i FROM generate_series(1, 10000) AS i");
+		jdbc.execute("CREATE INDEX idx_clients_user_id ON clients (user_id)");
+		readOnlyTransaction = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+		readOnlyTransaction.setReadOnly(true);
+	}
+
+	@TearDown
+	public void tearDown() {
+		if (dataSource instanceof HikariDataSource hikari) {
+			hikari.close();
+		}
+		postgres.stop();
+	}
+
+	@Benchmark
+	public List<String> readTransaction() {
+		long userId = 1 + ThreadLocalRandom.current().nextInt(100);
+		return readOnlyTransaction.execute(status -> jdbc.queryForList(
+				"SELECT name FROM clients WHERE user_id = ? ORDER BY id LIMIT 20", String.class, userId));
+	}
+
+	private HikariDataSource hikari() {
+		HikariConfig config = new HikariConfig();
+		config.setJdbcUrl(postgres.getJdbcUrl());
+		config.setUsername(postgres.getUsername());
+		config.setPassword(postgres.getPassword());
+		config.setMaximumPoolSize(20);
+		config.setMinimumIdle(5);
+		config.setConnectionTimeout(3000);
+		config.addDataSourceProperty("prepareThreshold", "3");
+		config.addDataSourceProperty("preparedStatementCacheQueries", "256");
+		config.addDataSourceProperty("preparedStatementCacheSizeMiB", "5");
+		return new HikariDataSource(config);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder()
+				.include(ConnectionPoolBenchmark.class.getSimpleName())
+				.build()).run();
+	}
+}
@@ -0,0 +1,92 @@
+package com.wtplatform.backend.benchmark;
+
+import com.wtplatform.backend.model.User;
+import com.wtplatform.backend.security.JwtUtils;
+import com.wtplatform.backend.security.VerifiedToken;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request JWT verification: a parser and key built per call (as before), the shared
+ * parser, and the verified-token cache.
+ *
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ *   -Dexec.mainClass=com.wtplatform.backend.benchmark.JwtVerifyBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtVerifyBenchmark {
+
+	private static final String SECRET = "wealthtreeSecretKey123456789012345678901234567890";
+
+	private JwtUtils uncached;
+	private JwtUtils cached;
+	private String token;
+
+	@Setup
+	public void setUp() {
+		uncached = jwtUtils(0);
+		cached = jwtUtils(10000);
+		User user = new User();
+		user.setId(42L);
+		user.setEmail("advisor@example.com");
+		user.setRole("USER");
+		token = cached.generateToken(user);
+	}
+
+	@Benchmark
+	public Claims parserPerCall() {
+		return Jwts.parserBuilder()
+				.setSigningKey(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)))
+				.build()
+				.parseClaimsJws(token)
+				.getBody();
+	}
+
+	@Benchmark
+	public VerifiedToken sharedParser() {
+		return uncached.verifyAndParse(token);
+	}
+
+	@Benchmark
+	public VerifiedToken verifiedCache() {
+		return cached.verifyAndParse(token);
+	}
+
+	private static JwtUtils jwtUtils(int cacheSize) {
+		JwtUtils jwtUtils = new JwtUtils();
+		ReflectionTestUtils.setField(jwtUtils, "jwtSecret", SECRET);
+		ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", 3_600_000L);
+		ReflectionTestUtils.setField(jwtUtils, "verifiedCacheMaxSize", cacheSize);
+		jwtUtils.init();
+		return jwtUtils;
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder()
+				.include(JwtVerifyBenchmark.class.getSimpleName())
+				.build()).run();
+	}
+}
@@ -0,0 +1,122 @@
+package com.wtplatform.backend.benchmark;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request throughput of 16 threads that each log like a transaction request does: two INFO
+ * lines written to a file, and per-row DEBUG lines that are disabled. The file is written
+ * inline (sync) or through the prod profile's bounded, non-blocking queue (async); the
+ * DEBUG lines are concatenated eagerly (as before) or parameterized.
+ *
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ *   -Dexec.mainClass=com.wtplatform.backend.benchmark.LoggingBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(16)
+@Fork(1)
+public class LoggingBenchmark {
+
+	private static final int ROWS = 20;
+
+	@Param({"sync", "async"})
+	private String appender;
+
+	private LoggerContext context;
+	private Logger log;
+	private Path file;
+
+	@Setup
+	public void setUp() throws Exception {
+		file = Files.createTempFile("logging-benchmark", ".log");
+		context = new LoggerContext();
+
+		PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+		encoder.setContext(context);
+		encoder.setPattern("%d{yyyy-MM-dd HH:mm:ss.SSS} [%thread] %-5level %logger{36} - %msg%n");
+		encoder.start();
+		FileAppender<ILoggingEvent> fileAppender = new FileAppender<>();
+		fileAppender.setContext(context);
+		fileAppender.setFile(file.toString());
+		fileAppender.setEncoder(encoder);
+		fileAppender.start();
+
+		Appender<ILoggingEvent> root = fileAppender;
+		if (appender.equals("async")) {
+			AsyncAppender async = new AsyncAppender();
+			async.setContext(context);
+			async.setQueueSize(8192);
+			async.setDiscardingThreshold(1024);
+			async.setNeverBlock(true);
+			async.addAppender(fileAppender);
+			async.start();
+			root = async;
+		}
+		log = context.getLogger("com.wtplatform.backend.service.impl.TransactionServiceImpl");
+		log.setLevel(Level.INFO);
+		log.addAppender(root);
+		log.setAdditive(false);
+	}
+
+	@TearDown
+	public void tearDown() throws Exception {
+		context.stop();
+		Files.deleteIfExists(file);
+	}
+
+	@Benchmark
+	public void requestWithParameterizedDebug() {
+		long clientId = Thread.currentThread().getId();
+		log.info("Getting transactions for client ID: {}", clientId);
+		for (int row = 0; row < ROWS; row++) {
+			log.debug("Row {}: Successfully parsed transaction date to: {}", row, clientId);
+		}
+		log.info("Found {} transactions for client ID: {}", ROWS, clientId);
+	}
+
+	@Benchmark
+	public void requestWithConcatenatedDebug() {
+		long clientId = Thread.currentThread().getId();
+		log.info("Getting transactions for client ID: {}", clientId);
+		for (int row = 0; row < ROWS; row++) {
+			log.debug("Row " + row + ": Successfully parsed transaction date to: " + clientId);
+		}
+		log.info("Found {} transactions for client ID: {}", ROWS, clientId);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder()
+				.include(LoggingBenchmark.class.getSimpleName())
+				.build()).run();
+	}
+}
@@ -0,0 +1,176 @@
+package com.wtplatform.backend.benchmark;
+
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.jar.JarFile;
+
+/**
+ * Time-to-ready and resident memory of the packaged application, started against a
+ * PostgreSQL container: the fat jar, the extracted jar, the extracted jar with an AppCDS
+ * archive from a training run, and, when the jar was built with -Paot, the same with the
+ * AOT-generated context. Ready means /actuator/health answers 200; RSS is read from /proc
+ * at that point, so this runs on Linux. Needs Docker.
+ *
+ * Run with: mvn -Paot package -DskipTests && mvn test-compile exec:java -Dexec.classpathScope=test
+ *   -Dexec.mainClass=com.wtplatform.backend.benchmark.StartupBenchmark [-Dexec.args=runs]
+ */
+public class StartupBenchmark {
+
+	private static final Path JAR = Path.of("target/backend-0.0.1-SNAPSHOT.jar");
+	private static final Path WORK = Path.of("target/startup-benchmark");
+	private static final Duration READY_TIMEOUT = Duration.ofMinutes(2);
+
+	private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(200)).build();
+	private final List<String> databaseArgs;
+
+	private StartupBenchmark(PostgreSQLContainer<?> postgres) {
+		this.databaseArgs = List.of(
+				"--spring.datasource.url=" + postgres.getJdbcUrl(),
+				"--spring.datasource.username=" + postgres.getUsername(),
+				"--spring.datasource.password=" + postgres.getPassword(),
+				"--spring.profiles.active=prod",
+				"--logging.file.name=" + WORK.resolve("application.log"));
+	}
+
+	public static void main(String[] args) throws Exception {
+		int runs = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+		if (!Files.exists(JAR)) {
+			throw new IllegalStateException(JAR + " not found: run mvn package first");
+		}
+		try (PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>(DockerImageName.parse("postgres:latest"))) {
+			postgres.start();
+			new StartupBenchmark(postgres).run(runs);
+		}
+	}
+
+	private void run(int runs) throws Exception {
+		Path extracted = WORK.resolve("extracted");
+		Path extractedJar = extracted.resolve(JAR.getFileName());
+		exec(List.of(java(), "-Djarmode=tools", "-jar", JAR.toString(), "extract", "--force",
+				"--destination", extracted.toString()));
+
+		System.out.printf("%-18s %12s %12s%n", "variant", "ready (ms)", "RSS (MiB)");
+		measure("jar", List.of("-jar", JAR.toString()), runs);
+		measure("extracted", List.of("-jar", extractedJar.toString()), runs);
+		Path archive = train(WORK.resolve("application.jsa"), extractedJar, List.of());
+		measure("extracted+cds", List.of("-XX:SharedArchiveFile=" + archive, "-jar", extractedJar.toString()), runs);
+		if (hasAotContext()) {
+			List<String> aot = List.of("-Dspring.aot.enabled=true");
+			Path aotArchive = train(WORK.resolve("application-aot.jsa"), extractedJar, aot);
+			measure("extracted+cds+aot", List.of("-XX:SharedArchiveFile=" + aotArchive, "-Dspring.aot.enabled=true",
+					"-jar", extractedJar.toString()), runs);
+		}
+	}
+
+	/**
+	 * Training run: starts the application with the given flags, archives the classes it
+	 * loaded and exits once the context is refreshed
+	 */
+	private Path train(Path archive, Path jar, List<String> jvmArgs) throws Exception {
+		List<String> command = new ArrayList<>(List.of(java(), "-XX:ArchiveClassesAtExit=" + archive,
+				"-Dspring.context.exit=onRefresh"));
+		command.addAll(jvmArgs);
+		command.addAll(List.of("-jar", jar.toString()));
+		command.addAll(databaseArgs);
+		exec(command);
+		return archive;
+	}
+
+	private void measure(String variant, List<String> jvmArgs, int runs) throws Exception {
+		List<Long> readyMillis = new ArrayList<>();
+		List<Long> rssKib = new ArrayList<>();
+		for (int i = 0; i < runs; i++) {
+			int port = freePort();
+			List<String> command = new ArrayList<>();
+			command.add(java());
+			command.addAll(jvmArgs);
+			command.addAll(databaseArgs);
+			command.add("--server.port=" + port);
+			long start = System.nanoTime();
+			Process process = new ProcessBuilder(command).redirectErrorStream(true)
+					.redirectOutput(WORK.resolve(variant + ".out").toFile()).start();
+			try {
+				awaitReady(process, port);
+				readyMillis.add((System.nanoTime() - start) / 1_000_000);
+				rssKib.add(rssKib(process.pid()));
+			} finally {
+				process.destroy();
+				process.waitFor();
+			}
+		}
+		System.out.printf("%-18s %12d %12d%n", variant, median(readyMillis), median(rssKib) / 1024);
+	}
+
+	private void awaitReady(Process process, int port) throws Exception {
+		HttpRequest health = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/actuator/health"))
+				.timeout(Duration.ofSeconds(1)).build();
+		long deadline = System.nanoTime() + READY_TIMEOUT.toNanos();
+		while (System.nanoTime() < deadline) {
+			if (!process.isAlive()) {
+				throw new IllegalStateException("Application exited with " + process.exitValue());
+			}
+			try {
+				if (http.send(health, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+					return;
+				}
+			} catch (IOException notListeningYet) {
+				// Retry below
+			}
+			Thread.sleep(10);
+		}
+		throw new IllegalStateException("Application not ready within " + READY_TIMEOUT);
+	}
+
+	private static long rssKib(long pid) throws IOException {
+		for (String line : Files.readAllLines(Path.of("/proc", String.valueOf(pid), "status"))) {
+			if (line.startsWith("VmRSS:")) {
+				return Long.parseLong(line.replaceAll("[^0-9]", ""));
+			}
+		}
+		throw new IllegalStateException("No VmRSS for process " + pid);
+	}
+
+	private static boolean hasAotContext() throws IOException {
+		try (JarFile jar = new JarFile(JAR.toFile())) {
+			return jar.getEntry("BOOT-INF/classes/com/wtplatform/backend/BackendApplication__ApplicationContextInitializer.class") != null;
+		}
+	}
+
+	private static void exec(List<String> command) throws Exception {
+		Files.createDirectories(WORK);
+		Process process = new ProcessBuilder(command).redirectErrorStream(true)
+				.redirectOutput(WORK.resolve("setup.out").toFile()).start();
+		if (process.waitFor() != 0) {
+			throw new IllegalStateException(String.join(" ", command) + " failed, see " + WORK.resolve("setup.out"));
+		}
+	}
+
+	private static int freePort() throws IOException {
+		try (ServerSocket socket = new ServerSocket(0)) {
+			return socket.getLocalPort();
+		}
+	}
+
+	private static String java() {
+		return Path.of(System.getProperty("java.home"), "bin", "java").toString();
+	}
+
+	private static long median(List<Long> values) {
+		List<Long> sorted = new ArrayList<>(values);
+		Collections.sort(sorted);
+		return sorted.get(sorted.size() / 2);
+	}
+}
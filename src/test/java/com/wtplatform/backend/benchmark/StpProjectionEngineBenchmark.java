@@ -0,0 +1,85 @@
+package com.wtplatform.backend.benchmark;
+
+import com.wtplatform.backend.dto.StpProjectionDTO;
+import com.wtplatform.backend.service.StpProjectionEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Projection of 100k recurring schedules (mostly monthly STPs, some SIPs and weekly STPs).
+ *
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ *   -Dexec.mainClass=com.wtplatform.backend.benchmark.StpProjectionEngineBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StpProjectionEngineBenchmark {
+
+	private static final String[] FUNDS = new String[200];
+	private static final String[] FREQUENCIES = {"MONTHLY", "MONTHLY", "MONTHLY", "QUARTERLY", "WEEKLY"};
+
+	@Param({"100000"})
+	private int schedules;
+
+	@Param({"12"})
+	private int months;
+
+	private final StpProjectionEngine engine = new StpProjectionEngine();
+	private StpProjectionEngine.Schedules batch;
+	private LocalDate today;
+
+	@Setup
+	public void setUp() {
+		Random random = new Random(42);
+		for (int i = 0; i < FUNDS.length; i++) {
+			FUNDS[i] = "Fund " + i;
+		}
+		today = LocalDate.of(2025, 1, 15);
+		batch = new StpProjectionEngine.Schedules(schedules);
+		int clients = schedules / 4;
+		for (long client = 1; client <= clients; client++) {
+			batch.addOpeningBalance(client, FUNDS[(int) (client % FUNDS.length)], 50_000 + random.nextInt(500_000));
+		}
+		for (int i = 0; i < schedules; i++) {
+			long client = 1 + random.nextInt(clients);
+			String type = i % 5 == 0 ? "SIP" : "STP";
+			String from = FUNDS[(int) (client % FUNDS.length)];
+			String to = FUNDS[random.nextInt(FUNDS.length)];
+			LocalDate next = today.plusDays(random.nextInt(40) - 10);
+			LocalDate end = random.nextInt(4) == 0 ? null : today.plusMonths(1 + random.nextInt(36));
+			batch.add(client, type, from, to, to, 1_000 + random.nextInt(20_000),
+					FREQUENCIES[random.nextInt(FREQUENCIES.length)], next, end);
+		}
+	}
+
+	@Benchmark
+	public StpProjectionDTO project() {
+		return engine.project(batch, today, months);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder()
+				.include(StpProjectionEngineBenchmark.class.getSimpleName())
+				.build()).run();
+	}
+}
@@ -0,0 +1,263 @@
+package com.wtplatform.backend.config;
+
+import com.wtplatform.backend.model.AumSnapshot;
+import com.wtplatform.backend.model.Client;
+import com.wtplatform.backend.model.FundBalance;
+import com.wtplatform.backend.model.NavHistory;
+import com.wtplatform.backend.model.Note;
+import com.wtplatform.backend.model.User;
+import com.wtplatform.backend.repository.ClientRepository;
+import com.wtplatform.backend.repository.FundBalanceRepository;
+import com.wtplatform.backend.repository.NoteRepository;
+import com.wtplatform.backend.repository.TransactionRepository;
+import com.wtplatform.backend.security.AccessControl;
+import com.wtplatform.backend.service.impl.TransactionServiceImpl;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Bulk writes with the production Hibernate settings against PostgreSQL: 120 rows must go
+ * out as a few JDBC batches and sequence calls rather than a statement per row, for each
+ * table with a pooled id sequence and for the client and transaction imports.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class JdbcBatchingTest {
+
+	private static final int ROWS = 120;
+
+	private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>(DockerImageName.parse("postgres:latest"));
+
+	private static LocalContainerEntityManagerFactoryBean factoryBean;
+	private static EntityManagerFactory entityManagerFactory;
+	private static Statistics statistics;
+
+	@BeforeAll
+	static void start() {
+		postgres.start();
+		DriverManagerDataSource dataSource = new DriverManagerDataSource(postgres.getJdbcUrl(),
+				postgres.getUsername(), postgres.getPassword());
+		Properties properties = DatabaseConfig.hibernateProperties();
+		properties.setProperty("hibernate.hbm2ddl.auto", "create");
+		properties.setProperty("hibernate.show_sql", "false");
+		properties.setProperty("hibernate.generate_statistics", "true");
+
+		factoryBean = new LocalContainerEntityManagerFactoryBean();
+		factoryBean.setDataSource(dataSource);
+		factoryBean.setPackagesToScan("com.wtplatform.backend.model");
+		factoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+		factoryBean.setJpaProperties(properties);
+		factoryBean.afterPropertiesSet();
+		entityManagerFactory = factoryBean.getObject();
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+	}
+
+	@AfterAll
+	static void stop() {
+		factoryBean.destroy();
+		postgres.stop();
+	}
+
+	@BeforeEach
+	void clearStatistics() {
+		statistics.clear();
+	}
+
+	@Test
+	void insertsNavHistoryInBatches() {
+		inTransaction(em -> {
+			for (int i = 0; i < ROWS; i++) {
+				em.persist(new NavHistory(String.valueOf(100000 + i), LocalDate.of(2025, 1, 1),
+						BigDecimal.TEN, "TEST"));
+			}
+		});
+
+		assertThat(statistics.getEntityInsertCount()).isEqualTo(ROWS);
+		// 3 batches of at most 50 inserts plus 3 sequence calls
+		assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(8);
+	}
+
+	@Test
+	void insertsInterleavedTablesInBatches() {
+		inTransaction(em -> {
+			for (int i = 0; i < ROWS; i++) {
+				em.persist(new NavHistory(String.valueOf(200000 + i), LocalDate.of(2025, 1, 2),
+						BigDecimal.ONE, "TEST"));
+				em.persist(AumSnapshot.builder()
+						.snapshotDate(LocalDate.of(2025, 1, 2))
+						.userId(1L)
+						.clientId((long) i)
+						.assetClass("EQUITY")
+						.aum(BigDecimal.TEN)
+						.build());
+			}
+		});
+
+		assertThat(statistics.getEntityInsertCount()).isEqualTo(2 * ROWS);
+		// Ordered inserts keep each table's rows together instead of breaking the batch per row
+		assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(16);
+	}
+
+	@Test
+	void savesAnImportChunkOfClientsInBatches() {
+		User owner = owner("client-import");
+		statistics.clear();
+
+		inTransaction(em -> {
+			List<Client> clients = new ArrayList<>();
+			for (int i = 0; i < ROWS; i++) {
+				clients.add(client(owner, "client-import", i));
+			}
+			new JpaRepositoryFactory(em).getRepository(ClientRepository.class).saveAll(clients);
+		});
+
+		assertThat(statistics.getEntityInsertCount()).isEqualTo(ROWS);
+		assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(8);
+	}
+
+	@Test
+	void savesNotesInBatches() {
+		Client client = clients(owner("notes"), "notes", 1).get(0);
+		statistics.clear();
+
+		inTransaction(em -> {
+			List<Note> notes = new ArrayList<>();
+			for (int i = 0; i < ROWS; i++) {
+				Note note = new Note();
+				note.setTitle("Review " + i);
+				note.setContent("Quarterly review");
+				note.setCategory(Note.NoteCategory.GENERAL);
+				note.setClient(em.getReference(Client.class, client.getId()));
+				notes.add(note);
+			}
+			new JpaRepositoryFactory(em).getRepository(NoteRepository.class).saveAll(notes);
+		});
+
+		assertThat(statistics.getEntityInsertCount()).isEqualTo(ROWS);
+		assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(8);
+	}
+
+	@Test
+	void savesFundBalancesInBatches() {
+		Client client = clients(owner("balances"), "balances", 1).get(0);
+		statistics.clear();
+
+		inTransaction(em -> {
+			List<FundBalance> balances = new ArrayList<>();
+			for (int i = 0; i < ROWS; i++) {
+				FundBalance balance = new FundBalance();
+				balance.setFundId(String.valueOf(300000 + i));
+				balance.setClient(em.getReference(Client.class, client.getId()));
+				balance.setBalance(BigDecimal.TEN);
+				balance.setAsOfDate(LocalDate.of(2025, 1, 3));
+				balances.add(balance);
+			}
+			new JpaRepositoryFactory(em).getRepository(FundBalanceRepository.class).saveAll(balances);
+		});
+
+		assertThat(statistics.getEntityInsertCount()).isEqualTo(ROWS);
+		assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(8);
+	}
+
+	@Test
+	void importsATransactionCsvInBatches() {
+		User owner = owner("transaction-import");
+		List<Client> clients = clients(owner, "transaction-import", 3);
+		StringBuilder csv = new StringBuilder("clientId,type,amount,transactionDate,status,schemeCode,units\n");
+		for (int i = 0; i < ROWS; i++) {
+			csv.append(clients.get(i % clients.size()).getId()).append(",SIP,1000,2025-01-0")
+					.append(1 + i % 9).append(",completed,100,10\n");
+		}
+		AccessControl accessControl = mock(AccessControl.class);
+		when(accessControl.currentUserId()).thenReturn(owner.getId());
+		statistics.clear();
+
+		inTransaction(em -> {
+			JpaRepositoryFactory repositories = new JpaRepositoryFactory(em);
+			new TransactionServiceImpl(repositories.getRepository(TransactionRepository.class),
+					repositories.getRepository(ClientRepository.class), mock(ApplicationEventPublisher.class),
+					accessControl)
+					.importFromCSV(new MockMultipartFile("file", "transactions.csv", "text/csv",
+							csv.toString().getBytes(StandardCharsets.UTF_8)));
+		});
+
+		assertThat(statistics.getEntityInsertCount()).isEqualTo(ROWS);
+		// The client lookup, then 3 batches of at most 50 inserts plus 3 sequence calls
+		assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(9);
+	}
+
+	private static User owner(String name) {
+		User user = new User();
+		user.setEmail(name + "@example.com");
+		user.setPassword("x");
+		inTransaction(em -> em.persist(user));
+		return user;
+	}
+
+	private static List<Client> clients(User owner, String prefix, int count) {
+		List<Client> clients = new ArrayList<>();
+		inTransaction(em -> {
+			for (int i = 0; i < count; i++) {
+				Client client = client(em.getReference(User.class, owner.getId()), prefix, i);
+				em.persist(client);
+				clients.add(client);
+			}
+		});
+		return clients;
+	}
+
+	private static Client client(User owner, String prefix, int i) {
+		Client client = new Client();
+		client.setName("Client " + i);
+		client.setPan(prefix + "-" + i);
+		client.setEmail(prefix + "-" + i + "@example.com");
+		client.setPhone("9000000000");
+		client.setAum(1000.0);
+		client.setAddress("1 Main Road");
+		client.setCity("Pune");
+		client.setState("Maharashtra");
+		client.setPincode("411001");
+		client.setRiskProfile("MODERATE");
+		client.setInvestmentHorizon("LONG");
+		client.setActive(true);
+		client.setUser(owner);
+		return client;
+	}
+
+	private static void inTransaction(Consumer<EntityManager> work) {
+		EntityManager em = entityManagerFactory.createEntityManager();
+		try {
+			em.getTransaction().begin();
+			work.accept(em);
+			em.getTransaction().commit();
+		} finally {
+			em.close();
+		}
+	}
+}
@@ -0,0 +1,163 @@
+package com.wtplatform.backend.config;
+
+import com.wtplatform.backend.model.User;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Properties;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Routing against two PostgreSQL containers standing in for a primary and a replica; each
+ * holds a row naming itself, so a query shows where it was sent. Runs once through plain JDBC
+ * and once through JPA with the JpaTransactionManager the application uses, each on its own
+ * routing data source so their read-your-writes windows stay apart.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class ReplicaRoutingDataSourceTest {
+
+	private static final PostgreSQLContainer<?> primary = new PostgreSQLContainer<>(DockerImageName.parse("postgres:latest"));
+	private static final PostgreSQLContainer<?> replica = new PostgreSQLContainer<>(DockerImageName.parse("postgres:latest"));
+
+	private static Routed viaJdbc;
+	private static Routed viaJpa;
+	private static EntityManagerFactory entityManagerFactory;
+
+	@BeforeAll
+	static void start() {
+		primary.start();
+		replica.start();
+		DataSource primaryDataSource = named(primary, "primary");
+		DataSource replicaDataSource = named(replica, "replica");
+
+		DataSource jdbcRouting = routing(primaryDataSource, replicaDataSource);
+		JdbcTemplate jdbc = new JdbcTemplate(jdbcRouting);
+		viaJdbc = new Routed("jdbc", new DataSourceTransactionManager(jdbcRouting),
+				() -> jdbc.queryForObject("SELECT name FROM server", String.class),
+				() -> jdbc.update("UPDATE server SET touched = now()"));
+
+		entityManagerFactory = entityManagerFactory(routing(primaryDataSource, replicaDataSource));
+		EntityManager em = SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory);
+		viaJpa = new Routed("jpa", new JpaTransactionManager(entityManagerFactory),
+				() -> (String) em.createNativeQuery("SELECT name FROM server").getSingleResult(),
+				() -> em.createNativeQuery("UPDATE server SET touched = now()").executeUpdate());
+	}
+
+	@AfterAll
+	static void stop() {
+		entityManagerFactory.close();
+		primary.stop();
+		replica.stop();
+	}
+
+	@AfterEach
+	void clearAuthentication() {
+		SecurityContextHolder.clearContext();
+	}
+
+	static List<Routed> routes() {
+		return List.of(viaJdbc, viaJpa);
+	}
+
+	@ParameterizedTest
+	@MethodSource("routes")
+	void sendsReadOnlyTransactionsToTheReplicaAndWritesToThePrimary(Routed routed) {
+		authenticate(1L);
+		assertThat(routed.readOnly().<String>execute(status -> routed.server().get())).isEqualTo("replica");
+		assertThat(routed.readWrite().<String>execute(status -> routed.server().get())).isEqualTo("primary");
+		// Outside a transaction: the primary
+		assertThat(routed.server().get()).isEqualTo("primary");
+	}
+
+	@ParameterizedTest
+	@MethodSource("routes")
+	void keepsAUsersReadsOnThePrimaryAfterTheirWrite(Routed routed) {
+		authenticate(2L);
+		routed.readWrite().executeWithoutResult(status -> routed.touch().run());
+		assertThat(routed.readOnly().<String>execute(status -> routed.server().get())).isEqualTo("primary");
+
+		authenticate(3L);
+		assertThat(routed.readOnly().<String>execute(status -> routed.server().get())).isEqualTo("replica");
+	}
+
+	private static DataSource routing(DataSource primaryDataSource, DataSource replicaDataSource) {
+		return new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(
+				primaryDataSource, List.of(replicaDataSource), 60_000));
+	}
+
+	/**
+	 * No entities: queries are native, so only the transaction and connection handling of
+	 * Hibernate are involved
+	 */
+	private static EntityManagerFactory entityManagerFactory(DataSource dataSource) {
+		LocalContainerEntityManagerFactoryBean em = new LocalContainerEntityManagerFactoryBean();
+		em.setDataSource(dataSource);
+		em.setPackagesToScan(ReplicaRoutingDataSourceTest.class.getPackageName());
+		em.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+		Properties properties = new Properties();
+		properties.setProperty("hibernate.dialect", "org.hibernate.dialect.PostgreSQLDialect");
+		em.setJpaProperties(properties);
+		em.afterPropertiesSet();
+		return em.getObject();
+	}
+
+	private static DataSource named(PostgreSQLContainer<?> container, String name) {
+		DataSource dataSource = new DriverManagerDataSource(container.getJdbcUrl(), container.getUsername(),
+				container.getPassword());
+		JdbcTemplate setup = new JdbcTemplate(dataSource);
+		setup.execute("CREATE TABLE server (name VARCHAR(20) NOT NULL, touched TIMESTAMP)");
+		setup.update("INSERT INTO server (name) VALUES (?)", name);
+		return dataSource;
+	}
+
+	private static void authenticate(Long userId) {
+		User user = new User();
+		user.setId(userId);
+		SecurityContextHolder.getContext().setAuthentication(
+				new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+	}
+
+	record Routed(String name, TransactionTemplate readOnly, TransactionTemplate readWrite,
+				  Supplier<String> server, Runnable touch) {
+
+		Routed(String name, PlatformTransactionManager transactionManager, Supplier<String> server, Runnable touch) {
+			this(name, readOnly(transactionManager), new TransactionTemplate(transactionManager), server, touch);
+		}
+
+		private static TransactionTemplate readOnly(PlatformTransactionManager transactionManager) {
+			TransactionTemplate template = new TransactionTemplate(transactionManager);
+			template.setReadOnly(true);
+			return template;
+		}
+
+		@Override
+		public String toString() {
+			return name;
+		}
+	}
+}
@@ -0,0 +1,229 @@
+package com.wtplatform.backend.config;
+
+import com.wtplatform.backend.model.AumSnapshot;
+import com.wtplatform.backend.model.Client;
+import com.wtplatform.backend.model.FundBalance;
+import com.wtplatform.backend.model.NavHistory;
+import com.wtplatform.backend.model.Note;
+import com.wtplatform.backend.model.Transaction;
+import com.wtplatform.backend.model.User;
+import com.wtplatform.backend.repository.AumSnapshotRepository;
+import com.wtplatform.backend.repository.ClientRepository;
+import com.wtplatform.backend.repository.FundBalanceRepository;
+import com.wtplatform.backend.repository.NavHistoryRepository;
+import com.wtplatform.backend.repository.NoteRepository;
+import com.wtplatform.backend.repository.TransactionRepository;
+import jakarta.persistence.EntityManager;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The migrations against PostgreSQL: a new database and one Hibernate created before Flyway
+ * (db/pre-flyway-schema.sql) both end up with the production index set and pass Hibernate's
+ * validation.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class SchemaMigrationTest {
+
+	private static final List<String> HOT_QUERY_INDEXES = List.of(
+			"idx_clients_user_name", "idx_clients_user_created", "idx_clients_user_aum",
+			"idx_clients_name_trgm", "idx_clients_user_phone", "idx_clients_user_segment",
+			"idx_notes_client_created", "idx_transactions_client_date", "idx_transactions_active_schedules",
+			"idx_nav_history_fund_date", "idx_fund_balance_client", "idx_fund_balance_client_fund",
+			"idx_stp_warning_user_next", "idx_aum_snapshot_date");
+
+	private static final int LEGACY_ROWS = 120;
+
+	private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>(DockerImageName.parse("postgres:latest"));
+
+	@BeforeAll
+	static void start() {
+		postgres.start();
+		// Extensions are per database: installed in public, each test schema sees them as
+		// production's does, instead of in whichever schema migrates first
+		new JdbcTemplate(new DriverManagerDataSource(postgres.getJdbcUrl(), postgres.getUsername(),
+				postgres.getPassword())).execute("CREATE EXTENSION IF NOT EXISTS pg_trgm; "
+				+ "CREATE EXTENSION IF NOT EXISTS btree_gin");
+	}
+
+	@AfterAll
+	static void stop() {
+		postgres.stop();
+	}
+
+	@Test
+	void migratesANewDatabase() {
+		DataSource dataSource = dataSource("fresh");
+
+		flyway(dataSource).migrate();
+
+		assertThat(indexes(dataSource)).containsAll(HOT_QUERY_INDEXES);
+		validateMapping(dataSource);
+		assertThat(flyway(dataSource).migrate().migrationsExecuted).isZero();
+	}
+
+	@Test
+	void baselinesADatabaseHibernateCreated() {
+		DataSource dataSource = dataSource("legacy");
+		new ResourceDatabasePopulator(new ClassPathResource("db/pre-flyway-schema.sql")).execute(dataSource);
+		JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+		jdbc.update("INSERT INTO users (email, password, role, created_at, updated_at) "
+				+ "VALUES ('advisor@example.com', 'x', 'USER', now(), now())");
+		// More rows than one id block, so a block placed below the highest id collides
+		jdbc.update("INSERT INTO clients (user_id, name, email, phone, pan, address, city, state, pincode, "
+				+ "riskprofile, investmenthorizon, aum, isactive, createdat, updatedat) "
+				+ "SELECT u.id, 'Client ' || n, 'client' || n || '@example.com', '9000000000', 'PAN' || n, 'a', 'c', "
+				+ "'s', '411001', 'MODERATE', 'LONG', 0, TRUE, now(), now() "
+				+ "FROM users u CROSS JOIN generate_series(1, " + LEGACY_ROWS + ") n");
+		jdbc.update("INSERT INTO notes (client_id, title, content, category, created_at) "
+				+ "SELECT id, 'Review', 'Quarterly review', 'GENERAL', now() FROM clients");
+		jdbc.update("INSERT INTO transactions_extended (client_id, transaction_type, amount, created_at, updated_at) "
+				+ "SELECT id, 'SIP', 1000, now(), now() FROM clients");
+		jdbc.update("INSERT INTO fund_balance (client_id, fund_id, balance, as_of_date) "
+				+ "SELECT id, '100', 10, CURRENT_DATE FROM clients");
+		jdbc.update("INSERT INTO nav_history (fund_id, nav_date, nav, source) "
+				+ "SELECT 100, CURRENT_DATE - id::INT, 10, 'AMFI' FROM clients");
+		jdbc.update("INSERT INTO aum_snapshots (user_id, client_id, snapshot_date, asset_class, aum) "
+				+ "SELECT user_id, id, CURRENT_DATE, 'EQUITY', 0 FROM clients");
+
+		flyway(dataSource).migrate();
+
+		assertThat(indexes(dataSource)).containsAll(HOT_QUERY_INDEXES);
+		// Identity ids now advance by the allocation size of the pooled sequence mappings
+		assertThat(jdbc.queryForObject("SELECT increment_by FROM pg_sequences "
+				+ "WHERE schemaname = current_schema() AND sequencename = 'clients_id_seq'", Long.class)).isEqualTo(50);
+		validateMapping(dataSource);
+		insertThroughRepositories(dataSource);
+	}
+
+	/**
+	 * New rows in every table with a pooled id sequence, through the repositories: their first
+	 * id block must lie above the ids already there
+	 */
+	private static void insertThroughRepositories(DataSource dataSource) {
+		LocalContainerEntityManagerFactoryBean factoryBean = entityManagerFactory(dataSource,
+				DatabaseConfig.hibernateProperties());
+		EntityManager em = factoryBean.getObject().createEntityManager();
+		try {
+			em.getTransaction().begin();
+			JpaRepositoryFactory repositories = new JpaRepositoryFactory(em);
+			List<Client> clients = new ArrayList<>();
+			for (int i = 0; i < 3; i++) {
+				Client client = new Client();
+				client.setName("New " + i);
+				client.setPan("NEWPAN" + i);
+				client.setEmail("new" + i + "@example.com");
+				client.setPhone("9000000000");
+				client.setAum(1000.0);
+				client.setAddress("1 Main Road");
+				client.setCity("Pune");
+				client.setState("Maharashtra");
+				client.setPincode("411001");
+				client.setRiskProfile("MODERATE");
+				client.setInvestmentHorizon("LONG");
+				client.setActive(true);
+				client.setUser(em.getReference(User.class, 1L));
+				clients.add(client);
+			}
+			repositories.getRepository(ClientRepository.class).saveAll(clients);
+			Client client = clients.get(0);
+
+			Note note = new Note();
+			note.setTitle("Review");
+			note.setContent("Annual review");
+			note.setCategory(Note.NoteCategory.GENERAL);
+			note.setClient(client);
+			repositories.getRepository(NoteRepository.class).save(note);
+
+			Transaction transaction = new Transaction();
+			transaction.setClient(client);
+			transaction.setType("LUMPSUM");
+			transaction.setAmount(BigDecimal.TEN);
+			repositories.getRepository(TransactionRepository.class).save(transaction);
+
+			FundBalance balance = new FundBalance();
+			balance.setFundId("200");
+			balance.setClient(client);
+			balance.setBalance(BigDecimal.ONE);
+			balance.setAsOfDate(LocalDate.now());
+			repositories.getRepository(FundBalanceRepository.class).save(balance);
+
+			repositories.getRepository(NavHistoryRepository.class)
+					.save(new NavHistory("200", LocalDate.now(), BigDecimal.TEN, "TEST"));
+			repositories.getRepository(AumSnapshotRepository.class).save(AumSnapshot.builder()
+					.snapshotDate(LocalDate.now())
+					.userId(1L)
+					.clientId(client.getId())
+					// Longer than the VARCHAR(32) the legacy table had
+					.assetClass("Debt Scheme - Banking and PSU Fund")
+					.aum(BigDecimal.TEN)
+					.build());
+			em.getTransaction().commit();
+
+			assertThat(clients).allSatisfy(saved -> assertThat(saved.getId()).isGreaterThan(LEGACY_ROWS));
+			assertThat(List.of(note.getId(), transaction.getId(), balance.getId()))
+					.allSatisfy(id -> assertThat(id).isGreaterThan(LEGACY_ROWS));
+		} finally {
+			em.close();
+			factoryBean.destroy();
+		}
+	}
+
+	private static Flyway flyway(DataSource dataSource) {
+		return Flyway.configure()
+				.dataSource(dataSource)
+				.locations("classpath:db/migration")
+				.baselineOnMigrate(true)
+				.baselineVersion("1")
+				.load();
+	}
+
+	private static void validateMapping(DataSource dataSource) {
+		// Fails to start if a table, column or sequence the entities need is missing
+		entityManagerFactory(dataSource, DatabaseConfig.hibernateProperties()).destroy();
+	}
+
+	private static LocalContainerEntityManagerFactoryBean entityManagerFactory(DataSource dataSource, Properties properties) {
+		properties.setProperty("hibernate.show_sql", "false");
+		LocalContainerEntityManagerFactoryBean factoryBean = new LocalContainerEntityManagerFactoryBean();
+		factoryBean.setDataSource(dataSource);
+		factoryBean.setPackagesToScan("com.wtplatform.backend.model");
+		factoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+		factoryBean.setJpaProperties(properties);
+		factoryBean.afterPropertiesSet();
+		return factoryBean;
+	}
+
+	private static List<String> indexes(DataSource dataSource) {
+		return new JdbcTemplate(dataSource).queryForList(
+				"SELECT indexname FROM pg_indexes WHERE schemaname = current_schema()", String.class);
+	}
+
+	private static DataSource dataSource(String schema) {
+		new JdbcTemplate(new DriverManagerDataSource(postgres.getJdbcUrl(), postgres.getUsername(),
+				postgres.getPassword())).execute("CREATE SCHEMA IF NOT EXISTS " + schema);
+		return new DriverManagerDataSource(postgres.getJdbcUrl() + "&currentSchema=" + schema + ",public",
+				postgres.getUsername(), postgres.getPassword());
+	}
+}
@@ -0,0 +1,27 @@
+package com.wtplatform.backend.logging;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LogSamplerTest {
+
+	private final AtomicLong now = new AtomicLong();
+	private final LogSampler sampler = new LogSampler(2, Duration.ofSeconds(1), now::get);
+
+	@Test
+	void letsPermitsThroughPerIntervalAndCountsTheRest() {
+		assertThat(sampler.sample()).isTrue();
+		assertThat(sampler.sample()).isTrue();
+		assertThat(sampler.sample()).isFalse();
+		assertThat(sampler.sample()).isFalse();
+
+		now.addAndGet(Duration.ofSeconds(1).toNanos());
+		assertThat(sampler.sample()).isTrue();
+		assertThat(sampler.drainSuppressed()).isEqualTo(2);
+		assertThat(sampler.drainSuppressed()).isZero();
+	}
+}
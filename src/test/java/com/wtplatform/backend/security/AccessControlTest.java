@@ -0,0 +1,83 @@
+package com.wtplatform.backend.security;
+
+import com.wtplatform.backend.model.User;
+import com.wtplatform.backend.projection.ClientOwnerProjection;
+import com.wtplatform.backend.repository.ClientRepository;
+import com.wtplatform.backend.repository.UserRepository;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AccessControlTest {
+
+	private final ClientRepository clientRepository = mock(ClientRepository.class);
+	private final AccessControl accessControl = new AccessControl(mock(UserRepository.class), clientRepository);
+
+	@BeforeEach
+	void authenticate() {
+		User user = new User();
+		user.setId(1L);
+		user.setEmail("advisor@example.com");
+		SecurityContextHolder.getContext().setAuthentication(
+				new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+		RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+	}
+
+	@AfterEach
+	void clear() {
+		SecurityContextHolder.clearContext();
+		RequestContextHolder.resetRequestAttributes();
+	}
+
+	@Test
+	void checksClientsInOneQueryAndRemembersThemForTheRequest() {
+		when(clientRepository.findOwnersByIdIn(any())).thenReturn(List.of(owner(10L, 1L), owner(11L, 1L)));
+
+		accessControl.assertOwnsClients(Set.of(10L, 11L));
+		accessControl.assertOwnsClient(10L);
+		accessControl.assertOwnsClients(Set.of(11L, 10L));
+
+		verify(clientRepository, times(1)).findOwnersByIdIn(any());
+	}
+
+	@Test
+	void rejectsMissingClientsAndClientsOfOtherUsers() {
+		when(clientRepository.findOwnersByIdIn(any())).thenReturn(List.of(owner(10L, 1L), owner(12L, 2L)));
+		assertThatThrownBy(() -> accessControl.assertOwnsClients(Set.of(10L, 12L)))
+				.isInstanceOf(SecurityException.class);
+
+		when(clientRepository.findOwnersByIdIn(any())).thenReturn(List.of());
+		assertThatThrownBy(() -> accessControl.assertOwnsClient(13L))
+				.isInstanceOf(EntityNotFoundException.class);
+	}
+
+	private static ClientOwnerProjection owner(Long id, Long userId) {
+		return new ClientOwnerProjection() {
+			@Override
+			public Long getId() {
+				return id;
+			}
+
+			@Override
+			public Long getUserId() {
+				return userId;
+			}
+		};
+	}
+}
@@ -0,0 +1,63 @@
+package com.wtplatform.backend.security;
+
+import com.wtplatform.backend.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtUtilsTest {
+
+	private final JwtUtils jwtUtils = new JwtUtils();
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(jwtUtils, "jwtSecret", "wealthtreeSecretKey123456789012345678901234567890");
+		ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", 60_000L);
+		ReflectionTestUtils.setField(jwtUtils, "verifiedCacheMaxSize", 2);
+		jwtUtils.init();
+	}
+
+	@Test
+	void readsTheClaimsOfAnIssuedToken() {
+		VerifiedToken token = jwtUtils.verifyAndParse(token(7L, "asha@example.com"));
+
+		assertThat(token.subject()).isEqualTo("asha@example.com");
+		assertThat(token.userId()).isEqualTo(7L);
+		assertThat(token.role()).isEqualTo("USER");
+	}
+
+	@Test
+	void forgetsTheLeastRecentlyUsedTokenWhenFull() {
+		String first = token(1L, "a@example.com");
+		String second = token(2L, "b@example.com");
+		String third = token(3L, "c@example.com");
+		VerifiedToken firstVerified = jwtUtils.verifyAndParse(first);
+		VerifiedToken secondVerified = jwtUtils.verifyAndParse(second);
+		// Touch the first, so the second is the eldest when the third arrives
+		assertThat(jwtUtils.verifyAndParse(first)).isSameAs(firstVerified);
+
+		jwtUtils.verifyAndParse(third);
+
+		assertThat(verified()).hasSize(2);
+		assertThat(jwtUtils.verifyAndParse(first)).isSameAs(firstVerified);
+		// Verified again, not served from the cache
+		assertThat(jwtUtils.verifyAndParse(second)).isNotSameAs(secondVerified).isEqualTo(secondVerified);
+	}
+
+	private String token(Long id, String email) {
+		User user = new User();
+		user.setId(id);
+		user.setEmail(email);
+		user.setRole("USER");
+		return jwtUtils.generateToken(user);
+	}
+
+	@SuppressWarnings("unchecked")
+	private Map<String, VerifiedToken> verified() {
+		return (Map<String, VerifiedToken>) ReflectionTestUtils.getField(jwtUtils, "verified");
+	}
+}
@@ -0,0 +1,51 @@
+package com.wtplatform.backend.security;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketLimiterTest {
+
+	@Test
+	void allowsTheCapacityThenLimitsEachKeySeparately() {
+		TokenBucketLimiter limiter = new TokenBucketLimiter(3, 6, 100);
+
+		assertThat(limiter.tryAcquire("10.0.0.1")).isZero();
+		assertThat(limiter.tryAcquire("10.0.0.1")).isZero();
+		assertThat(limiter.tryAcquire("10.0.0.1")).isZero();
+		// 6 per minute: the next token is at most 10 seconds away
+		assertThat(limiter.tryAcquire("10.0.0.1")).isBetween(1L, 10L);
+		assertThat(limiter.tryAcquire("10.0.0.2")).isZero();
+	}
+
+	@Test
+	void dropsOnlyRefilledBuckets() {
+		TokenBucketLimiter limiter = new TokenBucketLimiter(2, 60, 100);
+		limiter.tryAcquire("a");
+		limiter.tryAcquire("b");
+
+		limiter.evictFull(System.nanoTime());
+		assertThat(limiter.size()).isEqualTo(2);
+
+		// Two seconds on, both have refilled at one token per second
+		limiter.evictFull(System.nanoTime() + 2_000_000_000L);
+		assertThat(limiter.size()).isZero();
+	}
+
+	@Test
+	void limitsNewKeysOnceFullUntilTheSweepFreesRoom() {
+		TokenBucketLimiter limiter = new TokenBucketLimiter(2, 60, 2);
+		limiter.tryAcquire("a");
+		limiter.tryAcquire("b");
+
+		// No room and nothing swept yet: the new key waits for a token, and is not stored
+		assertThat(limiter.tryAcquire("c")).isEqualTo(1L);
+		assertThat(limiter.size()).isEqualTo(2);
+		// Keys that already have a bucket are unaffected
+		assertThat(limiter.tryAcquire("a")).isZero();
+
+		limiter.evictFull(System.nanoTime() + 2_000_000_000L);
+		assertThat(limiter.tryAcquire("c")).isZero();
+		assertThat(limiter.size()).isEqualTo(1);
+	}
+}
@@ -0,0 +1,172 @@
+package com.wtplatform.backend.service;
+
+import com.wtplatform.backend.exception.AumNotReadyException;
+import com.wtplatform.backend.projection.HoldingProjection;
+import com.wtplatform.backend.repository.TransactionRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AumEngineTest {
+
+	private final AumEngine engine = new AumEngine(null, event -> { });
+
+	@Test
+	void valuesUnitsAtLatestNavAndRollsUpPerUser() {
+		AumEngine.Book book = engine.build(List.of(
+				row(1L, "Asha", 10L, "100", "10", "50", "1000", null, "HDFC Mutual Fund",
+						"Open Ended Schemes(Equity Scheme - Large Cap Fund)"),
+				row(1L, "Asha", 10L, "200", "1000", "1", "1000", "Debt", null, null),
+				row(2L, "Ravi", 10L, "300", "4", "0", "800", null, "SBI Mutual Fund",
+						"Open Ended Schemes(Debt Scheme - Liquid Fund)"),
+				row(3L, "Meera", 20L, "100", "2", "50", "90", null, "HDFC Mutual Fund",
+						"Open Ended Schemes(Equity Scheme - Large Cap Fund)")));
+
+		assertThat(book.userAum(10L)).isCloseTo(500 + 1000 + 800, within(1e-9));
+		assertThat(book.userAum(20L)).isCloseTo(100, within(1e-9));
+		assertThat(book.userAum(99L)).isZero();
+		assertThat(book.getTotalAum()).isCloseTo(2400, within(1e-9));
+		assertThat(book.contributingClients(10L)).isEqualTo(2);
+
+		assertThat(book.aumByClient(10L)).containsEntry(1L, 1500.0).containsEntry(2L, 800.0).hasSize(2);
+		assertThat(book.aumByAssetClass(10L)).containsEntry("Equity", 500.0).containsEntry("Debt", 1800.0);
+		assertThat(book.aumByAmc(10L)).containsEntry("HDFC Mutual Fund", 500.0)
+				.containsEntry(AumEngine.UNKNOWN_AMC, 1000.0)
+				.containsEntry("SBI Mutual Fund", 800.0);
+	}
+
+	@Test
+	void emitsOneSnapshotValuePerClientAndAssetClass() {
+		AumEngine.Book book = engine.build(List.of(
+				row(1L, "Asha", 10L, "100", "10", "50", "1000", "Equity", null, null),
+				row(1L, "Asha", 10L, "101", "5", "20", "100", "Equity", null, null),
+				row(1L, "Asha", 10L, "200", "300", "1", "300", "Debt", null, null),
+				row(2L, "Ravi", 10L, "100", "1", "50", "40", "Equity", null, null)));
+
+		List<String> visited = new ArrayList<>();
+		book.forEachClientAssetClass((userId, clientId, assetClass, aum) ->
+				visited.add(userId + "/" + clientId + "/" + assetClass + "=" + aum));
+
+		assertThat(visited).containsExactlyInAnyOrder(
+				"10/1/Equity=600.0", "10/1/Debt=300.0", "10/2/Equity=50.0");
+	}
+
+	@Test
+	void revaluesOnlyChangedSchemesAndPropagatesDeltas() {
+		AumEngine.Book book = engine.build(List.of(
+				row(1L, "Asha", 10L, "100", "10", "50", "400", null, null, null),
+				row(1L, "Asha", 10L, "200", "20", "10", "150", null, null, null),
+				row(1L, "Asha", 10L, "FB1", "700", "1", "700", null, null, null),
+				row(2L, "Ravi", 10L, "100", "2", "50", "90", null, null, null),
+				row(3L, "Meera", 20L, "100", "4", "50", "180", null, null, null)));
+		assertThat(book.unitsHeld("100")).isEqualTo(16.0);
+		assertThat(book.holders("100")).isEqualTo(3);
+		assertThat(book.holders("FB1")).isZero();
+
+		AumEngine.Book revalued = book.revalue(Map.of(
+				"100", new BigDecimal("55"),
+				"200", new BigDecimal("10"),
+				"999", new BigDecimal("1")));
+
+		assertThat(revalued.revaluedSchemes).isEqualTo(1);
+		assertThat(revalued.aumByClient(10L)).containsEntry(1L, 550.0 + 200 + 700).containsEntry(2L, 110.0);
+		assertThat(revalued.userAum(10L)).isCloseTo(1560, within(1e-9));
+		assertThat(revalued.userAum(20L)).isCloseTo(220, within(1e-9));
+		assertThat(revalued.getTotalAum()).isCloseTo(1780, within(1e-9));
+		// The original book is untouched
+		assertThat(book.getTotalAum()).isCloseTo(1700, within(1e-9));
+		// Incremental result matches a full rebuild at the new prices
+		assertThat(revalued.aumByAssetClass(10L)).isEqualTo(engine.build(List.of(
+				row(1L, "Asha", 10L, "100", "10", "55", "400", null, null, null),
+				row(1L, "Asha", 10L, "200", "20", "10", "150", null, null, null),
+				row(1L, "Asha", 10L, "FB1", "700", "1", "700", null, null, null),
+				row(2L, "Ravi", 10L, "100", "2", "55", "90", null, null, null))).aumByAssetClass(10L));
+	}
+
+	@Test
+	void servesTheCachedBookWhileRebuildingInTheBackground() throws Exception {
+		TransactionRepository repository = mock(TransactionRepository.class);
+		CountDownLatch release = new CountDownLatch(1);
+		when(repository.findHoldingsForValuation(null))
+				.thenReturn(List.of(row(1L, "Asha", 10L, "100", "10", "50", "400", null, null, null)))
+				.thenAnswer(invocation -> {
+					release.await(10, TimeUnit.SECONDS);
+					return List.of(row(1L, "Asha", 10L, "100", "10", "60", "400", null, null, null));
+				});
+		AumEngine engine = new AumEngine(repository, event -> { });
+		try {
+			// Cold: the request is turned away and the first load starts in the background
+			assertThatThrownBy(engine::current).isInstanceOf(AumNotReadyException.class);
+			awaitTotalAum(engine, 500.0);
+
+			// Stale: the old book is returned at once while the slow reload runs
+			ReflectionTestUtils.setField(engine, "maxAgeSeconds", -1L);
+			long started = System.nanoTime();
+			assertThat(engine.current().getTotalAum()).isEqualTo(500.0);
+			assertThat(engine.current().getTotalAum()).isEqualTo(500.0);
+			assertThat(Duration.ofNanos(System.nanoTime() - started)).isLessThan(Duration.ofSeconds(1));
+
+			release.countDown();
+			awaitTotalAum(engine, 600.0);
+		} finally {
+			release.countDown();
+			engine.destroy();
+		}
+	}
+
+	@Test
+	void derivesAssetClassFromAmfiCategory() {
+		assertThat(AumEngine.resolveAssetClass("equity", "Debt Scheme")).isEqualTo("Equity");
+		assertThat(AumEngine.resolveAssetClass(null, "Open Ended Schemes(Hybrid Scheme - Balanced Advantage)"))
+				.isEqualTo("Hybrid");
+		assertThat(AumEngine.resolveAssetClass(null, "Open Ended Schemes(Other Scheme - Index Funds)"))
+				.isEqualTo("Other");
+		assertThat(AumEngine.resolveAssetClass(" ", null)).isEqualTo(AumEngine.UNCLASSIFIED);
+	}
+
+	private static void awaitTotalAum(AumEngine engine, double expected) throws InterruptedException {
+		long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+		while (System.nanoTime() < deadline) {
+			try {
+				if (engine.current().getTotalAum() == expected) {
+					return;
+				}
+			} catch (AumNotReadyException notYet) {
+				// Still loading
+			}
+			Thread.sleep(10);
+		}
+		assertThat(engine.current().getTotalAum()).isEqualTo(expected);
+	}
+
+	private static HoldingProjection row(Long clientId, String clientName, Long userId, String schemeCode,
+										 String units, String nav, String invested, String assetClass,
+										 String amcName, String category) {
+		return new HoldingProjection() {
+			public Long getClientId() { return clientId; }
+			public String getClientName() { return clientName; }
+			public Long getUserId() { return userId; }
+			public String getSchemeCode() { return schemeCode; }
+			public BigDecimal getUnits() { return new BigDecimal(units); }
+			public BigDecimal getNav() { return new BigDecimal(nav); }
+			public BigDecimal getInvested() { return new BigDecimal(invested); }
+			public String getAssetClass() { return assetClass; }
+			public String getAmcName() { return amcName; }
+			public String getCategory() { return category; }
+			public Boolean getBookValue() { return schemeCode.startsWith("FB"); }
+		};
+	}
+}
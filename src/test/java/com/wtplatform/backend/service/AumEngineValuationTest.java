@@ -0,0 +1,113 @@
+package com.wtplatform.backend.service;
+
+import com.wtplatform.backend.repository.TransactionRepository;
+import jakarta.persistence.EntityManager;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.time.LocalDate;
+import java.util.Properties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * The engine fed by the holdings query against PostgreSQL: an STP moves the amount it
+ * transfers from its source scheme to its target scheme, now and as of a past date.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class AumEngineValuationTest {
+
+	private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>(DockerImageName.parse("postgres:latest"));
+
+	private static LocalContainerEntityManagerFactoryBean factoryBean;
+	private static JdbcTemplate jdbc;
+
+	@BeforeAll
+	static void start() {
+		postgres.start();
+		DriverManagerDataSource dataSource = new DriverManagerDataSource(postgres.getJdbcUrl(),
+				postgres.getUsername(), postgres.getPassword());
+		Flyway.configure().dataSource(dataSource).locations("classpath:db/migration").load().migrate();
+		jdbc = new JdbcTemplate(dataSource);
+
+		Properties properties = new Properties();
+		properties.setProperty("hibernate.hbm2ddl.auto", "validate");
+		factoryBean = new LocalContainerEntityManagerFactoryBean();
+		factoryBean.setDataSource(dataSource);
+		factoryBean.setPackagesToScan("com.wtplatform.backend.model");
+		factoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+		factoryBean.setJpaProperties(properties);
+		factoryBean.afterPropertiesSet();
+	}
+
+	@AfterAll
+	static void stop() {
+		factoryBean.destroy();
+		postgres.stop();
+	}
+
+	@Test
+	void stpMovesValueFromTheSourceSchemeToTheTarget() {
+		jdbc.update("INSERT INTO users (id, email, password, role, created_at, updated_at) "
+				+ "VALUES (10, 'advisor@example.com', 'x', 'USER', now(), now())");
+		jdbc.update("INSERT INTO clients (id, user_id, name, email, phone, pan, address, city, state, pincode, "
+				+ "riskprofile, investmenthorizon, aum, isactive, createdat, updatedat) "
+				+ "VALUES (1, 10, 'Asha', 'asha@example.com', '9000000000', 'ABCDE1234F', 'a', 'c', 's', '1', "
+				+ "'MODERATE', 'LONG', 0, TRUE, now(), now())");
+		jdbc.update("INSERT INTO amfi_schemes (schemecode, schemename, amcname, lastnavvalue) VALUES "
+				+ "('100', 'HDFC Liquid Fund', 'HDFC Mutual Fund', 110), "
+				+ "('200', 'HDFC Equity Fund', 'HDFC Mutual Fund', 60)");
+		// NAVs on the transfer date, ten days ago
+		jdbc.update("INSERT INTO nav_history (fund_id, nav_date, nav, source, last_updated) VALUES "
+				+ "(100, CURRENT_DATE - 10, 100, 'AMFI', now()), (200, CURRENT_DATE - 10, 50, 'AMFI', now())");
+		transaction("LUMPSUM", "100", null, null, "30", "3000");
+		// 10 units of 100 at NAV 100 switched into 200 at NAV 50, named as on the sample data
+		transaction("STP", "100", "HDFC Liquid Fund", "HDFC Equity Fund", "10", "1000");
+		// A target that is no AMFI scheme is carried at the amount transferred
+		transaction("STP", null, "100", "PQR Liquid Fund", "2", "200");
+		// Without a target the units stay where they are
+		transaction("STP", "100", "100", null, "5", "500");
+
+		EntityManager entityManager = factoryBean.getObject().createEntityManager();
+		try {
+			TransactionRepository repository = new JpaRepositoryFactory(entityManager)
+					.getRepository(TransactionRepository.class);
+			AumEngine engine = new AumEngine(repository, event -> { });
+			AumEngine.Book book = engine.refresh();
+
+			assertThat(book.unitsHeld("100")).isCloseTo(18, within(1e-9));
+			assertThat(book.unitsHeld("200")).isCloseTo(20, within(1e-9));
+			// 18 x 110 + 20 x 60 + 200 at book value
+			assertThat(book.getTotalAum()).isCloseTo(3380, within(1e-6));
+			assertThat(book.userAum(10L)).isCloseTo(3380, within(1e-6));
+
+			// At the transfer date's NAVs the STPs neither create nor destroy value
+			AumEngine.Book asOf = engine.build(repository.findHoldingsForValuation(LocalDate.now().minusDays(10)));
+			assertThat(asOf.getTotalAum()).isCloseTo(3000, within(1e-6));
+			// Before the transactions there is nothing to value
+			assertThat(engine.build(repository.findHoldingsForValuation(LocalDate.now().minusDays(11)))
+					.getTotalAum()).isZero();
+		} finally {
+			entityManager.close();
+		}
+	}
+
+	private static void transaction(String type, String schemeCode, String fromFund, String toFund,
+									String units, String amount) {
+		jdbc.update("INSERT INTO transactions_extended (client_id, transaction_type, scheme_code, from_fund, to_fund, "
+				+ "units, amount, status, transaction_date, created_at, updated_at) "
+				+ "VALUES (1, ?, ?, ?, ?, CAST(? AS NUMERIC), CAST(? AS NUMERIC), 'COMPLETED', CURRENT_DATE - 10, now(), now())",
+				type, schemeCode, fromFund, toFund, units, amount);
+	}
+}
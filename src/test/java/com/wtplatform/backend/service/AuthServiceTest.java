@@ -0,0 +1,76 @@
+package com.wtplatform.backend.service;
+
+import com.wtplatform.backend.exception.TooManyRequestsException;
+import com.wtplatform.backend.security.AuthRateLimiter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.InternalAuthenticationServiceException;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AuthServiceTest {
+
+	private static final TooManyRequestsException POOL_FULL =
+			new TooManyRequestsException("Too many sign-in attempts in progress, please retry", 2);
+
+	@Test
+	void reportsAFullHashingPoolForAnUnknownAccountAsTooManyRequests() {
+		// The password check for an unknown account still hashes, to take as long as a real one
+		PasswordEncoder encoder = mock(PasswordEncoder.class);
+		when(encoder.encode(any())).thenReturn("$2a$10$unused");
+		when(encoder.matches(any(), anyString())).thenThrow(POOL_FULL);
+		DaoAuthenticationProvider provider = new DaoAuthenticationProvider(encoder);
+		provider.setUserDetailsService(email -> {
+			throw new UsernameNotFoundException("User not found with email: " + email);
+		});
+
+		assertThatThrownBy(() -> authService(new ProviderManager(provider)).authenticateUser("nobody@example.com", "secret"))
+				.isSameAs(POOL_FULL);
+	}
+
+	@Test
+	void unwrapsTooManyRequestsFromTheProvider() {
+		AuthenticationManager manager = mock(AuthenticationManager.class);
+		when(manager.authenticate(any())).thenThrow(new InternalAuthenticationServiceException("lookup failed", POOL_FULL));
+
+		assertThatThrownBy(() -> authService(manager).authenticateUserWithRole("nobody@example.com", "secret"))
+				.isSameAs(POOL_FULL);
+	}
+
+	@Test
+	void leavesOtherProviderFailuresAsTheyAre() {
+		AuthenticationManager manager = mock(AuthenticationManager.class);
+		when(manager.authenticate(any())).thenThrow(new InternalAuthenticationServiceException("lookup failed"));
+
+		assertThatThrownBy(() -> authService(manager).authenticateUser("nobody@example.com", "secret"))
+				.isInstanceOf(InternalAuthenticationServiceException.class);
+	}
+
+	@Test
+	void leavesBadCredentialsAsTheyAre() {
+		AuthenticationManager manager = mock(AuthenticationManager.class);
+		when(manager.authenticate(any())).thenThrow(new BadCredentialsException("Bad credentials"));
+
+		assertThatThrownBy(() -> authService(manager).authenticateUser("asha@example.com", "wrong"))
+				.isInstanceOf(BadCredentialsException.class);
+	}
+
+	private static AuthService authService(AuthenticationManager manager) {
+		AuthService authService = new AuthService();
+		ReflectionTestUtils.setField(authService, "authenticationManager", manager);
+		ReflectionTestUtils.setField(authService, "authRateLimiter",
+				new AuthRateLimiter(new SimpleMeterRegistry(), 20, 20, 5, 5, 100));
+		return authService;
+	}
+}
@@ -0,0 +1,104 @@
+package com.wtplatform.backend.service;
+
+import com.wtplatform.backend.dto.ClientSuggestionDTO;
+import com.wtplatform.backend.model.Client;
+import com.wtplatform.backend.repository.ClientRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ClientTypeaheadIndexTest {
+
+	private final ClientRepository clientRepository = mock(ClientRepository.class);
+	private final ClientTypeaheadIndex index = new ClientTypeaheadIndex(clientRepository);
+
+	@Test
+	void ranksNameStartsBeforeOtherWordsAndFields() {
+		when(clientRepository.findByUserId(1L)).thenReturn(List.of(
+				client(1L, "Ravi Sharma", "ABCDE1234F", "ravi@example.com", "9876543210", true),
+				client(2L, "Anita Rao", "SHRMA5678K", "anita@example.com", "+919812345678", true),
+				client(3L, "Sharad Kumar", "PQRST9999Z", "sk@example.com", "9000000000", true),
+				client(4L, "Shantanu Dey", "LMNOP1111Q", "sd@example.com", "9111111111", false)));
+
+		assertThat(ids(index.suggest(1L, "sh", 10))).containsExactly(3L, 1L, 2L);
+		assertThat(ids(index.suggest(1L, "ravi sh", 10))).containsExactly(1L);
+		assertThat(ids(index.suggest(1L, "98123", 10))).containsExactly(2L);
+		assertThat(ids(index.suggest(1L, "sh", 1))).containsExactly(3L);
+		verify(clientRepository, times(1)).findByUserId(1L);
+	}
+
+	@Test
+	void appliesChangesToLoadedAdvisorsWithoutReloading() {
+		when(clientRepository.findByUserId(1L)).thenReturn(List.of(
+				client(1L, "Ravi Sharma", "ABCDE1234F", "ravi@example.com", "9876543210", true)));
+		assertThat(index.suggest(1L, "ravi", 10)).hasSize(1);
+
+		index.onClientChanged(new ClientChangedEvent(1L, 2L, "Ravindra Iyer", "IYERR1234A",
+				"ri@example.com", "9222222222", true));
+		index.onClientChanged(new ClientChangedEvent(1L, 1L, "Kavi Sharma", "ABCDE1234F",
+				"kavi@example.com", "9876543210", true));
+		assertThat(ids(index.suggest(1L, "ravi", 10))).containsExactly(2L);
+		assertThat(ids(index.suggest(1L, "sharma", 10))).containsExactly(1L);
+
+		index.onClientChanged(new ClientChangedEvent(1L, 2L, "Ravindra Iyer", "IYERR1234A",
+				"ri@example.com", "9222222222", false));
+		assertThat(index.suggest(1L, "ravi", 10)).isEmpty();
+		verify(clientRepository, times(1)).findByUserId(1L);
+
+		// Not loaded: ignored, read from the database on first use
+		index.onClientChanged(new ClientChangedEvent(7L, 9L, "Meera Nair", "NAIRM1234B",
+				"mn@example.com", "9333333333", true));
+		assertThat(index.loadedAdvisors()).isEqualTo(1);
+	}
+
+	@Test
+	void loadsOutsideTheMapAndKeepsChangesMadeWhileLoading() throws Exception {
+		CountDownLatch loading = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		when(clientRepository.findByUserId(1L)).thenAnswer(invocation -> {
+			loading.countDown();
+			release.await(10, TimeUnit.SECONDS);
+			return List.of(client(1L, "Ravi Sharma", "ABCDE1234F", "ravi@example.com", "9876543210", true));
+		});
+		when(clientRepository.findByUserId(2L)).thenReturn(List.of(
+				client(5L, "Meera Nair", "NAIRM1234B", "mn@example.com", "9333333333", true)));
+
+		CompletableFuture<List<ClientSuggestionDTO>> first = CompletableFuture.supplyAsync(() -> index.suggest(1L, "r", 10));
+		assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+		CompletableFuture<List<ClientSuggestionDTO>> second = CompletableFuture.supplyAsync(() -> index.suggest(1L, "r", 10));
+
+		// Another advisor, and changes to the one loading, do not wait for the slow query
+		assertThat(ids(index.suggest(2L, "meera", 10))).containsExactly(5L);
+		index.onClientChanged(new ClientChangedEvent(1L, 2L, "Ravindra Iyer", "IYERR1234A",
+				"ri@example.com", "9222222222", true));
+
+		release.countDown();
+		assertThat(ids(first.get(5, TimeUnit.SECONDS))).containsExactly(1L, 2L);
+		assertThat(ids(second.get(5, TimeUnit.SECONDS))).containsExactly(1L, 2L);
+		verify(clientRepository, times(1)).findByUserId(1L);
+	}
+
+	private static List<Long> ids(List<ClientSuggestionDTO> suggestions) {
+		return suggestions.stream().map(ClientSuggestionDTO::getId).toList();
+	}
+
+	private static Client client(Long id, String name, String pan, String email, String phone, boolean active) {
+		Client client = new Client();
+		client.setId(id);
+		client.setName(name);
+		client.setPan(pan);
+		client.setEmail(email);
+		client.setPhone(phone);
+		client.setActive(active);
+		return client;
+	}
+}
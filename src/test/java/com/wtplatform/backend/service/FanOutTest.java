@@ -0,0 +1,84 @@
+package com.wtplatform.backend.service;
+
+import com.wtplatform.backend.exception.FanOutTimeoutException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+class FanOutTest {
+
+	private final FanOut fanOut = new FanOut(mock(PlatformTransactionManager.class));
+
+	@AfterEach
+	void tearDown() {
+		SecurityContextHolder.clearContext();
+		fanOut.destroy();
+	}
+
+	@Test
+	void runsSubtasksOnVirtualThreadsWithCallerSecurityContext() {
+		SecurityContextHolder.getContext().setAuthentication(
+				new UsernamePasswordAuthenticationToken("advisor@example.com", null));
+
+		try (FanOut.Scope scope = fanOut.open(Duration.ofSeconds(5))) {
+			FanOut.Subtask<String> user = scope.fork(
+					() -> SecurityContextHolder.getContext().getAuthentication().getName());
+			FanOut.Subtask<Boolean> virtual = scope.fork(() -> Thread.currentThread().isVirtual());
+			scope.join();
+
+			assertThat(user.get()).isEqualTo("advisor@example.com");
+			assertThat(virtual.get()).isTrue();
+		}
+	}
+
+	@Test
+	void firstFailureCancelsSiblings() throws Exception {
+		CountDownLatch started = new CountDownLatch(1);
+		AtomicBoolean interrupted = new AtomicBoolean();
+
+		try (FanOut.Scope scope = fanOut.open(Duration.ofSeconds(5))) {
+			scope.fork(() -> {
+				started.countDown();
+				try {
+					Thread.sleep(10_000);
+				} catch (InterruptedException e) {
+					interrupted.set(true);
+				}
+				return null;
+			});
+			scope.fork(() -> {
+				started.await();
+				throw new IllegalArgumentException("boom");
+			});
+
+			assertThatThrownBy(scope::join).isInstanceOf(IllegalArgumentException.class).hasMessage("boom");
+		}
+		for (int i = 0; i < 100 && !interrupted.get(); i++) {
+			TimeUnit.MILLISECONDS.sleep(10);
+		}
+		assertThat(interrupted).isTrue();
+	}
+
+	@Test
+	void timesOutSlowSubtasks() {
+		try (FanOut.Scope scope = fanOut.open(Duration.ofMillis(50))) {
+			scope.fork(() -> {
+				Thread.sleep(10_000);
+				return null;
+			});
+
+			assertThatThrownBy(scope::join).isInstanceOf(FanOutTimeoutException.class);
+		}
+	}
+}
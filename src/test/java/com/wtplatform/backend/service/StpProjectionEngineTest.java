@@ -0,0 +1,96 @@
+package com.wtplatform.backend.service;
+
+import com.wtplatform.backend.dto.BalanceShortfallDTO;
+import com.wtplatform.backend.dto.FundCashFlowDTO;
+import com.wtplatform.backend.dto.StpProjectionDTO;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StpProjectionEngineTest {
+
+	private final StpProjectionEngine engine = new StpProjectionEngine();
+
+	@Test
+	void epochDayMatchesLocalDate() {
+		for (LocalDate date = LocalDate.of(1999, 12, 1); date.isBefore(LocalDate.of(2101, 3, 1)); date = date.plusDays(13)) {
+			assertThat(StpProjectionEngine.epochDay(date.getYear(), date.getMonthValue(), date.getDayOfMonth()))
+					.isEqualTo((int) date.toEpochDay());
+			assertThat(StpProjectionEngine.lengthOfMonth(date.getYear(), date.getMonthValue()))
+					.isEqualTo(date.lengthOfMonth());
+		}
+	}
+
+	@Test
+	void monthlyStpIsAggregatedPerFundAndMonthAndClampsToMonthEnd() {
+		StpProjectionEngine.Schedules schedules = new StpProjectionEngine.Schedules(1);
+		schedules.addOpeningBalance(1L, "Liquid", 10_000);
+		schedules.add(1L, "STP", "Liquid", "Equity", null, 1_000, "MONTHLY",
+				LocalDate.of(2025, 1, 31), LocalDate.of(2025, 4, 30));
+
+		StpProjectionDTO result = engine.project(schedules, LocalDate.of(2025, 1, 1), 6);
+
+		// Jan 31, Feb 28, Mar 31, Apr 30 (end date inclusive)
+		assertThat(result.getOccurrenceCount()).isEqualTo(4);
+		assertThat(result.getMonthlyFlows()).hasSize(8);
+		FundCashFlowDTO febLiquid = result.getMonthlyFlows().stream()
+				.filter(f -> f.getMonth().equals("2025-02") && f.getFund().equals("Liquid"))
+				.findFirst().orElseThrow();
+		assertThat(febLiquid.getDebits()).isEqualTo(1_000.0);
+		assertThat(febLiquid.getCredits()).isZero();
+		assertThat(result.getShortfalls()).isEmpty();
+	}
+
+	@Test
+	void flagsFirstDateSourceBalanceGoesNegative() {
+		StpProjectionEngine.Schedules schedules = new StpProjectionEngine.Schedules(2);
+		schedules.addOpeningBalance(7L, "Liquid", 2_500);
+		schedules.add(7L, "STP", "Liquid", "Equity", null, 1_000, "WEEKLY",
+				LocalDate.of(2025, 3, 3), null);
+		// Another client's identical fund must not be mixed in
+		schedules.addOpeningBalance(8L, "Liquid", 1_000_000);
+
+		StpProjectionDTO result = engine.project(schedules, LocalDate.of(2025, 3, 1), 2);
+
+		assertThat(result.getShortfalls()).hasSize(1);
+		BalanceShortfallDTO shortfall = result.getShortfalls().get(0);
+		assertThat(shortfall.getClientId()).isEqualTo(7L);
+		assertThat(shortfall.getFund()).isEqualTo("Liquid");
+		assertThat(shortfall.getFirstNegativeDate()).isEqualTo(LocalDate.of(2025, 3, 17));
+		assertThat(shortfall.getProjectedBalance()).isEqualTo(-500.0);
+	}
+
+	@Test
+	void overdueScheduleStartsAtFirstOccurrenceInHorizon() {
+		StpProjectionEngine.Schedules schedules = new StpProjectionEngine.Schedules(1);
+		schedules.add(1L, "SIP", null, null, "Equity", 500, "QUARTERLY",
+				LocalDate.of(2024, 11, 10), null);
+
+		StpProjectionDTO result = engine.project(schedules, LocalDate.of(2025, 3, 1), 12);
+
+		// 2025-05-10, 2025-08-10, 2025-11-10, 2026-02-10
+		assertThat(result.getOccurrenceCount()).isEqualTo(4);
+		assertThat(result.getMonthlyFlows()).extracting(FundCashFlowDTO::getMonth)
+				.containsExactly("2025-05", "2025-08", "2025-11", "2026-02");
+	}
+
+	@Test
+	void monthlyScheduleReturnsToItsStartDayAfterAShortMonth() {
+		// Started Jan 31 and last executed on Feb 28: the next run is Mar 31, not Mar 28
+		LocalDate next = LocalDate.of(2025, 2, 28);
+		assertThat(StpProjectionEngine.plusMonthsOnDay(next, 1, 31)).isEqualTo(LocalDate.of(2025, 3, 31));
+		assertThat(StpProjectionEngine.plusMonthsOnDay(next, 3, 31)).isEqualTo(LocalDate.of(2025, 5, 31));
+
+		StpProjectionEngine.Schedules schedules = new StpProjectionEngine.Schedules(1);
+		schedules.addOpeningBalance(1L, "Liquid", 1_500);
+		schedules.add(1L, "STP", "Liquid", "Equity", null, 1_000, "MONTHLY", next, 31, null);
+
+		StpProjectionDTO result = engine.project(schedules, LocalDate.of(2025, 2, 1), 3);
+
+		// Feb 28 leaves 500, the projection's next run is the one StpService would execute
+		assertThat(result.getShortfalls()).extracting(BalanceShortfallDTO::getFirstNegativeDate)
+				.containsExactly(StpProjectionEngine.plusMonthsOnDay(next, 1, 31));
+	}
+}
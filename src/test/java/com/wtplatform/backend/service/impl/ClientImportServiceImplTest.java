@@ -0,0 +1,248 @@
+package com.wtplatform.backend.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wtplatform.backend.dto.ClientImportJobDTO;
+import com.wtplatform.backend.dto.ClientImportRowResultDTO;
+import com.wtplatform.backend.exception.TooManyRequestsException;
+import com.wtplatform.backend.model.Client;
+import com.wtplatform.backend.repository.ClientRepository;
+import com.wtplatform.backend.repository.UserRepository;
+import com.wtplatform.backend.security.AccessControl;
+import com.wtplatform.backend.service.ClientTypeaheadIndex;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ClientImportServiceImplTest {
+
+	private static final Long USER_ID = 10L;
+	private static final String HEADER = "name,pan,email,phone,aum,address,city,state,pincode,riskProfile,investmentHorizon\n";
+
+	private final ClientRepository clientRepository = mock(ClientRepository.class);
+	private final AccessControl accessControl = mock(AccessControl.class);
+	private final ValidatorFactory validatorFactory = Validation.buildDefaultValidatorFactory();
+	private final AtomicLong ids = new AtomicLong();
+	private final List<ClientImportServiceImpl> services = new ArrayList<>();
+
+	@BeforeEach
+	void setUp() {
+		when(accessControl.currentUserId()).thenReturn(USER_ID);
+		when(clientRepository.findExistingPans(anyCollection())).thenReturn(List.of());
+		when(clientRepository.findExistingEmails(anyCollection())).thenReturn(List.of());
+		when(clientRepository.saveAll(anyList())).thenAnswer(invocation -> {
+			List<Client> clients = invocation.getArgument(0);
+			clients.forEach(client -> client.setId(ids.incrementAndGet()));
+			return clients;
+		});
+	}
+
+	@AfterEach
+	void tearDown() {
+		services.forEach(ClientImportServiceImpl::destroy);
+		validatorFactory.close();
+	}
+
+	@Test
+	void failsTheJobWhenARequiredColumnIsMissing() throws Exception {
+		ClientImportServiceImpl service = service(1000, 2, 8, 1);
+
+		ClientImportJobDTO job = await(service, service.startImport(
+				csv("name,pan,email\nAsha,ABCDE1234F,asha@example.com\n"), null));
+
+		assertThat(job.getStatus()).isEqualTo("FAILED");
+		assertThat(job.getError()).isEqualTo("Missing required column: phone");
+		verify(clientRepository, never()).saveAll(anyList());
+	}
+
+	@Test
+	void failsRaggedRowsAndInvalidAumAndImportsTheRest() throws Exception {
+		ClientImportServiceImpl service = service(1000, 2, 8, 1);
+
+		ClientImportJobDTO job = await(service, service.startImport(csv(HEADER
+				+ row("ABCDE1234F", "asha@example.com", "5000")
+				+ "Ravi,ABCDE1234G,ravi@example.com\n"
+				+ row("ABCDE1234H", "meera@example.com", "lots")), null));
+
+		assertThat(job.getStatus()).isEqualTo("COMPLETED");
+		assertThat(job.getImported()).isEqualTo(1);
+		assertThat(job.getFailed()).isEqualTo(2);
+		List<ClientImportRowResultDTO> results = service.getResults(job.getJobId(), 0, 10).orElseThrow();
+		assertThat(results).extracting(ClientImportRowResultDTO::getStatus)
+				.containsExactly("IMPORTED", "FAILED", "FAILED");
+		assertThat(results.get(1).getMessage()).isEqualTo("Row has 3 values, header has 11");
+		assertThat(results.get(2).getMessage()).isEqualTo("Invalid AUM value: lots");
+	}
+
+	@Test
+	void failsPanAndEmailRepeatedWithinAChunkAndAcrossChunks() throws Exception {
+		ClientImportServiceImpl service = service(2, 2, 8, 1);
+
+		ClientImportJobDTO job = await(service, service.startImport(csv(HEADER
+				+ row("ABCDE1234F", "asha@example.com", "5000")
+				// Same chunk as the first row
+				+ row("ABCDE1234F", "other@example.com", "5000")
+				+ row("ABCDE1234G", "ravi@example.com", "5000")
+				// Second chunk, repeating rows of the first
+				+ row("ABCDE1234H", "asha@example.com", "5000")
+				+ row("ABCDE1234G", "meera@example.com", "5000")), null));
+
+		assertThat(job.getImported()).isEqualTo(2);
+		assertThat(job.getFailed()).isEqualTo(3);
+		assertThat(service.getResults(job.getJobId(), 0, 10).orElseThrow())
+				.extracting(ClientImportRowResultDTO::getMessage)
+				.containsExactly(null,
+						"Duplicate PAN ABCDE1234F earlier in the file",
+						null,
+						"Duplicate email asha@example.com earlier in the file",
+						"Duplicate PAN ABCDE1234G earlier in the file");
+	}
+
+	@Test
+	void retriesRowByRowWhenAConcurrentInsertConflicts() throws Exception {
+		ClientImportServiceImpl service = service(1000, 2, 8, 1);
+		when(clientRepository.saveAll(anyList())).thenThrow(new DataIntegrityViolationException("clients_pan_key"));
+		when(clientRepository.save(any(Client.class))).thenAnswer(invocation -> {
+			Client client = invocation.getArgument(0);
+			if (client.getPan().equals("ABCDE1234G")) {
+				throw new DataIntegrityViolationException("clients_pan_key");
+			}
+			client.setId(ids.incrementAndGet());
+			return client;
+		});
+
+		ClientImportJobDTO job = await(service, service.startImport(csv(HEADER
+				+ row("ABCDE1234F", "asha@example.com", "5000")
+				+ row("ABCDE1234G", "ravi@example.com", "5000")
+				+ row("ABCDE1234H", "meera@example.com", "5000")), null));
+
+		assertThat(job.getStatus()).isEqualTo("COMPLETED");
+		assertThat(job.getImported()).isEqualTo(2);
+		List<ClientImportRowResultDTO> results = service.getResults(job.getJobId(), 0, 10).orElseThrow();
+		assertThat(results).extracting(ClientImportRowResultDTO::getStatus)
+				.containsExactly("IMPORTED", "FAILED", "IMPORTED");
+		assertThat(results.get(1).getMessage())
+				.isEqualTo("Client with PAN ABCDE1234G or email ravi@example.com already exists");
+	}
+
+	@Test
+	void keepsOnlyTheFirstRowResults() throws Exception {
+		ClientImportServiceImpl service = service(2, 2, 8, 1);
+		ReflectionTestUtils.setField(service, "maxRowResults", 3);
+
+		ClientImportJobDTO job = await(service, service.startImport(csv(HEADER
+				+ row("ABCDE1234F", "a@example.com", "5000")
+				+ row("ABCDE1234G", "b@example.com", "5000")
+				+ row("ABCDE1234H", "c@example.com", "5000")
+				+ row("ABCDE1234J", "d@example.com", "5000")), null));
+
+		assertThat(job.getImported()).isEqualTo(4);
+		assertThat(job.getResultsDropped()).isEqualTo(1);
+		assertThat(service.getResults(job.getJobId(), 0, 10).orElseThrow()).hasSize(3);
+	}
+
+	@Test
+	void refusesASecondImportWhileTheAdvisorHasOneRunning() throws Exception {
+		ClientImportServiceImpl service = service(1000, 2, 8, 1);
+		CountDownLatch release = blockLookups();
+
+		ClientImportJobDTO first = service.startImport(csv(HEADER + row("ABCDE1234F", "a@example.com", "5000")), null);
+		assertThatThrownBy(() -> service.startImport(csv(HEADER + row("ABCDE1234G", "b@example.com", "5000")), null))
+				.isInstanceOf(TooManyRequestsException.class);
+
+		release.countDown();
+		assertThat(await(service, first).getStatus()).isEqualTo("COMPLETED");
+		// The slot is free again once the job has finished
+		assertThat(await(service, service.startImport(
+				csv(HEADER + row("ABCDE1234G", "b@example.com", "5000")), null)).getStatus()).isEqualTo("COMPLETED");
+	}
+
+	@Test
+	void refusesImportsOnceTheQueueIsFull() throws Exception {
+		ClientImportServiceImpl service = service(1000, 1, 1, 5);
+		CountDownLatch release = blockLookups();
+
+		ClientImportJobDTO running = service.startImport(csv(HEADER + row("ABCDE1234F", "a@example.com", "5000")), null);
+		ClientImportJobDTO queued = service.startImport(csv(HEADER + row("ABCDE1234G", "b@example.com", "5000")), null);
+		assertThatThrownBy(() -> service.startImport(csv(HEADER + row("ABCDE1234H", "c@example.com", "5000")), null))
+				.isInstanceOf(TooManyRequestsException.class)
+				.extracting("retryAfterSeconds").isEqualTo(60L);
+
+		release.countDown();
+		assertThat(await(service, running).getStatus()).isEqualTo("COMPLETED");
+		assertThat(await(service, queued).getStatus()).isEqualTo("COMPLETED");
+	}
+
+	private ClientImportServiceImpl service(int chunkSize, int maxConcurrentJobs, int maxQueuedJobs, int maxJobsPerUser) {
+		ClientImportServiceImpl service = new ClientImportServiceImpl(clientRepository, mock(UserRepository.class),
+				new TransactionTemplate(mock(PlatformTransactionManager.class)), validatorFactory.getValidator(),
+				new ObjectMapper(), mock(ClientTypeaheadIndex.class), mock(ApplicationEventPublisher.class), accessControl);
+		ReflectionTestUtils.setField(service, "chunkSize", chunkSize);
+		ReflectionTestUtils.setField(service, "maxConcurrentJobs", maxConcurrentJobs);
+		ReflectionTestUtils.setField(service, "maxQueuedJobs", maxQueuedJobs);
+		ReflectionTestUtils.setField(service, "maxJobsPerUser", maxJobsPerUser);
+		ReflectionTestUtils.setField(service, "maxRowResults", 10_000);
+		ReflectionTestUtils.setField(service, "retentionMinutes", 60L);
+		service.init();
+		services.add(service);
+		return service;
+	}
+
+	/**
+	 * Holds every job in its existing-PAN lookup until the returned latch is released
+	 */
+	private CountDownLatch blockLookups() {
+		CountDownLatch release = new CountDownLatch(1);
+		when(clientRepository.findExistingPans(anyCollection())).thenAnswer(invocation -> {
+			release.await(5, TimeUnit.SECONDS);
+			return List.<String>of();
+		});
+		return release;
+	}
+
+	private static ClientImportJobDTO await(ClientImportServiceImpl service, ClientImportJobDTO started)
+			throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (System.nanoTime() < deadline) {
+			ClientImportJobDTO job = service.getJob(started.getJobId()).orElseThrow();
+			if (job.getFinishedAt() != null) {
+				return job;
+			}
+			Thread.sleep(5);
+		}
+		throw new AssertionError("Job " + started.getJobId() + " did not finish");
+	}
+
+	private static MockMultipartFile csv(String content) {
+		return new MockMultipartFile("file", "clients.csv", "text/csv", content.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static String row(String pan, String email, String aum) {
+		return "Client " + pan + "," + pan + "," + email + ",9000000000," + aum
+				+ ",1 Main Road,Pune,Maharashtra,411001,MODERATE,LONG\n";
+	}
+}
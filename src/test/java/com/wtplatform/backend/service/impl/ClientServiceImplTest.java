@@ -0,0 +1,129 @@
+package com.wtplatform.backend.service.impl;
+
+import com.wtplatform.backend.dto.ClientOverviewDTO;
+import com.wtplatform.backend.exception.AumNotReadyException;
+import com.wtplatform.backend.model.Client;
+import com.wtplatform.backend.model.Note;
+import com.wtplatform.backend.repository.ClientRepository;
+import com.wtplatform.backend.repository.FundBalanceRepository;
+import com.wtplatform.backend.repository.NoteRepository;
+import com.wtplatform.backend.repository.TransactionRepository;
+import com.wtplatform.backend.security.AccessControl;
+import com.wtplatform.backend.service.AumEngine;
+import com.wtplatform.backend.service.ClientOverviewSection;
+import com.wtplatform.backend.service.FanOut;
+import com.wtplatform.backend.service.S3Service;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class ClientServiceImplTest {
+
+	private static final Long USER_ID = 10L;
+	private static final Long CLIENT_ID = 1L;
+
+	private final ClientRepository clientRepository = mock(ClientRepository.class);
+	private final NoteRepository noteRepository = mock(NoteRepository.class);
+	private final TransactionRepository transactionRepository = mock(TransactionRepository.class);
+	private final FundBalanceRepository fundBalanceRepository = mock(FundBalanceRepository.class);
+	private final S3Service s3Service = mock(S3Service.class);
+	private final AccessControl accessControl = mock(AccessControl.class);
+	private final AumEngine aumEngine = mock(AumEngine.class);
+	private final FanOut fanOut = new FanOut(mock(PlatformTransactionManager.class));
+	private final ClientServiceImpl service = new ClientServiceImpl();
+	private final Client client = new Client();
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(service, "clientRepository", clientRepository);
+		ReflectionTestUtils.setField(service, "noteRepository", noteRepository);
+		ReflectionTestUtils.setField(service, "transactionRepository", transactionRepository);
+		ReflectionTestUtils.setField(service, "fundBalanceRepository", fundBalanceRepository);
+		ReflectionTestUtils.setField(service, "s3Service", s3Service);
+		ReflectionTestUtils.setField(service, "accessControl", accessControl);
+		ReflectionTestUtils.setField(service, "aumEngine", aumEngine);
+		ReflectionTestUtils.setField(service, "fanOut", fanOut);
+		ReflectionTestUtils.setField(fanOut, "defaultTimeoutMs", 5000L);
+
+		when(accessControl.currentUserId()).thenReturn(USER_ID);
+		client.setId(CLIENT_ID);
+		client.setName("Asha");
+		client.setActive(true);
+		when(clientRepository.findByIdAndUserId(CLIENT_ID, USER_ID)).thenReturn(Optional.of(client));
+	}
+
+	@AfterEach
+	void tearDown() {
+		fanOut.destroy();
+	}
+
+	@Test
+	void readsOnlyTheRequestedSections() {
+		Note note = new Note();
+		note.setTitle("Review");
+		note.setClient(client);
+		when(noteRepository.findByClientId(CLIENT_ID)).thenReturn(List.of(note));
+		when(transactionRepository.findRecentWithClientByClientId(anyLong(), any())).thenReturn(List.of());
+
+		ClientOverviewDTO overview = service.getClientOverview(CLIENT_ID,
+				EnumSet.of(ClientOverviewSection.NOTES, ClientOverviewSection.TRANSACTIONS), 10);
+
+		assertThat(overview.getClient().getName()).isEqualTo("Asha");
+		assertThat(overview.getNotes()).hasSize(1);
+		assertThat(overview.getRecentTransactions()).isEmpty();
+		assertThat(overview.getStps()).isNull();
+		assertThat(overview.getFundBalances()).isNull();
+		assertThat(overview.getHoldingsValue()).isNull();
+		assertThat(overview.getDocuments()).isNull();
+		verifyNoInteractions(fundBalanceRepository, s3Service, aumEngine);
+	}
+
+	@Test
+	void boundsTheNumberOfRecentTransactions() {
+		when(transactionRepository.findRecentWithClientByClientId(anyLong(), any())).thenReturn(List.of());
+
+		service.getClientOverview(CLIENT_ID, EnumSet.of(ClientOverviewSection.TRANSACTIONS), 10_000);
+		verify(transactionRepository).findRecentWithClientByClientId(CLIENT_ID, PageRequest.of(0, 100));
+
+		service.getClientOverview(CLIENT_ID, EnumSet.of(ClientOverviewSection.TRANSACTIONS), 0);
+		verify(transactionRepository).findRecentWithClientByClientId(CLIENT_ID, PageRequest.of(0, 1));
+	}
+
+	@Test
+	void rejectsAClientOfAnotherAdvisorBeforeReadingAnySection() {
+		when(clientRepository.findByIdAndUserId(2L, USER_ID)).thenReturn(Optional.empty());
+
+		assertThatThrownBy(() -> service.getClientOverview(2L,
+				EnumSet.allOf(ClientOverviewSection.class), 10))
+				.hasMessageContaining("Client not found");
+		verifyNoInteractions(noteRepository, transactionRepository, fundBalanceRepository, s3Service, aumEngine);
+	}
+
+	@Test
+	void leavesOutHoldingsWhileTheValuationIsLoading() {
+		when(aumEngine.current()).thenThrow(new AumNotReadyException("loading"));
+		when(fundBalanceRepository.findByClientId(CLIENT_ID)).thenReturn(List.of());
+
+		ClientOverviewDTO overview = service.getClientOverview(CLIENT_ID,
+				EnumSet.of(ClientOverviewSection.HOLDINGS, ClientOverviewSection.BALANCES), 10);
+
+		assertThat(overview.getHoldingsValue()).isNull();
+		assertThat(overview.getFundBalances()).isEmpty();
+	}
+}
@@ -0,0 +1,66 @@
+package com.wtplatform.backend.service.impl;
+
+import com.wtplatform.backend.dto.DashboardStatsDTO;
+import com.wtplatform.backend.exception.AumNotReadyException;
+import com.wtplatform.backend.repository.ClientRepository;
+import com.wtplatform.backend.repository.TransactionRepository;
+import com.wtplatform.backend.security.AccessControl;
+import com.wtplatform.backend.service.AumEngine;
+import com.wtplatform.backend.service.FanOut;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DashboardServiceImplTest {
+
+	private static final Long USER_ID = 10L;
+
+	private final ClientRepository clientRepository = mock(ClientRepository.class);
+	private final TransactionRepository transactionRepository = mock(TransactionRepository.class);
+	private final AccessControl accessControl = mock(AccessControl.class);
+	private final AumEngine aumEngine = mock(AumEngine.class);
+	private final FanOut fanOut = new FanOut(mock(PlatformTransactionManager.class));
+	private final DashboardServiceImpl service = new DashboardServiceImpl();
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(service, "clientRepository", clientRepository);
+		ReflectionTestUtils.setField(service, "transactionRepository", transactionRepository);
+		ReflectionTestUtils.setField(service, "accessControl", accessControl);
+		ReflectionTestUtils.setField(service, "aumEngine", aumEngine);
+		ReflectionTestUtils.setField(service, "fanOut", fanOut);
+		ReflectionTestUtils.setField(fanOut, "defaultTimeoutMs", 5000L);
+
+		when(accessControl.currentUserId()).thenReturn(USER_ID);
+		when(clientRepository.countByUserId(USER_ID)).thenReturn(3L);
+		when(clientRepository.countByUserIdAndIsActive(USER_ID, true)).thenReturn(2L);
+		when(transactionRepository.findRecentWithClientByUserId(eq(USER_ID), any())).thenReturn(List.of());
+	}
+
+	@AfterEach
+	void tearDown() {
+		fanOut.destroy();
+	}
+
+	@Test
+	void leavesOutAumWhileTheValuationIsLoading() {
+		when(aumEngine.current()).thenThrow(new AumNotReadyException("loading"));
+
+		DashboardStatsDTO stats = service.getDashboardStats();
+
+		assertThat(stats.getTotalAum()).isNull();
+		assertThat(stats.getClientCount()).isEqualTo(3);
+		assertThat(stats.getActiveClientCount()).isEqualTo(2);
+		assertThat(stats.getRecentTransactions()).isEmpty();
+	}
+}
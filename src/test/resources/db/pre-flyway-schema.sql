@@ -0,0 +1,166 @@
+-- The schema Hibernate's ddl-auto created before Flyway owned it, from the entities with
+-- IDENTITY ids: identity id columns rather than serial ones, and none of the indexes V6 to
+-- V8 add. SchemaMigrationTest baselines this and migrates it.
+
+create table amfi_schemes (
+    isactive boolean,
+    lastnavdate date,
+    lastnavvalue numeric(38,2),
+    amcname varchar(255),
+    category varchar(255),
+    isin varchar(255),
+    schemecode varchar(255) not null,
+    schemename varchar(255),
+    schemetype varchar(255),
+    primary key (schemecode)
+);
+
+create table aum_snapshots (
+    aum numeric(20,2) not null,
+    snapshot_date date not null,
+    client_id bigint not null,
+    id bigint generated by default as identity,
+    user_id bigint not null,
+    asset_class varchar(32) not null,
+    primary key (id),
+    constraint uk_aum_snapshot_user_date_client_class unique (user_id, snapshot_date, client_id, asset_class)
+);
+
+create table clients (
+    aum float(53) not null,
+    isactive boolean not null,
+    createdat timestamp(6) not null,
+    id bigint generated by default as identity,
+    updatedat timestamp(6) not null,
+    user_id bigint not null,
+    address varchar(255) not null,
+    city varchar(255) not null,
+    email varchar(255) not null unique,
+    investmenthorizon varchar(255) not null,
+    name varchar(255) not null,
+    pan varchar(255) not null unique,
+    phone varchar(255) not null,
+    pincode varchar(255) not null,
+    riskprofile varchar(255) not null,
+    state varchar(255) not null,
+    primary key (id)
+);
+
+create table fund_balance (
+    as_of_date date not null,
+    balance numeric(20,6) not null,
+    client_id bigint not null,
+    id bigint generated by default as identity,
+    last_updated timestamp(6),
+    fund_id varchar(128) not null,
+    primary key (id)
+);
+
+create table nav_history (
+    nav numeric(20,6) not null,
+    nav_date date not null,
+    fund_id bigint not null,
+    id bigint generated by default as identity,
+    last_updated timestamp(6),
+    source varchar(64) not null,
+    primary key (id),
+    unique (fund_id, nav_date)
+);
+
+create table notes (
+    is_pinned boolean,
+    client_id bigint not null,
+    created_at timestamp(6) with time zone not null,
+    id bigint generated by default as identity,
+    updated_at timestamp(6) with time zone,
+    title varchar(500) not null,
+    category varchar(255) not null check (category in ('GENERAL','MEETING','CALL','TASK','REMINDER','FOLLOW_UP')),
+    content TEXT not null,
+    created_by varchar(255),
+    primary key (id)
+);
+
+create table stp_balance_warnings (
+    amount numeric(20,6) not null,
+    next_transaction_date date not null,
+    scan_date date not null,
+    source_balance numeric(20,6),
+    client_id bigint not null,
+    created_at timestamp(6) not null,
+    id bigint generated by default as identity,
+    transaction_id bigint not null,
+    user_id bigint not null,
+    from_fund varchar(128),
+    to_fund varchar(128),
+    client_name varchar(255),
+    primary key (id)
+);
+
+create table transactions_extended (
+    amount numeric(20,6) not null,
+    end_date date,
+    installment_number integer,
+    is_recurring boolean,
+    nav_at_txn_time numeric(20,6),
+    next_transaction_date date,
+    start_date date,
+    total_installments integer,
+    transaction_date date,
+    units numeric(20,6),
+    client_id bigint not null,
+    created_at timestamp(6) not null,
+    id bigint generated by default as identity,
+    updated_at timestamp(6) not null,
+    asset_class varchar(32),
+    frequency varchar(32),
+    mode varchar(32),
+    scheme_code varchar(32),
+    status varchar(32),
+    transaction_type varchar(32) not null,
+    transaction_id varchar(64),
+    client_name varchar(128),
+    from_fund varchar(128),
+    fund_name varchar(128),
+    to_fund varchar(128),
+    remarks varchar(255),
+    primary key (id)
+);
+
+create table users (
+    created_at timestamp(6) not null,
+    id bigint generated by default as identity,
+    updated_at timestamp(6) not null,
+    email varchar(255) not null unique,
+    password varchar(255) not null,
+    role varchar(255) not null,
+    primary key (id)
+);
+
+create index idx_aum_snapshot_date
+   on aum_snapshots (snapshot_date);
+
+
+
+
+create index idx_stp_warning_user_next
+   on stp_balance_warnings (user_id, next_transaction_date);
+
+alter table if exists clients
+   add constraint FKtiuqdledq2lybrds2k3rfqrv4
+   foreign key (user_id)
+   references users;
+
+alter table if exists fund_balance
+   add constraint FKa8it48ge4aibg8k9e31171gdl
+   foreign key (client_id)
+   references clients;
+
+alter table if exists notes
+   add constraint FK58fve4vpt5cijxcywdfdqrcf5
+   foreign key (client_id)
+   references clients;
+
+alter table if exists transactions_extended
+   add constraint FKct00c73sisk3381g4gkkl6avb
+   foreign key (client_id)
+   references clients;